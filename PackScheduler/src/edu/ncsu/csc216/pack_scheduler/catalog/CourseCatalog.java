@@ -5,35 +5,86 @@ package edu.ncsu.csc216.pack_scheduler.catalog;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import edu.ncsu.csc216.pack_scheduler.course.Course;
 import edu.ncsu.csc216.pack_scheduler.io.CourseRecordIO;
+import edu.ncsu.csc216.pack_scheduler.io.Journal;
+import edu.ncsu.csc216.pack_scheduler.io.ReadMode;
+import edu.ncsu.csc216.pack_scheduler.io.RecordFileWriter;
+import edu.ncsu.csc216.pack_scheduler.io.SaveMode;
+import edu.ncsu.csc216.pack_scheduler.user.schedule.Schedule;
 import edu.ncsu.csc217.collections.list.SortedList;
 
 /**
  * Holds the courses needed in the catalog, can add, remove,
  * and get courses from the catalog
  * 
+ * The catalog is safe to share between threads. Lookups by name and section
+ * don't lock, and every other method locks the catalog.
+ * 
+ * Courses set from a snapshot are already in catalog order, so only the
+ * indexes are built from them straight away. The SortedList, whose add
+ * checks every course already in it, is built the first time the catalog
+ * changes, and the catalog is read from the courses as they were set until then.
+ * 
+ * While a Journal is set, every course added or removed, and every new or
+ * loaded catalog, is journaled and committed before the change returns, so it
+ * can be replayed after a crash. Changes are appended to the journal while the
+ * catalog is locked and committed after it is let go.
+ * 
  * @author Kavya Vadla
  */
 public class CourseCatalog {
 
 
-	/** A sorted list of courses that make up the catalog */
+	/** A sorted list of courses that make up the catalog, or null until it is built from unlisted */
 	private SortedList<Course> catalog;
+	/** The courses set from a snapshot in catalog order, or null once catalog holds them */
+	private Course[] unlisted;
+	/** Index of the courses in the catalog keyed on name and section, kept in sync with catalog */
+	private volatile ConcurrentHashMap<String, Course> courseIndex;
+	/** Index of the courses in the catalog by the hours they meet, kept in sync with catalog */
+	private TimeSlotIndex timeSlotIndex;
+	/** Saves the catalog, remembering what it last saved */
+	private final RecordFileWriter<Course> catalogWriter = new RecordFileWriter<Course>(Course::getVersion);
+	/** The journal changes are written to, or null if changes aren't journaled */
+	private volatile Journal journal;
+	/** Journal entry for the catalog being emptied */
+	private static final String CLEAR = "clearCourses";
+	/** Journal entry for a course being added */
+	private static final String ADD = "addCourse";
+	/** Journal entry for a course loaded from a file, with its record */
+	private static final String LOAD = "loadCourse";
+	/** Journal entry for a course being removed */
+	private static final String REMOVE = "removeCourse";
 
 	/**
 	 * Constructs an empty catalog
 	 */
 	public CourseCatalog() {
-		catalog = new SortedList<Course>();
+		newCourseCatalog();
 	}
 
 	/**
 	 * constructs a new empty catalog, erasing the first one
 	 */
 	public void newCourseCatalog() {
-		catalog = new SortedList<Course>();
+		Journal j = journal;
+		long entry;
+		synchronized (this) {
+			catalog = new SortedList<Course>();
+			unlisted = null;
+			courseIndex = new ConcurrentHashMap<String, Course>();
+			timeSlotIndex = new TimeSlotIndex();
+			entry = Journal.appendTo(j, CLEAR);
+		}
+		Journal.commitTo(j, entry);
 	}
 
 	/**
@@ -47,11 +98,52 @@ public class CourseCatalog {
 	 * @throws IllegalArgumentException if the file cannot be found or read
 	 */
 	public void loadCoursesFromFile(String fileName) {
-		try {
-			catalog = CourseRecordIO.readCourseRecords(fileName);
-		} catch (FileNotFoundException e) {
-			throw new IllegalArgumentException("Unable to read file " + fileName);
+		Journal j = journal;
+		long entry;
+		synchronized (this) {
+			try {
+				catalog = CourseRecordIO.readCourseRecords(fileName, ReadMode.PARALLEL);
+				unlisted = null;
+				indexCatalog();
+			} catch (FileNotFoundException e) {
+				throw new IllegalArgumentException("Unable to read file " + fileName);
+			}
+			// a loaded course is journaled with its record, so replaying it assigns its instructor again
+			entry = Journal.appendTo(j, CLEAR);
+			for (int i = 0; i < catalog.size(); i++) {
+				entry = Journal.appendTo(j, LOAD, catalog.get(i).toString());
+			}
 		}
+		Journal.commitTo(j, entry);
+	}
+
+	/**
+	 * Replaces the catalog with courses that have already been read, such as
+	 * from a snapshot. This isn't journaled, since the courses bring their rolls
+	 * with them.
+	 * 
+	 * @param courses the distinct courses to put in the catalog, in catalog order
+	 */
+	public synchronized void setCourses(Course[] courses) {
+		catalog = null;
+		unlisted = courses.clone();
+		indexCatalog();
+	}
+
+	/**
+	 * Returns the courses in the catalog in catalog order
+	 * 
+	 * @return the courses in the catalog
+	 */
+	public synchronized Course[] getCourses() {
+		if (catalog == null) {
+			return unlisted.clone();
+		}
+		Course[] courses = new Course[catalog.size()];
+		for (int i = 0; i < courses.length; i++) {
+			courses[i] = catalog.get(i);
+		}
+		return courses;
 	}
 
 	/**
@@ -74,18 +166,40 @@ public class CourseCatalog {
 	 */
 	public boolean addCourseToCatalog(String name, String title, String section, int credits, String instructorId,
 			int enrollmentCap, String meetingDays, int startTime, int endTime) {
+		Course add;
 		try {
-			Course add = new Course(name, title, section, credits, instructorId, enrollmentCap, meetingDays, startTime, endTime);
-			for (int i = 0; i < catalog.size(); i++) {
-				Course catalogCourse = catalog.get(i);
-				if (catalogCourse.isDuplicate(add) && catalogCourse.getSection().equals(add.getSection())) {
-					return false;
-				}
-			}
-			catalog.add(add);
+			add = new Course(name, title, section, credits, instructorId, enrollmentCap, meetingDays, startTime, endTime);
 		} catch (IllegalArgumentException e) {
 			throw new IllegalArgumentException(e.getMessage());
 		}
+		Journal j = journal;
+		long entry;
+		synchronized (this) {
+			if (!add(add)) {
+				return false;
+			}
+			entry = Journal.appendTo(j, ADD, name, title, section, String.valueOf(credits), instructorId == null ? "" : instructorId,
+					String.valueOf(enrollmentCap), meetingDays, String.valueOf(startTime), String.valueOf(endTime));
+		}
+		Journal.commitTo(j, entry);
+		return true;
+	}
+
+	/**
+	 * Adds a course to the catalog and its indexes
+	 * 
+	 * @param course the course to add
+	 * @return true if added, or false if the catalog has a course with the same
+	 *         name and section
+	 */
+	private boolean add(Course course) {
+		String key = indexKey(course.getName(), course.getSection());
+		if (courseIndex.containsKey(key)) {
+			return false;
+		}
+		sortedCatalog().add(course);
+		courseIndex.put(key, course);
+		timeSlotIndex.add(course);
 		return true;
 	}
 
@@ -97,15 +211,55 @@ public class CourseCatalog {
 	 * @return boolean of if the course could be added to the schedule
 	 */
 	public boolean removeCourseFromCatalog(String name, String section) {
-		for (int i = 0; i < catalog.size(); i++) {
-			String catalogName = catalog.get(i).getName();
-			String catalogSect = catalog.get(i).getSection();
-			if (catalogName.equals(name) && catalogSect.equals(section)) {
-				catalog.remove(i);
-				return true;
+		Journal j = journal;
+		long entry;
+		synchronized (this) {
+			Course course = courseIndex.remove(indexKey(name, section));
+			if (course == null) {
+				return false;
 			}
+			sortedCatalog().remove(findCourse(course));
+			timeSlotIndex.remove(course);
+			entry = Journal.appendTo(j, REMOVE, name, section);
+		}
+		Journal.commitTo(j, entry);
+		return true;
+	}
+
+	/**
+	 * Journals every later change to the catalog, or stops journaling them
+	 * 
+	 * @param journal the journal to write changes to, or null to stop
+	 */
+	public void setJournal(Journal journal) {
+		this.journal = journal;
+	}
+
+	/**
+	 * Makes a journaled change to the catalog again. Changes are replayed
+	 * before a journal is set, so they aren't journaled twice.
+	 * 
+	 * @param entry the fields of the journal entry
+	 * @return true if the entry is a change to the catalog and it was made, or
+	 *         false if it isn't one or couldn't be made
+	 * @throws IllegalArgumentException if the entry's course isn't valid
+	 */
+	public synchronized boolean replay(String[] entry) {
+		switch (entry[0]) {
+		case CLEAR:
+			newCourseCatalog();
+			return true;
+		case ADD:
+			return addCourseToCatalog(entry[1], entry[2], entry[3], Integer.parseInt(entry[4]),
+					entry[5].isEmpty() ? null : entry[5], Integer.parseInt(entry[6]), entry[7],
+					Integer.parseInt(entry[8]), Integer.parseInt(entry[9]));
+		case LOAD:
+			return add(CourseRecordIO.readCourseRecord(String.join(",", Arrays.copyOfRange(entry, 1, entry.length))));
+		case REMOVE:
+			return removeCourseFromCatalog(entry[1], entry[2]);
+		default:
+			return false;
 		}
-		return false;
 	}
 
 	/**
@@ -116,14 +270,7 @@ public class CourseCatalog {
 	 * @return course you are searching for if it exists in the catalog
 	 */
 	public Course getCourseFromCatalog(String name, String section) {
-		for (int i = 0; i < catalog.size(); i++) {
-			String catalogName = catalog.get(i).getName();
-			String catalogSect = catalog.get(i).getSection();
-			if (catalogName.equals(name) && catalogSect.equals(section)) {
-				return catalog.get(i);
-			}
-		}
-		return null;
+		return courseIndex.get(indexKey(name, section));
 	}
 
 	/**
@@ -131,11 +278,51 @@ public class CourseCatalog {
 	 * 
 	 * @return string array of the course catalog
 	 */
-	public String[][] getCourseCatalog() {
-		String[][] catalogs = new String[catalog.size()][4];
-		for (int i = 0; i < catalog.size(); i++) {
-			Course c = catalog.get(i);
-			catalogs[i] = c.getShortDisplayArray();
+	public synchronized String[][] getCourseCatalog() {
+		Course[] courses = getCourses();
+		String[][] catalogs = new String[courses.length][4];
+		for (int i = 0; i < courses.length; i++) {
+			catalogs[i] = courses[i].getShortDisplayArray();
+		}
+		return catalogs;
+	}
+
+	/**
+	 * Gets the String array of the courses in the catalog that fit around a schedule,
+	 * in catalog order. Like Schedule.canAdd, a course fits if the schedule has no
+	 * course with the same name and no scheduled course conflicts with it.
+	 * 
+	 * Each of the schedule's own courses is checked for conflicts against only the
+	 * catalog courses meeting in the same hours, found with the time slot index.
+	 * Catalog courses whose meeting days or times were changed in place are moved
+	 * in the index first.
+	 * 
+	 * @param schedule the schedule to fit courses around
+	 * @return string array of the courses that fit the schedule
+	 */
+	public synchronized String[][] getCoursesThatFit(Schedule schedule) {
+		Course[] courses = getCourses();
+		for (Course c : courses) {
+			timeSlotIndex.update(c);
+		}
+		Set<String> scheduledNames = new HashSet<String>();
+		Set<Course> conflicts = Collections.newSetFromMap(new IdentityHashMap<Course, Boolean>());
+		for (Course scheduled : schedule.getCourses()) {
+			scheduledNames.add(scheduled.getName());
+			timeSlotIndex.addConflictingCourses(scheduled, conflicts);
+		}
+
+		int count = 0;
+		Course[] fits = new Course[courses.length];
+		for (Course c : courses) {
+			if (!scheduledNames.contains(c.getName()) && !conflicts.contains(c)) {
+				fits[count++] = c;
+			}
+		}
+
+		String[][] catalogs = new String[count][4];
+		for (int i = 0; i < count; i++) {
+			catalogs[i] = fits[i].getShortDisplayArray();
 		}
 		return catalogs;
 	}
@@ -147,12 +334,93 @@ public class CourseCatalog {
 	 * @throws IllegalArgumentException "Unable to write to file " + fileName
 	 *                                  if it is unable to write to such file
 	 */
-	public void saveCourseCatalog(String fileName) {
+	public synchronized void saveCourseCatalog(String fileName) {
+		saveCourseCatalog(fileName, SaveMode.FULL);
+	}
+
+	/**
+	 * Saves the courses in the catalog to a file. In SaveMode.INCREMENTAL only
+	 * the courses added, removed or changed since the catalog was last saved to
+	 * the same file are written.
+	 * 
+	 * @param fileName name of file to save courses to.
+	 * @param mode whether to write every course or only the changes
+	 * @throws IllegalArgumentException "Unable to write to file " + fileName
+	 *                                  if it is unable to write to such file
+	 */
+	public synchronized void saveCourseCatalog(String fileName, SaveMode mode) {
 		try {
-			CourseRecordIO.writeCourseRecords(fileName, catalog);
+			catalogWriter.write(fileName, getCourses(), mode);
 		} catch (IOException e) {
 			throw new IllegalArgumentException("Unable to write to file " + fileName);
 		}
 	}
 
+	/**
+	 * Rebuilds the name and section index and the time slot index from the courses
+	 * in the catalog
+	 */
+	private void indexCatalog() {
+		ConcurrentHashMap<String, Course> index = new ConcurrentHashMap<String, Course>();
+		timeSlotIndex = new TimeSlotIndex();
+		for (Course c : getCourses()) {
+			index.put(indexKey(c.getName(), c.getSection()), c);
+			timeSlotIndex.add(c);
+		}
+		courseIndex = index;
+	}
+
+	/**
+	 * Returns the sorted list of the courses in the catalog, building it from
+	 * the courses set from a snapshot if it hasn't been yet. They are added
+	 * from the end, so each one goes in at the head of the list.
+	 * 
+	 * @return the sorted list of courses
+	 */
+	private SortedList<Course> sortedCatalog() {
+		if (catalog == null) {
+			SortedList<Course> list = new SortedList<Course>();
+			for (int i = unlisted.length - 1; i >= 0; i--) {
+				list.add(unlisted[i]);
+			}
+			catalog = list;
+			unlisted = null;
+		}
+		return catalog;
+	}
+
+	/**
+	 * Gives the key a course is stored under in the index. A comma can't appear
+	 * in a valid name or section, so it keeps the key unambiguous.
+	 * 
+	 * @param name    name of course
+	 * @param section section of course
+	 * @return the index key for the name and section
+	 */
+	private static String indexKey(String name, String section) {
+		return name + "," + section;
+	}
+
+	/**
+	 * Binary searches the catalog for the position of a course. The catalog is
+	 * sorted by name, then section, so this is the same order as compareTo.
+	 * 
+	 * @param course the course to find, which must be in the catalog
+	 * @return the index of the course in the catalog
+	 */
+	private int findCourse(Course course) {
+		SortedList<Course> list = sortedCatalog();
+		int low = 0;
+		int high = list.size() - 1;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (list.get(mid).compareTo(course) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
 }
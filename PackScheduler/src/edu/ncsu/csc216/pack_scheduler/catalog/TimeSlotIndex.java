@@ -0,0 +1,126 @@
+package edu.ncsu.csc216.pack_scheduler.catalog;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+
+/**
+ * Buckets courses by each day and hour they meet, so the courses that conflict
+ * with a given course can be found by only checking the courses that meet in the
+ * same hours. Arranged courses never conflict with anything, so they aren't stored.
+ * 
+ * Courses are tracked by identity since a Course's hash code changes when an
+ * instructor is assigned to it. Each course is remembered with the buckets it
+ * was put in, so a course whose meeting days and times were changed in place
+ * can still be removed, and update() moves it to the buckets it meets in now.
+ * 
+ * @author Amulya Jose
+ */
+public class TimeSlotIndex {
+
+	/** The days of the week a course can meet on, in the order of their buckets */
+	private static final String WEEK_DAYS = "MTWHFUS";
+	/** The number of hour buckets in a day */
+	private static final int HOURS = 24;
+	/** The courses meeting in each hour of each day, at index day * HOURS + hour */
+	private Set<Course>[] slots;
+	/** The buckets each indexed course was put in */
+	private final IdentityHashMap<Course, int[]> indexed = new IdentityHashMap<Course, int[]>();
+
+	/**
+	 * Constructs an empty index
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public TimeSlotIndex() {
+		slots = new Set[WEEK_DAYS.length() * HOURS];
+		for (int i = 0; i < slots.length; i++) {
+			slots[i] = Collections.newSetFromMap(new IdentityHashMap<Course, Boolean>());
+		}
+	}
+
+	/**
+	 * Adds a course to every hour bucket it meets in
+	 * 
+	 * @param course the course to add
+	 */
+	public void add(Course course) {
+		int[] buckets = bucketsOf(course);
+		indexed.put(course, buckets);
+		for (int bucket : buckets) {
+			slots[bucket].add(course);
+		}
+	}
+
+	/**
+	 * Removes a course from every hour bucket it was added to
+	 * 
+	 * @param course the course to remove
+	 */
+	public void remove(Course course) {
+		int[] buckets = indexed.remove(course);
+		if (buckets == null) {
+			return;
+		}
+		for (int bucket : buckets) {
+			slots[bucket].remove(course);
+		}
+	}
+
+	/**
+	 * Moves an indexed course to the hour buckets it meets in now, if its meeting
+	 * days or times changed since it was added
+	 * 
+	 * @param course the course to update
+	 */
+	public void update(Course course) {
+		int[] buckets = indexed.get(course);
+		if (buckets != null && !Arrays.equals(buckets, bucketsOf(course))) {
+			remove(course);
+			add(course);
+		}
+	}
+
+	/**
+	 * Adds every indexed course that conflicts with the given course to a set. Only
+	 * the buckets the given course meets in are checked.
+	 * 
+	 * @param course     the course to find conflicts with
+	 * @param conflicts the set the conflicting courses are added to
+	 */
+	public void addConflictingCourses(Course course, Set<Course> conflicts) {
+		for (int bucket : bucketsOf(course)) {
+			for (Course other : slots[bucket]) {
+				if (!conflicts.contains(other) && course.isConflicting(other)) {
+					conflicts.add(other);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the hour buckets a course meets in
+	 * 
+	 * @param course the course to find the buckets of
+	 * @return the indexes of the buckets, empty for an arranged course
+	 */
+	private static int[] bucketsOf(Course course) {
+		String days = course.getMeetingDays();
+		if ("A".equals(days)) {
+			return new int[0];
+		}
+		int first = course.getStartTime() / 100;
+		int hours = course.getEndTime() / 100 - first + 1;
+		int[] buckets = new int[days.length() * hours];
+		for (int i = 0; i < days.length(); i++) {
+			int day = WEEK_DAYS.indexOf(days.charAt(i));
+			for (int hour = 0; hour < hours; hour++) {
+				buckets[i * hours + hour] = day * HOURS + first + hour;
+			}
+		}
+		return buckets;
+	}
+
+}
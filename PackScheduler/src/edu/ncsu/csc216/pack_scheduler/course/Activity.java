@@ -15,6 +15,8 @@ public abstract class Activity implements Conflict {
 	private static final int UPPER_HOUR = 24;
 	/** The number of minutes in an hour */
 	private static final int UPPER_MINUTE = 60;
+	/** The days of the week an activity can meet on, in the order of their bits in the day mask */
+	private static final String WEEK_DAYS = "MTWHFUS";
 	/** Course's title. */
 	private String title;
 	/** Course's meeting days */
@@ -23,6 +25,14 @@ public abstract class Activity implements Conflict {
 	private int startTime;
 	/** Course's ending time */
 	private int endTime;
+	/** Course's meeting days as a bit mask over WEEK_DAYS, 0 if arranged */
+	private int meetingDayMask;
+	/** Course's starting time in minutes after midnight */
+	private int startMinute;
+	/** Course's ending time in minutes after midnight */
+	private int endMinute;
+	/** counts the changes to the fields in the activity's record */
+	private volatile int version;
 
 	/**
 	 * constructor for Activity class
@@ -37,6 +47,22 @@ public abstract class Activity implements Conflict {
 		setMeetingDaysAndTime(meetingDays, startTime, endTime);
 	}
 
+	/**
+	 * Returns a number that changes every time a field in the activity's record
+	 * changes, so a save can tell which records need to be written again
+	 * @return the version of the activity's record
+	 */
+	public int getVersion() {
+		return version;
+	}
+
+	/**
+	 * Marks the activity's record as changed
+	 */
+	protected void changed() {
+		version++;
+	}
+
 	/**
 	 * Return the Course's title.
 	 * @return the title
@@ -59,6 +85,7 @@ public abstract class Activity implements Conflict {
 		
 		
 		this.title = title;
+		changed();
 	}
 
 	/**
@@ -134,26 +161,24 @@ public abstract class Activity implements Conflict {
 	 */
 	@Override
 	public void checkConflict(Activity possibleConflictingActivity) throws ConflictException {
-		if (!"A".equals(meetingDays)) {
-			for (char a : meetingDays.toCharArray()) {
-				if (possibleConflictingActivity.getMeetingDays().contains(String.valueOf(a))) {
-					
-					// thrown out alternative solution:
-					//  iterate inclusively from startTime to endTime and throw an exception
-					//  if the number is contained inclusively between the other activities times
-					// reason: too much iteration when it could be simplified
-					if (startTime <= possibleConflictingActivity.getEndTime() && endTime >= possibleConflictingActivity.getStartTime()) {
-						throw new ConflictException();
-					}
-					
-					// because the timing is the same on different days, we can be sure that startTime/endTime won't be different
-					// for another day so we are done
-					break;
-				}
-			} 
+		if (isConflicting(possibleConflictingActivity)) {
+			throw new ConflictException();
 		}
 	}
 
+	/**
+	 * checks if the time of an activity conflicts with another activity using the same
+	 * rules as checkConflict, but without throwing an exception
+	 * @param possibleConflictingActivity the activity to be compared to this activity
+	 * @return true if the activities overlap in time
+	 */
+	public boolean isConflicting(Activity possibleConflictingActivity) {
+		// arranged activities have an empty mask, so they never share a day with anything
+		return (meetingDayMask & possibleConflictingActivity.meetingDayMask) != 0
+				&& startMinute <= possibleConflictingActivity.endMinute
+				&& endMinute >= possibleConflictingActivity.startMinute;
+	}
+
 	/**
 	 * gives a string starting with meetingDays, space, regular time startTime, dash,
 	 * regular time endTime
@@ -209,7 +234,7 @@ public abstract class Activity implements Conflict {
 			}
 		} else { // not arranged
 			
-			String weekChart = "MTWHFUS"; // valid days of the week, including weekend
+			String weekChart = WEEK_DAYS; // valid days of the week, including weekend
 			int weekIndex = -1;
 			
 			// checks that all meetingDays are days of the week
@@ -236,6 +261,36 @@ public abstract class Activity implements Conflict {
 		this.meetingDays = meetingDays;
 		this.startTime = startTime;
 		this.endTime = endTime;
+		this.meetingDayMask = getDayMask(meetingDays);
+		this.startMinute = getMinuteOfDay(startTime);
+		this.endMinute = getMinuteOfDay(endTime);
+		changed();
+	}
+
+	/**
+	 * Converts valid meeting days to a bit mask with one bit per day in WEEK_DAYS.
+	 * Arranged activities don't meet on any day, so their mask is 0.
+	 * @param meetingDays the meeting days to convert
+	 * @return the bit mask of the meeting days
+	 */
+	private static int getDayMask(String meetingDays) {
+		if ("A".equals(meetingDays)) {
+			return 0;
+		}
+		int mask = 0;
+		for (int i = 0; i < meetingDays.length(); i++) {
+			mask |= 1 << WEEK_DAYS.indexOf(meetingDays.charAt(i));
+		}
+		return mask;
+	}
+
+	/**
+	 * Converts a valid integer military time to the number of minutes after midnight
+	 * @param time the time to be converted
+	 * @return the number of minutes after midnight
+	 */
+	private static int getMinuteOfDay(int time) {
+		return time / 100 * UPPER_MINUTE + time % 100;
 	}
 	
 	/**
@@ -24,8 +24,6 @@ public class Course extends Activity implements Comparable<Course> {
 	private static final int MIN_CREDITS = 1;
 	/** Holds the overall minimum enrollment ever */
     private static final int MIN_ENROLLMENT = 10;
-    /** Holds the overall max enrollment ever */
-    private static final int MAX_ENROLLMENT = 250;
 	/** Course's name. */
 	private String name;
 	/** Course's section. */
@@ -55,8 +53,32 @@ public class Course extends Activity implements Comparable<Course> {
 	 */
 	public Course(String name, String title, String section, int credits, String instructorId, int enrollmentCap, String meetingDays,
 			int startTime, int endTime) {
+		this(name, title, section, credits, instructorId, enrollmentCap, CourseRoll.DEFAULT_MAX_ENROLLMENT,
+				CourseRoll.DEFAULT_WAITLIST_SIZE, meetingDays, startTime, endTime);
+	}
+
+	/**
+	 * Constructs a Course object with its own limits on enrollment, for sections
+	 * larger than the default max enrollment or with a different waitlist size.
+	 * 
+	 * @param name          the Course's name
+	 * @param title         the Course's title
+	 * @param section       the Course's section
+	 * @param credits       the Course's credit hours
+	 * @param instructorId  the Course's instructor
+	 * @param enrollmentCap the cap for enrollment for this specific class
+	 * @param maxEnrollment the most students the enrollment cap can be set to
+	 * @param waitlistSize  the most students the waitlist can hold
+	 * @param meetingDays   the Course's meeting days
+	 * @param startTime     the Course's starting time
+	 * @param endTime       the Course's ending time
+	 * @throws IllegalArgumentException if the enrollment capacity is less than 10 or greater than maxEnrollment,
+	 * 		or the waitlist size is negative
+	 */
+	public Course(String name, String title, String section, int credits, String instructorId, int enrollmentCap,
+			int maxEnrollment, int waitlistSize, String meetingDays, int startTime, int endTime) {
 		super(title, meetingDays, startTime, endTime);
-		if (enrollmentCap < MIN_ENROLLMENT || enrollmentCap > MAX_ENROLLMENT) {
+		if (enrollmentCap < MIN_ENROLLMENT || enrollmentCap > maxEnrollment) {
 			throw new IllegalArgumentException("Invalid enrollment capacity");
 		}
 		validator = new CourseNameValidator();
@@ -64,7 +86,7 @@ public class Course extends Activity implements Comparable<Course> {
 		setSection(section);
 		setCredits(credits);
 		setInstructorId(instructorId);
-		roll = new CourseRoll(enrollmentCap, this);
+		roll = new CourseRoll(enrollmentCap, this, maxEnrollment, waitlistSize);
 	}
 
 	/**
@@ -190,6 +212,7 @@ public class Course extends Activity implements Comparable<Course> {
 		}
 
 		this.section = section;
+		changed();
 	}
 
 	/**
@@ -216,6 +239,7 @@ public class Course extends Activity implements Comparable<Course> {
 			throw new IllegalArgumentException("Invalid credits.");
 
 		this.credits = credits;
+		changed();
 	}
 
 	/**
@@ -239,6 +263,7 @@ public class Course extends Activity implements Comparable<Course> {
 			throw new IllegalArgumentException("Invalid instructor id.");
 
 		this.instructorId = instructorId;
+		changed();
 	}
 
 	/**
@@ -288,6 +313,17 @@ public class Course extends Activity implements Comparable<Course> {
 		super.setMeetingDaysAndTime(meetingDays, startTime, endTime);
 	}
 
+	/**
+	 * Returns a number that changes every time a field in the Course's record
+	 * changes, including the limits kept by its roll
+	 * 
+	 * @return the version of the Course's record
+	 */
+	@Override
+	public int getVersion() {
+		return super.getVersion() + roll.getVersion();
+	}
+
 	/**
 	 * gives the hash code of the Course
 	 * 
@@ -326,18 +362,24 @@ public class Course extends Activity implements Comparable<Course> {
 
 	/**
 	 * Returns a comma separated value String of all Course fields as follows:
-	 * name,title,section,credits,instructorId,meetingDays[,startTime,endTime]
+	 * name,title,section,credits,instructorId,meetingDays[,startTime,endTime][,maxEnrollment,waitlistSize]
+	 * The max enrollment and waitlist size are only included when they aren't the defaults.
 	 * 
 	 * @return String representation of Course
 	 */
 	@Override
 	public String toString() {
+		String limits = "";
+		if (roll.getMaxEnrollment() != CourseRoll.DEFAULT_MAX_ENROLLMENT
+				|| roll.getWaitlistSize() != CourseRoll.DEFAULT_WAITLIST_SIZE) {
+			limits = "," + roll.getMaxEnrollment() + "," + roll.getWaitlistSize();
+		}
 		if ("A".equals(getMeetingDays())) {
 			return name + "," + getTitle() + "," + section + "," + credits + "," + instructorId + ","
-					+ roll.getEnrollmentCap() + "," + getMeetingDays();
+					+ roll.getEnrollmentCap() + "," + getMeetingDays() + limits;
 		}
 		return name + "," + getTitle() + "," + section + "," + credits + "," + instructorId + "," + 
-				roll.getEnrollmentCap() + "," + getMeetingDays() + "," + getStartTime() + "," + getEndTime();
+				roll.getEnrollmentCap() + "," + getMeetingDays() + "," + getStartTime() + "," + getEndTime() + limits;
 	}
 
 	/**
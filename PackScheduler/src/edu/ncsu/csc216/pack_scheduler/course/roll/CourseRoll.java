@@ -1,30 +1,104 @@
 package edu.ncsu.csc216.pack_scheduler.course.roll;
 
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import edu.ncsu.csc216.pack_scheduler.course.Course;
 import edu.ncsu.csc216.pack_scheduler.user.Student;
-import edu.ncsu.csc216.pack_scheduler.util.ArrayQueue;
-import edu.ncsu.csc216.pack_scheduler.util.LinkedAbstractList;
 
 /**
  * Holds a list of students enrolled in a course
+ * 
+ * Every method that reads or changes the roll synchronizes on the CourseRoll,
+ * so each course has its own lock. Open seats are counted separately in an
+ * atomic counter: a student takes a seat with a compare-and-set on the counter
+ * and only then locks the roll to add themselves to the list, so reading the
+ * open seats and losing the race for the last seat never wait on the lock.
+ * 
+ * The roll is keyed by student id, so checking whether a student is in the
+ * course, enrolling and dropping take constant time. The waitlist is a heap
+ * ordered by priority (see Waitlist), so joining it and being promoted from it
+ * take O(log n) time even for large waitlists.
+ * 
+ * The most students a course can ever hold and the size of its waitlist default
+ * to DEFAULT_MAX_ENROLLMENT and DEFAULT_WAITLIST_SIZE but can be set per course.
  * @author Jacob Phillips
  * @author William Walton
  */
 public class CourseRoll {
     /** Holds the overall minimum enrollment ever */
     private static final int MIN_ENROLLMENT = 10;
-    /** Holds the overall max enrollment ever */
-    private static final int MAX_ENROLLMENT = 250;
-    /** The size of a waitlist */
-    private static final int WAITLIST_SIZE = 10;
-    /** Holds the list of students */
-    private LinkedAbstractList<Student> roll;
+    /** The max enrollment of a course unless it sets its own */
+    public static final int DEFAULT_MAX_ENROLLMENT = 250;
+    /** The size of a waitlist unless the course sets its own */
+    public static final int DEFAULT_WAITLIST_SIZE = 10;
+    /** Holds the most students the enrollment cap can be set to for this course */
+    private int maxEnrollment;
+    /** Holds the students enrolled in the course by id */
+    private LinkedHashMap<String, Student> roll;
     /** Holds the cap for enrollment for this specific class */
     private int enrollmentCap;
+    /** Seats not yet taken, reserved before the student is added to the roll */
+    private final AtomicInteger openSeats = new AtomicInteger();
     /** A waitlist for the course */
-    private ArrayQueue<Student> waitlist;
+    private Waitlist waitlist;
     /** The course for students to enroll into*/
     private Course course;
+    /** Counts the changes to the limits written in the course's record */
+    private volatile int version;
+
+    /**
+     * A student on the waitlist with the seniority and scheduled credits they had
+     * when they joined it, which set their place in line
+     */
+    public static class Waitlisted {
+        /** the waitlisted student */
+        private final Student student;
+        /** the student's seniority when they joined */
+        private final int seniority;
+        /** the credits the student was scheduled for when they joined */
+        private final int credits;
+
+        /**
+         * Creates a waitlisted student
+         * 
+         * @param student the waitlisted student
+         * @param seniority the student's seniority when they joined
+         * @param credits the credits the student was scheduled for when they joined
+         */
+        public Waitlisted(Student student, int seniority, int credits) {
+            this.student = student;
+            this.seniority = seniority;
+            this.credits = credits;
+        }
+
+        /**
+         * Returns the waitlisted student
+         * 
+         * @return the student
+         */
+        public Student getStudent() {
+            return student;
+        }
+
+        /**
+         * Returns the student's seniority when they joined the waitlist
+         * 
+         * @return the seniority
+         */
+        public int getSeniority() {
+            return seniority;
+        }
+
+        /**
+         * Returns the credits the student was scheduled for when they joined the waitlist
+         * 
+         * @return the scheduled credits
+         */
+        public int getCredits() {
+            return credits;
+        }
+    }
 
     /**
      * Creates a new course enrollment counter with a waitlist for a specific Course
@@ -34,21 +108,80 @@ public class CourseRoll {
      * @throws IllegalArgumentException if the course parameter is null
      */
     public CourseRoll(int cap, Course course) {
+        this(cap, course, DEFAULT_MAX_ENROLLMENT, DEFAULT_WAITLIST_SIZE);
+    }
+
+    /**
+     * Creates a new course enrollment counter with its own limits for a specific Course
+     * 
+     * @param cap set capacity for enrollment
+     * @param course the Course the CourseRoll is associated with
+     * @param maxEnrollment the most students the enrollment cap can be set to
+     * @param waitlistSize the most students the waitlist can hold
+     * @throws IllegalArgumentException if the course parameter is null
+     * @throws IllegalArgumentException "Invalid max enrollment." if maxEnrollment is less than the MIN_ENROLLMENT
+     * @throws IllegalArgumentException "Invalid waitlist size." if waitlistSize is negative
+     */
+    public CourseRoll(int cap, Course course, int maxEnrollment, int waitlistSize) {
     	if (course == null) {
     		throw new IllegalArgumentException();
     	}
+    	if (maxEnrollment < MIN_ENROLLMENT) {
+    		throw new IllegalArgumentException("Invalid max enrollment.");
+    	}
+    	this.maxEnrollment = maxEnrollment;
         setEnrollmentCap(cap);
-        roll = new LinkedAbstractList<Student>(MAX_ENROLLMENT);
-        this.waitlist = new ArrayQueue<Student>(WAITLIST_SIZE);
+        roll = new LinkedHashMap<String, Student>();
+        this.waitlist = new Waitlist(waitlistSize);
         this.course = course;
     }
 
+    /**
+     * Returns the most students the enrollment cap can be set to
+     * 
+     * @return the max enrollment of the course
+     */
+    public int getMaxEnrollment() {
+        return maxEnrollment;
+    }
+
+    /**
+     * Returns the most students the waitlist can hold
+     * 
+     * @return the size of the waitlist
+     */
+    public synchronized int getWaitlistSize() {
+        return waitlist.getCapacity();
+    }
+
+    /**
+     * Sets the most students the waitlist can hold
+     * 
+     * @param waitlistSize the size to set
+     * @throws IllegalArgumentException "Invalid waitlist size." if the size is
+     * 		negative or less than the number of students on the waitlist
+     */
+    public synchronized void setWaitlistSize(int waitlistSize) {
+        waitlist.setCapacity(waitlistSize);
+        version++;
+    }
+
+    /**
+     * Returns a number that changes every time the enrollment cap or waitlist
+     * size changes
+     * 
+     * @return the version of the roll's limits
+     */
+    public int getVersion() {
+        return version;
+    }
+
     /**
      * Returns the current cap for enrollment
      * 
      * @return the current cap for enrollment
      */
-    public int getEnrollmentCap() {
+    public synchronized int getEnrollmentCap() {
         return enrollmentCap;
     }
 
@@ -58,26 +191,79 @@ public class CourseRoll {
      * @param cap the cap to set
      * @throws IllegalArgumentException "Invalid enrollment capacity." if
      * 		parameter cap is less than the MIN_ENROLLMENT
-     * 		parameter cap is more than the MAX_ENROLLMENT
+     * 		parameter cap is more than the course's max enrollment
      * @throws IllegalArgumentException "Cannot decrease enrollment capacity below the current number of students in the class."
      * 		if the roll exists and is bigger than the new capacity
      */
-    public void setEnrollmentCap(int cap) {
-        if (cap < MIN_ENROLLMENT || cap > MAX_ENROLLMENT) {
+    public synchronized void setEnrollmentCap(int cap) {
+        if (cap < MIN_ENROLLMENT || cap > maxEnrollment) {
             throw new IllegalArgumentException("Invalid enrollment capacity.");
         }
 
-        if (roll != null && cap < roll.size()) {
-            throw new IllegalArgumentException(
-                    "Cannot decrease enrollment capacity below the current number of students in the class.");
-        }
-        
-        if (roll != null) {
-        	roll.setCapacity(cap);
+        // seats can be reserved without the lock, so move the counter with a CAS
+        int open = openSeats.get();
+        while (true) {
+            int newOpen = open + cap - enrollmentCap;
+            if (newOpen < 0) {
+                throw new IllegalArgumentException(
+                        "Cannot decrease enrollment capacity below the current number of students in the class.");
+            }
+            if (openSeats.compareAndSet(open, newOpen)) {
+                break;
+            }
+            open = openSeats.get();
         }
         
         enrollmentCap = cap;
-        
+        version++;
+    }
+
+    /**
+     * Takes one open seat from the counter without locking the roll
+     * 
+     * @return true if a seat was taken, false if there are no open seats
+     */
+    private boolean reserveSeat() {
+        int open = openSeats.get();
+        while (open > 0) {
+            if (openSeats.compareAndSet(open, open - 1)) {
+                return true;
+            }
+            open = openSeats.get();
+        }
+        return false;
+    }
+
+    /**
+     * Adds a student to the roll in a seat already taken by reserveSeat(). The
+     * seat is given back if the student can't be added.
+     * 
+     * @param student student to add
+     * @return true if the student was added
+     */
+    private synchronized boolean fillReservedSeat(Student student) {
+        String id = student.getId();
+        if (roll.containsKey(id) || waitlist.contains(id)) {
+            releaseSeat();
+            return false;
+        }
+        roll.put(id, student);
+        return true;
+    }
+
+    /**
+     * Gives a seat back, to the first student on the waitlist if there is one.
+     * A student can join the waitlist while another holds a reserved seat, so a
+     * seat given back because it couldn't be filled goes to the waitlist the
+     * same way a dropped student's seat does. Called with the roll's lock held.
+     */
+    private void releaseSeat() {
+        if (getNumberOnWaitlist() != 0) {
+            Student s = waitlist.poll();
+            roll.put(s.getId(), s);
+        } else {
+            openSeats.incrementAndGet();
+        }
     }
 
     /**
@@ -88,25 +274,51 @@ public class CourseRoll {
      * @param student student to enroll
      * @throws IllegalArgumentException if
      * 		parameter student is null or
-     * 		the roll is at capacity
+     * 		the roll is at capacity and the waitlist is full or already holds the student
      * @throws IllegalArgumentException "Error adding the student."
-     * 		if the LinkedList roll encounters an error when trying to add a student or if the waitlist is full
+     * 		if the student is already on the roll or the waitlist when a seat is open
      */
     public void enroll(Student student) {
-        if (student == null || getNumberOnWaitlist() == WAITLIST_SIZE) {
+        if (student == null) {
             throw new IllegalArgumentException();
         }
         
-        if (enrollmentCap == roll.size()) {
-        	waitlist.enqueue(student);
-        	student.getSchedule().addCourseToSchedule(course);
-        } else {
-        	try {
-                roll.add(roll.size(), student);
-            } catch (Exception e) {
+        if (reserveSeat()) {
+            if (!fillReservedSeat(student)) {
                 throw new IllegalArgumentException("Error adding the student.");
             }
+            return;
         }
+        
+        synchronized (this) {
+            // a drop may have freed a seat since the reservation failed
+            if (reserveSeat()) {
+                if (!fillReservedSeat(student)) {
+                    throw new IllegalArgumentException("Error adding the student.");
+                }
+            } else {
+                waitlist.add(student);
+                try {
+                    student.getSchedule().addCourseToSchedule(course);
+                } catch (IllegalArgumentException e) {
+                    waitlist.remove(student.getId());
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Enrolls a student in an open seat of the course. Unlike enroll(), the
+     * student is never put on the waitlist, and a full course is reported
+     * without taking the roll's lock.
+     * 
+     * @param student student to enroll
+     * @return true if the student took a seat, false if the course is full or
+     * 		the student is already on the roll or the waitlist
+     */
+    public boolean enrollInOpenSeat(Student student) {
+        return student != null && reserveSeat() && fillReservedSeat(student);
     }
 
     /**
@@ -117,36 +329,18 @@ public class CourseRoll {
      * @param student student to drop
      * @throws IllegalArgumentException "Error removing the student." if student is not in the roll or null
      */
-    public void drop(Student student) {
+    public synchronized void drop(Student student) {
         if (student == null) {
             throw new IllegalArgumentException("Error removing the student.");
         }
         
-        for (int i = 0; i < roll.size(); i++) {
-            if (student.equals(roll.get(i))) {
-            	try {
-                    Student stdt = roll.remove(i);
-                    stdt.getSchedule().removeCourseFromSchedule(course);
-                    if (getNumberOnWaitlist() != 0) {
-                    	Student s = waitlist.dequeue();
-                        roll.add(roll.size(), s);
-                    }
-                } catch (Exception e) {
-                    throw new IllegalArgumentException("Error removing the student.");
-                }
-            }
-        }  
-        
-        ArrayQueue<Student> waitlistCopy = new ArrayQueue<Student>(WAITLIST_SIZE);
-        int size = waitlist.size();
-    	for (int i = 0; i < size; i++) {
-    		Student studentCompare = waitlist.dequeue();
-    		if (!student.equals(studentCompare)) {
-    			waitlistCopy.enqueue(studentCompare);
-    		}
-    	}
-    	waitlist = waitlistCopy;
-    	
+        Student stdt = roll.remove(student.getId());
+        if (stdt != null) {
+            stdt.getSchedule().removeCourseFromSchedule(course);
+            releaseSeat();
+        } else {
+            waitlist.remove(student.getId());
+        }
     }
 
     /**
@@ -155,7 +349,7 @@ public class CourseRoll {
      * @return the number of open seats in the course
      */
     public int getOpenSeats() {
-        return enrollmentCap - roll.size();
+        return openSeats.get();
     }
 
     /**
@@ -164,30 +358,69 @@ public class CourseRoll {
      * @param student student to enroll
      * @return whether the student can enroll in the course or be added to the waitlist or not
      */
-    public boolean canEnroll(Student student) {
-        if (getOpenSeats() == 0 || waitlist.size() == WAITLIST_SIZE)
+    public synchronized boolean canEnroll(Student student) {
+        if (student == null || getOpenSeats() == 0 || waitlist.size() == waitlist.getCapacity())
             return false;
 
-        for (int i = 0; i < roll.size(); i++) {
-            if (roll.get(i).equals(student)) {
-                return false;
+        return !roll.containsKey(student.getId()) && !waitlist.contains(student.getId());
+    }
+    
+    /**
+     * Returns the students enrolled in the course in the order they took their seats
+     * 
+     * @return the enrolled students
+     */
+    public synchronized Student[] getEnrolledStudents() {
+        return roll.values().toArray(new Student[roll.size()]);
+    }
+
+    /**
+     * Returns the students on the waitlist in the order they joined it
+     * 
+     * @return the waitlisted students
+     */
+    public synchronized Waitlisted[] getWaitlistedStudents() {
+        return waitlist.toArray();
+    }
+
+    /**
+     * Replaces the students on the roll and the waitlist, such as when loading a
+     * snapshot. The waitlisted students keep the priority they are given, and the
+     * students' schedules are not changed. Nothing else should be using the roll
+     * while it is restored.
+     * 
+     * @param enrolled the students to enroll, in the order they took their seats
+     * @param waitlisted the students to waitlist, in the order they joined
+     * @throws IllegalArgumentException if there are more students than the cap or
+     * 		the waitlist allows, or a student is listed more than once
+     */
+    public synchronized void restore(Student[] enrolled, Waitlisted[] waitlisted) {
+        if (enrolled.length > enrollmentCap) {
+            throw new IllegalArgumentException("Cannot enroll more students than the enrollment capacity.");
+        }
+        LinkedHashMap<String, Student> restoredRoll = new LinkedHashMap<String, Student>();
+        for (Student student : enrolled) {
+            if (restoredRoll.put(student.getId(), student) != null) {
+                throw new IllegalArgumentException("Error adding the student.");
             }
         }
-        
-//        if (waitlist.contains(student)) {
-//        	return false;
-//        }
-//
-//        return true;
-        
-        return !waitlist.contains(student);
+        Waitlist restoredWaitlist = new Waitlist(waitlist.getCapacity());
+        for (Waitlisted w : waitlisted) {
+            if (restoredRoll.containsKey(w.getStudent().getId())) {
+                throw new IllegalArgumentException("Error adding the student.");
+            }
+            restoredWaitlist.add(w.getStudent(), w.getSeniority(), w.getCredits());
+        }
+        roll = restoredRoll;
+        waitlist = restoredWaitlist;
+        openSeats.set(enrollmentCap - enrolled.length);
     }
-    
+
     /**
      * Returns the number of Students on the waitlist
      * @return the number of Students on the waitlist
      */
-    public int getNumberOnWaitlist() {
+    public synchronized int getNumberOnWaitlist() {
     	return waitlist.size();
     }
 }
\ No newline at end of file
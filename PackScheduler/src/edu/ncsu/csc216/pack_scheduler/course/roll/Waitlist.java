@@ -0,0 +1,271 @@
+package edu.ncsu.csc216.pack_scheduler.course.roll;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.NoSuchElementException;
+
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+
+/**
+ * The waitlist of a CourseRoll, kept as a binary heap so the student with the
+ * highest priority is promoted first. Students are ordered by seniority
+ * (higher first), then by the credits they were scheduled for when they joined
+ * (fewer first), then by when they joined (earlier first). Joining, being
+ * promoted and leaving from anywhere in the list take O(log n) time.
+ *
+ * @author Amulya Jose
+ */
+class Waitlist {
+
+	/** The length the heap starts at when the capacity allows it */
+	private static final int INIT_SIZE = 10;
+
+	/** A student on the waitlist with the priority they were given when they joined */
+	private static class Entry {
+		/** the waitlisted student */
+		private final Student student;
+		/** the student's seniority when they joined */
+		private final int seniority;
+		/** the credits the student was scheduled for when they joined */
+		private final int credits;
+		/** the order the student joined in */
+		private final long arrival;
+		/** the entry's index in the heap */
+		private int index;
+
+		/**
+		 * Creates an entry for a student joining the waitlist
+		 * @param student the waitlisted student
+		 * @param seniority the student's seniority
+		 * @param credits the credits the student is scheduled for
+		 * @param arrival the order the student joined in
+		 */
+		Entry(Student student, int seniority, int credits, long arrival) {
+			this.student = student;
+			this.seniority = seniority;
+			this.credits = credits;
+			this.arrival = arrival;
+		}
+
+		/**
+		 * Returns whether this entry should be promoted before the other one
+		 * @param other the entry to compare to
+		 * @return true if this entry has the higher priority
+		 */
+		boolean isBefore(Entry other) {
+			if (seniority != other.seniority) {
+				return seniority > other.seniority;
+			}
+			if (credits != other.credits) {
+				return credits < other.credits;
+			}
+			return arrival < other.arrival;
+		}
+	}
+
+	/** the heap of entries, the highest priority at index 0 */
+	private Entry[] heap;
+	/** the number of students on the waitlist */
+	private int size;
+	/** the entries by student id */
+	private HashMap<String, Entry> entries;
+	/** the number of students that have ever joined, used to order arrivals */
+	private long arrivals;
+	/** the most students the waitlist can hold */
+	private int capacity;
+
+	/**
+	 * Creates an empty waitlist
+	 * @param capacity the most students the waitlist can hold
+	 * @throws IllegalArgumentException if the capacity is negative
+	 */
+	Waitlist(int capacity) {
+		setCapacity(capacity);
+		heap = new Entry[Math.min(capacity, INIT_SIZE)];
+		entries = new HashMap<String, Entry>();
+	}
+
+	/**
+	 * Returns the number of students on the waitlist
+	 * @return the number of students on the waitlist
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the most students the waitlist can hold
+	 * @return the capacity of the waitlist
+	 */
+	int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Sets the most students the waitlist can hold
+	 * @param capacity the capacity to set
+	 * @throws IllegalArgumentException if the capacity is negative or less than the
+	 * 		number of students on the waitlist
+	 */
+	void setCapacity(int capacity) {
+		if (capacity < 0 || capacity < size) {
+			throw new IllegalArgumentException("Invalid waitlist size.");
+		}
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Returns whether the student with the given id is on the waitlist
+	 * @param id the id of the student
+	 * @return true if the student is on the waitlist
+	 */
+	boolean contains(String id) {
+		return entries.containsKey(id);
+	}
+
+	/**
+	 * Adds a student to the waitlist
+	 * @param student the student to add
+	 * @throws IllegalArgumentException if the waitlist is full or the student is
+	 * 		already on it
+	 */
+	void add(Student student) {
+		add(student, student.getSeniority(), student.getSchedule().getScheduleCredits());
+	}
+
+	/**
+	 * Adds a student to the waitlist with the given priority instead of the
+	 * student's current seniority and credits
+	 * @param student the student to add
+	 * @param seniority the seniority to order the student by
+	 * @param credits the scheduled credits to order the student by
+	 * @throws IllegalArgumentException if the waitlist is full or the student is
+	 * 		already on it
+	 */
+	void add(Student student, int seniority, int credits) {
+		if (size >= capacity || entries.containsKey(student.getId())) {
+			throw new IllegalArgumentException();
+		}
+		if (size == heap.length) {
+			Entry[] newHeap = new Entry[(int) Math.min((long) capacity, Math.max(1L, heap.length * 2L))];
+			System.arraycopy(heap, 0, newHeap, 0, size);
+			heap = newHeap;
+		}
+		Entry entry = new Entry(student, seniority, credits, arrivals++);
+		entries.put(student.getId(), entry);
+		entry.index = size;
+		heap[size++] = entry;
+		siftUp(entry.index);
+	}
+
+	/**
+	 * Removes and returns the student with the highest priority
+	 * @return the student to promote
+	 * @throws NoSuchElementException if the waitlist is empty
+	 */
+	Student poll() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		Entry first = heap[0];
+		removeAt(0);
+		return first.student;
+	}
+
+	/**
+	 * Removes the student with the given id from the waitlist
+	 * @param id the id of the student
+	 * @return true if the student was on the waitlist
+	 */
+	boolean remove(String id) {
+		Entry entry = entries.get(id);
+		if (entry == null) {
+			return false;
+		}
+		removeAt(entry.index);
+		return true;
+	}
+
+	/**
+	 * Returns the students on the waitlist in the order they joined it, with the
+	 * priority they were given
+	 * @return the waitlisted students in the order they joined
+	 */
+	CourseRoll.Waitlisted[] toArray() {
+		Entry[] byArrival = Arrays.copyOf(heap, size);
+		Arrays.sort(byArrival, (a, b) -> Long.compare(a.arrival, b.arrival));
+		CourseRoll.Waitlisted[] waitlisted = new CourseRoll.Waitlisted[size];
+		for (int i = 0; i < size; i++) {
+			waitlisted[i] = new CourseRoll.Waitlisted(byArrival[i].student, byArrival[i].seniority, byArrival[i].credits);
+		}
+		return waitlisted;
+	}
+
+	/**
+	 * Removes the entry at the given heap index, moving the last entry into its
+	 * place and restoring the heap order
+	 * @param index the index of the entry to remove
+	 */
+	private void removeAt(int index) {
+		entries.remove(heap[index].student.getId());
+		size--;
+		Entry last = heap[size];
+		heap[size] = null;
+		if (index < size) {
+			last.index = index;
+			heap[index] = last;
+			siftDown(index);
+			if (heap[index] == last) {
+				siftUp(index);
+			}
+		}
+	}
+
+	/**
+	 * Moves the entry at the given index up until its parent is ahead of it
+	 * @param index the index of the entry to move
+	 */
+	private void siftUp(int index) {
+		Entry entry = heap[index];
+		while (index > 0) {
+			int parent = (index - 1) / 2;
+			if (!entry.isBefore(heap[parent])) {
+				break;
+			}
+			place(heap[parent], index);
+			index = parent;
+		}
+		place(entry, index);
+	}
+
+	/**
+	 * Moves the entry at the given index down until it is ahead of its children
+	 * @param index the index of the entry to move
+	 */
+	private void siftDown(int index) {
+		Entry entry = heap[index];
+		int child = 2 * index + 1;
+		while (child < size) {
+			if (child + 1 < size && heap[child + 1].isBefore(heap[child])) {
+				child++;
+			}
+			if (!heap[child].isBefore(entry)) {
+				break;
+			}
+			place(heap[child], index);
+			index = child;
+			child = 2 * index + 1;
+		}
+		place(entry, index);
+	}
+
+	/**
+	 * Stores an entry at a heap index
+	 * @param entry the entry to store
+	 * @param index the index to store it at
+	 */
+	private void place(Entry entry, int index) {
+		heap[index] = entry;
+		entry.index = index;
+	}
+}
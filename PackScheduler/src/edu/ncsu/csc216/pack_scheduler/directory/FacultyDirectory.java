@@ -5,23 +5,46 @@ package edu.ncsu.csc216.pack_scheduler.directory;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.security.MessageDigest;
-import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
 
 import edu.ncsu.csc216.pack_scheduler.io.FacultyRecordIO;
+import edu.ncsu.csc216.pack_scheduler.io.Journal;
+import edu.ncsu.csc216.pack_scheduler.io.ReadMode;
+import edu.ncsu.csc216.pack_scheduler.io.RecordFileWriter;
+import edu.ncsu.csc216.pack_scheduler.io.SaveMode;
 import edu.ncsu.csc216.pack_scheduler.user.Faculty;
+import edu.ncsu.csc216.pack_scheduler.user.PasswordHasher;
 import edu.ncsu.csc216.pack_scheduler.user.User;
 import edu.ncsu.csc216.pack_scheduler.util.LinkedList;
 
 /**
- * Maintains a directory of all faculty in the system
+ * Maintains a directory of all faculty in the system.
+ * 
+ * Faculty can be looked up by id from any thread without locking, while
+ * changes and listings lock the directory.
+ * 
+ * While a Journal is set, every faculty added or removed, and every new or
+ * loaded directory, is journaled and committed before the change returns, so
+ * it can be replayed after a crash. Changes are appended to the journal while
+ * the directory is locked and committed after it is let go.
+ * 
  * @author Amulya Jose 
  */
 public class FacultyDirectory {
 	/** List of faculty in the directory */
 	private LinkedList<Faculty> facultyDirectory;
-	/** Hashing algorithm */
-	private static final String HASH_ALGORITHM = "SHA-256";
+	/** Index of the faculty in the directory keyed on id, kept in sync with facultyDirectory */
+	private volatile ConcurrentHashMap<String, Faculty> facultyIndex;
+	/** Saves the directory, remembering what it last saved */
+	private final RecordFileWriter<Faculty> directoryWriter = new RecordFileWriter<Faculty>(Faculty::getVersion);
+	/** The journal changes are written to, or null if changes aren't journaled */
+	private volatile Journal journal;
+	/** Journal entry for the directory being emptied */
+	private static final String CLEAR = "clearFaculty";
+	/** Journal entry for a faculty being added */
+	private static final String ADD = "addFaculty";
+	/** Journal entry for a faculty being removed */
+	private static final String REMOVE = "removeFaculty";
 
 	/**
 	 * Creates an empty faculty directory
@@ -35,7 +58,14 @@ public class FacultyDirectory {
 	 * by the user.
 	 */
 	public void newFacultyDirectory() {
-		facultyDirectory = new LinkedList<Faculty>();
+		Journal j = journal;
+		long entry;
+		synchronized (this) {
+			facultyDirectory = new LinkedList<Faculty>();
+			facultyIndex = new ConcurrentHashMap<String, Faculty>();
+			entry = Journal.appendTo(j, CLEAR);
+		}
+		Journal.commitTo(j, entry);
 	}
 	
 	/**
@@ -46,11 +76,46 @@ public class FacultyDirectory {
 	 * @throws IllegalArgumentException "Unable to read file" if file is unable to be read
 	 */
 	public void loadFacultyFromFile(String fileName) {
-		try {
-			facultyDirectory = FacultyRecordIO.readFacultyRecords(fileName);
-		} catch (FileNotFoundException e) {
-			throw new IllegalArgumentException("Unable to read file " + fileName);
+		Journal j = journal;
+		long entry;
+		synchronized (this) {
+			try {
+				facultyDirectory = FacultyRecordIO.readFacultyRecords(fileName, ReadMode.PARALLEL);
+				indexDirectory();
+			} catch (FileNotFoundException e) {
+				throw new IllegalArgumentException("Unable to read file " + fileName);
+			}
+			entry = Journal.appendTo(j, CLEAR);
+			for (Faculty faculty : facultyDirectory) {
+				entry = Journal.appendTo(j, addEntry(faculty));
+			}
 		}
+		Journal.commitTo(j, entry);
+	}
+	
+	/**
+	 * Replaces the directory with faculty that have already been read, such as from a snapshot.
+	 * This isn't journaled, since the faculty bring their schedules with them.
+	 * 
+	 * @param faculty the faculty to put in the directory
+	 */
+	public synchronized void setFaculty(LinkedList<Faculty> faculty) {
+		facultyDirectory = faculty;
+		indexDirectory();
+	}
+	
+	/**
+	 * Returns the faculty in the directory in directory order
+	 * 
+	 * @return the faculty in the directory
+	 */
+	public synchronized Faculty[] getFaculty() {
+		Faculty[] faculty = new Faculty[facultyDirectory.size()];
+		int i = 0;
+		for (Faculty facultyPerson : facultyDirectory) {
+			faculty[i++] = facultyPerson;
+		}
+		return faculty;
 	}
 	
 	/**
@@ -71,26 +136,42 @@ public class FacultyDirectory {
 	 */
 	public boolean addFaculty(String firstName, String lastName, String id, String email, String password,
 								String repeatPassword, int maxCourses) {
-		String hashPW = "";
-		String repeatHashPW = "";
-
-		hashPW = hashString(password);
-		repeatHashPW = hashString(repeatPassword);
-
-		if (!hashPW.equals(repeatHashPW)) {
+		if (password == null || "".equals(password) || repeatPassword == null || "".equals(repeatPassword)) {
+			throw new IllegalArgumentException("Invalid password");
+		}
+		if (!password.equals(repeatPassword)) {
 			throw new IllegalArgumentException("Passwords do not match");
 		}
+		String hashPW = PasswordHasher.hash(password);
 		
 		// If an IllegalArgumentException is thrown, it's passed up from Faculty to the GUI
 		Faculty facultyPerson = new Faculty(firstName, lastName, id, email, hashPW, maxCourses);
 		
-		for (int i = 0; i < facultyDirectory.size(); i++) {
-			User s = facultyDirectory.get(i);
-			if (s.getId().equals(facultyPerson.getId())) {
+		Journal j = journal;
+		long entry;
+		synchronized (this) {
+			if (!add(facultyPerson)) {
 				return false;
 			}
+			entry = Journal.appendTo(j, addEntry(facultyPerson));
 		}
-		return facultyDirectory.add(facultyPerson);
+		Journal.commitTo(j, entry);
+		return true;
+	}
+
+	/**
+	 * Adds a faculty whose password is already hashed
+	 * 
+	 * @param facultyPerson the faculty to add
+	 * @return true if added, or false if another faculty has their id
+	 */
+	private boolean add(Faculty facultyPerson) {
+		if (facultyIndex.containsKey(facultyPerson.getId())) {
+			return false;
+		}
+		facultyDirectory.add(facultyPerson);
+		facultyIndex.put(facultyPerson.getId(), facultyPerson);
+		return true;
 	}
 	
 	/**
@@ -101,14 +182,53 @@ public class FacultyDirectory {
 	 * @return true if removed
 	 */
 	public boolean removeFaculty(String facultyId) {
-		for (int i = 0; i < facultyDirectory.size(); i++) {
-			User s = facultyDirectory.get(i);
-			if (s.getId().equals(facultyId)) {
-				facultyDirectory.remove(i);
-				return true;
+		if (facultyId == null) {
+			return false;
+		}
+		Journal j = journal;
+		long entry;
+		synchronized (this) {
+			Faculty faculty = facultyIndex.remove(facultyId);
+			if (faculty == null) {
+				return false;
 			}
+			facultyDirectory.remove(faculty);
+			entry = Journal.appendTo(j, REMOVE, facultyId);
+		}
+		Journal.commitTo(j, entry);
+		return true;
+	}
+
+	/**
+	 * Journals every later change to the directory, or stops journaling them
+	 * 
+	 * @param journal the journal to write changes to, or null to stop
+	 */
+	public void setJournal(Journal journal) {
+		this.journal = journal;
+	}
+
+	/**
+	 * Makes a journaled change to the directory again. Changes are replayed
+	 * before a journal is set, so they aren't journaled twice.
+	 * 
+	 * @param entry the fields of the journal entry
+	 * @return true if the entry is a change to the directory and it was made,
+	 *         or false if it isn't one or couldn't be made
+	 * @throws IllegalArgumentException if the entry's faculty isn't valid
+	 */
+	public synchronized boolean replay(String[] entry) {
+		switch (entry[0]) {
+		case CLEAR:
+			newFacultyDirectory();
+			return true;
+		case ADD:
+			return add(new Faculty(entry[1], entry[2], entry[3], entry[4], entry[5], Integer.parseInt(entry[6])));
+		case REMOVE:
+			return removeFaculty(entry[1]);
+		default:
+			return false;
 		}
-		return false;
 	}
 	
 	/**
@@ -116,13 +236,14 @@ public class FacultyDirectory {
 	 * 
 	 * @return String array containing faculty's first name, last name, and id.
 	 */
-	public String[][] getFacultyDirectory() {
+	public synchronized String[][] getFacultyDirectory() {
 		String[][] directory = new String[facultyDirectory.size()][3];
-		for (int i = 0; i < facultyDirectory.size(); i++) {
-			User s = facultyDirectory.get(i);
+		int i = 0;
+		for (User s : facultyDirectory) {
 			directory[i][0] = s.getFirstName();
 			directory[i][1] = s.getLastName();
 			directory[i][2] = s.getId();
+			i++;
 		}
 		return directory;
 	}
@@ -133,9 +254,22 @@ public class FacultyDirectory {
 	 * @param fileName name of file to save faculty to.
 	 * @throws IllegalArgumentException "Unable to write to file " + fileName if it is unable to write to such file
 	 */
-	public void saveFacultyDirectory(String fileName) {
+	public synchronized void saveFacultyDirectory(String fileName) {
+		saveFacultyDirectory(fileName, SaveMode.FULL);
+	}
+	
+	/**
+	 * Saves the faculty in the directory to a file. In SaveMode.INCREMENTAL only
+	 * the faculty added, removed or changed since the directory was last saved to
+	 * the same file are written.
+	 * 
+	 * @param fileName name of file to save faculty to.
+	 * @param mode whether to write every faculty or only the changes
+	 * @throws IllegalArgumentException "Unable to write to file " + fileName if it is unable to write to such file
+	 */
+	public synchronized void saveFacultyDirectory(String fileName, SaveMode mode) {
 		try {
-			FacultyRecordIO.writeFacultyRecords(fileName, facultyDirectory);
+			directoryWriter.write(fileName, getFaculty(), mode);
 		} catch (IOException e) {
 			throw new IllegalArgumentException("Unable to write to file " + fileName);
 		}
@@ -148,36 +282,32 @@ public class FacultyDirectory {
 	 * @return the faculty with the given id
 	 */
 	public Faculty getFacultyById(String id) {
-		Faculty faculty;
-		for (int i = 0; i < facultyDirectory.size(); i++) {
-			faculty = facultyDirectory.get(i);
-			if (id.equals(faculty.getId())) {
-				return faculty;
-			}
+		if (id == null) {
+			return null;
 		}
-		return null;
+		return facultyIndex.get(id);
 	}
-	
+
 	/**
-	 * Hashes a String according to the SHA-256 algorithm, and outputs the digest in base64 encoding.
-	 * This allows the encoded digest to be safely copied, as it only uses [a-zA-Z0-9+/=].
+	 * Returns the journal entry adding a faculty, with the fields of their record
 	 * 
-	 * @param toHash the String to hash
-	 * @return the encoded digest of the hash algorithm in base64
-	 * @throws IllegalArgumentException "Invalid password" if the toHash is null, empty, or
-	 *                                  there is trouble with the encoder
+	 * @param faculty the faculty
+	 * @return the fields of the entry
 	 */
-	private static String hashString(String toHash) {
-		try {
-			if (toHash == null || "".equals(toHash)) {
-				throw new IllegalArgumentException("Invalid password");
-			}
-			MessageDigest digest1 = MessageDigest.getInstance(HASH_ALGORITHM);
-			digest1.update(toHash.getBytes());
-			return Base64.getEncoder().encodeToString(digest1.digest());
-		} catch (Exception e) {
-			throw new IllegalArgumentException("Invalid password");
+	private static String[] addEntry(Faculty faculty) {
+		return new String[] { ADD, faculty.getFirstName(), faculty.getLastName(), faculty.getId(),
+				faculty.getEmail(), faculty.getPassword(), String.valueOf(faculty.getMaxCourses()) };
+	}
+
+	/**
+	 * Rebuilds the id index from the faculty in the directory
+	 */
+	private void indexDirectory() {
+		ConcurrentHashMap<String, Faculty> index = new ConcurrentHashMap<String, Faculty>();
+		for (Faculty faculty : facultyDirectory) {
+			index.put(faculty.getId(), faculty);
 		}
+		facultyIndex = index;
 	}
 	
 }
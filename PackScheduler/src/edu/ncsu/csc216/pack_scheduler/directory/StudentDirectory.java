@@ -2,10 +2,14 @@ package edu.ncsu.csc216.pack_scheduler.directory;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.security.MessageDigest;
-import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
 
+import edu.ncsu.csc216.pack_scheduler.io.Journal;
 import edu.ncsu.csc216.pack_scheduler.io.StudentRecordIO;
+import edu.ncsu.csc216.pack_scheduler.io.ReadMode;
+import edu.ncsu.csc216.pack_scheduler.io.RecordFileWriter;
+import edu.ncsu.csc216.pack_scheduler.io.SaveMode;
+import edu.ncsu.csc216.pack_scheduler.user.PasswordHasher;
 import edu.ncsu.csc216.pack_scheduler.user.Student;
 import edu.ncsu.csc216.pack_scheduler.user.User;
 import edu.ncsu.csc217.collections.list.SortedList;
@@ -14,16 +18,40 @@ import edu.ncsu.csc217.collections.list.SortedList;
  * Maintains a directory of all students enrolled at NC State.
  * All students have a unique id.
  * 
+ * getStudentById() reads a concurrent index without locking, so logins don't
+ * wait on each other. The methods that change or list the directory lock it.
+ * 
+ * Students set from a snapshot are already in directory order, so only the
+ * index is built from them straight away. The SortedList, whose add checks
+ * every student already in it, is built the first time the directory changes.
+ * 
+ * While a Journal is set, every student added or removed, and every new or
+ * loaded directory, is journaled and committed before the change returns, so
+ * it can be replayed after a crash. Changes are appended to the journal while
+ * the directory is locked and committed after it is let go.
+ * 
  * @author Sarah Heckman
  * @author William Walton
  * @author Amulya Jose
  */
 public class StudentDirectory {
 
-	/** List of students in the directory */
+	/** List of students in the directory, or null until it is built from unlisted */
 	private SortedList<Student> studentDirectory;
-	/** Hashing algorithm */
-	private static final String HASH_ALGORITHM = "SHA-256";
+	/** The students set from a snapshot in directory order, or null once studentDirectory holds them */
+	private Student[] unlisted;
+	/** Index of the students in the directory keyed on id, kept in sync with studentDirectory */
+	private volatile ConcurrentHashMap<String, Student> studentIndex;
+	/** Saves the directory, remembering what it last saved */
+	private final RecordFileWriter<Student> directoryWriter = new RecordFileWriter<Student>(Student::getVersion);
+	/** The journal changes are written to, or null if changes aren't journaled */
+	private volatile Journal journal;
+	/** Journal entry for the directory being emptied */
+	private static final String CLEAR = "clearStudents";
+	/** Journal entry for a student being added */
+	private static final String ADD = "addStudent";
+	/** Journal entry for a student being removed */
+	private static final String REMOVE = "removeStudent";
 
 	/**
 	 * Creates an empty student directory.
@@ -37,7 +65,15 @@ public class StudentDirectory {
 	 * list are list unless saved by the user.
 	 */
 	public void newStudentDirectory() {
-		studentDirectory = new SortedList<Student>();
+		Journal j = journal;
+		long entry;
+		synchronized (this) {
+			studentDirectory = new SortedList<Student>();
+			unlisted = null;
+			studentIndex = new ConcurrentHashMap<String, Student>();
+			entry = Journal.appendTo(j, CLEAR);
+		}
+		Journal.commitTo(j, entry);
 	}
 
 	/**
@@ -50,11 +86,51 @@ public class StudentDirectory {
 	 *                                  be read
 	 */
 	public void loadStudentsFromFile(String fileName) {
-		try {
-			studentDirectory = StudentRecordIO.readStudentRecords(fileName);
-		} catch (FileNotFoundException e) {
-			throw new IllegalArgumentException("Unable to read file " + fileName);
+		Journal j = journal;
+		long entry;
+		synchronized (this) {
+			try {
+				studentDirectory = StudentRecordIO.readStudentRecords(fileName, ReadMode.PARALLEL);
+				unlisted = null;
+				indexDirectory();
+			} catch (FileNotFoundException e) {
+				throw new IllegalArgumentException("Unable to read file " + fileName);
+			}
+			entry = Journal.appendTo(j, CLEAR);
+			for (int i = 0; i < studentDirectory.size(); i++) {
+				entry = Journal.appendTo(j, addEntry(studentDirectory.get(i)));
+			}
 		}
+		Journal.commitTo(j, entry);
+	}
+
+	/**
+	 * Replaces the directory with students that have already been read, such as
+	 * from a snapshot. This isn't journaled, since the students bring their
+	 * schedules with them.
+	 * 
+	 * @param students the distinct students to put in the directory, in directory order
+	 */
+	public synchronized void setStudents(Student[] students) {
+		studentDirectory = null;
+		unlisted = students.clone();
+		indexDirectory();
+	}
+
+	/**
+	 * Returns the students in the directory in directory order
+	 * 
+	 * @return the students in the directory
+	 */
+	public synchronized Student[] getStudents() {
+		if (studentDirectory == null) {
+			return unlisted.clone();
+		}
+		Student[] students = new Student[studentDirectory.size()];
+		for (int i = 0; i < students.length; i++) {
+			students[i] = studentDirectory.get(i);
+		}
+		return students;
 	}
 
 	/**
@@ -77,15 +153,13 @@ public class StudentDirectory {
 	 */
 	public boolean addStudent(String firstName, String lastName, String id, String email, String password,
 			String repeatPassword, int maxCredits) {
-		String hashPW = "";
-		String repeatHashPW = "";
-
-		hashPW = hashString(password);
-		repeatHashPW = hashString(repeatPassword);
-
-		if (!hashPW.equals(repeatHashPW)) {
+		if (password == null || "".equals(password) || repeatPassword == null || "".equals(repeatPassword)) {
+			throw new IllegalArgumentException("Invalid password");
+		}
+		if (!password.equals(repeatPassword)) {
 			throw new IllegalArgumentException("Passwords do not match");
 		}
+		String hashPW = PasswordHasher.hash(password);
 
 		// If an IllegalArgumentException is thrown, it's passed up from Student
 		// to the GUI
@@ -96,57 +170,47 @@ public class StudentDirectory {
 			student = new Student(firstName, lastName, id, email, hashPW, maxCredits);
 		}
 
-		for (int i = 0; i < studentDirectory.size(); i++) {
-			User s = studentDirectory.get(i);
-			if (s.getId().equals(student.getId())) {
+		Journal j = journal;
+		long entry;
+		synchronized (this) {
+			if (!add(student)) {
 				return false;
 			}
+			entry = Journal.appendTo(j, addEntry(student));
 		}
-		return studentDirectory.add(student);
+		Journal.commitTo(j, entry);
+		return true;
 	}
 
 	/**
-	 * gets a student from the directory by their id
+	 * Adds a student whose password is already hashed
 	 * 
-	 * @param id the id of the student to get
-	 * @return the student with the given id
+	 * @param student the student to add
+	 * @return true if added, or false if another student has their id
 	 */
-	public Student getStudentById(String id) {
-		Student student;
-		for (int i = 0; i < studentDirectory.size(); i++) {
-			student = studentDirectory.get(i);
-			if (id.equals(student.getId())) {
-				return student;
-			}
+	private boolean add(Student student) {
+		if (studentIndex.containsKey(student.getId())) {
+			return false;
 		}
-		return null;
+		sortedDirectory().add(student);
+		studentIndex.put(student.getId(), student);
+		return true;
 	}
 
 	/**
-	 * Hashes a String according to the SHA-256 algorithm, and outputs the digest in
-	 * base64 encoding.
-	 * This allows the encoded digest to be safely copied, as it only uses
-	 * [a-zA-Z0-9+/=].
+	 * gets a student from the directory by their id
 	 * 
-	 * @param toHash the String to hash
-	 * @return the encoded digest of the hash algorithm in base64
-	 * @throws IllegalArgumentException "Invalid password" if the toHash is null
-	 *                                  empty or
-	 *                                  there is trouble with the encoder
+	 * @param id the id of the student to get
+	 * @return the student with the given id
 	 */
-	private static String hashString(String toHash) {
-		try {
-			if (toHash == null || "".equals(toHash)) {
-				throw new IllegalArgumentException("Invalid password");
-			}
-			MessageDigest digest1 = MessageDigest.getInstance(HASH_ALGORITHM);
-			digest1.update(toHash.getBytes());
-			return Base64.getEncoder().encodeToString(digest1.digest());
-		} catch (Exception e) {
-			throw new IllegalArgumentException("Invalid password");
+	public Student getStudentById(String id) {
+		if (id == null) {
+			return null;
 		}
+		return studentIndex.get(id);
 	}
 
+
 	/**
 	 * Removes the student with the given id from the list of students with the
 	 * given id.
@@ -157,14 +221,55 @@ public class StudentDirectory {
 	 * @return true if removed
 	 */
 	public boolean removeStudent(String studentId) {
-		for (int i = 0; i < studentDirectory.size(); i++) {
-			User s = studentDirectory.get(i);
-			if (s.getId().equals(studentId)) {
-				studentDirectory.remove(i);
-				return true;
+		if (studentId == null) {
+			return false;
+		}
+		Journal j = journal;
+		long entry;
+		synchronized (this) {
+			Student student = studentIndex.remove(studentId);
+			if (student == null) {
+				return false;
 			}
+			sortedDirectory().remove(findStudent(student));
+			entry = Journal.appendTo(j, REMOVE, studentId);
+		}
+		Journal.commitTo(j, entry);
+		return true;
+	}
+
+	/**
+	 * Journals every later change to the directory, or stops journaling them
+	 * 
+	 * @param journal the journal to write changes to, or null to stop
+	 */
+	public void setJournal(Journal journal) {
+		this.journal = journal;
+	}
+
+	/**
+	 * Makes a journaled change to the directory again. Changes are replayed
+	 * before a journal is set, so they aren't journaled twice.
+	 * 
+	 * @param entry the fields of the journal entry
+	 * @return true if the entry is a change to the directory and it was made,
+	 *         or false if it isn't one or couldn't be made
+	 * @throws IllegalArgumentException if the entry's student isn't valid
+	 */
+	public synchronized boolean replay(String[] entry) {
+		switch (entry[0]) {
+		case CLEAR:
+			newStudentDirectory();
+			return true;
+		case ADD:
+			Student student = new Student(entry[1], entry[2], entry[3], entry[4], entry[5], Integer.parseInt(entry[6]));
+			student.setSeniority(Integer.parseInt(entry[7]));
+			return add(student);
+		case REMOVE:
+			return removeStudent(entry[1]);
+		default:
+			return false;
 		}
-		return false;
 	}
 
 	/**
@@ -173,10 +278,11 @@ public class StudentDirectory {
 	 * 
 	 * @return String array containing students first name, last name, and id.
 	 */
-	public String[][] getStudentDirectory() {
-		String[][] directory = new String[studentDirectory.size()][3];
-		for (int i = 0; i < studentDirectory.size(); i++) {
-			User s = studentDirectory.get(i);
+	public synchronized String[][] getStudentDirectory() {
+		Student[] students = getStudents();
+		String[][] directory = new String[students.length][3];
+		for (int i = 0; i < students.length; i++) {
+			User s = students[i];
 			directory[i][0] = s.getFirstName();
 			directory[i][1] = s.getLastName();
 			directory[i][2] = s.getId();
@@ -191,12 +297,91 @@ public class StudentDirectory {
 	 * @throws IllegalArgumentException "Unable to write to file " + fileName
 	 *                                  if it is unable to write to such file
 	 */
-	public void saveStudentDirectory(String fileName) {
+	public synchronized void saveStudentDirectory(String fileName) {
+		saveStudentDirectory(fileName, SaveMode.FULL);
+	}
+
+	/**
+	 * Saves the students in the directory to a file. In SaveMode.INCREMENTAL
+	 * only the students added, removed or changed since the directory was last
+	 * saved to the same file are written.
+	 * 
+	 * @param fileName name of file to save students to.
+	 * @param mode whether to write every student or only the changes
+	 * @throws IllegalArgumentException "Unable to write to file " + fileName
+	 *                                  if it is unable to write to such file
+	 */
+	public synchronized void saveStudentDirectory(String fileName, SaveMode mode) {
 		try {
-			StudentRecordIO.writeStudentRecords(fileName, studentDirectory);
+			directoryWriter.write(fileName, getStudents(), mode);
 		} catch (IOException e) {
 			throw new IllegalArgumentException("Unable to write to file " + fileName);
 		}
 	}
 
+	/**
+	 * Returns the journal entry adding a student, with the fields of their record
+	 * and their seniority
+	 * 
+	 * @param student the student
+	 * @return the fields of the entry
+	 */
+	private static String[] addEntry(Student student) {
+		return new String[] { ADD, student.getFirstName(), student.getLastName(), student.getId(),
+				student.getEmail(), student.getPassword(), String.valueOf(student.getMaxCredits()),
+				String.valueOf(student.getSeniority()) };
+	}
+
+	/**
+	 * Returns the sorted list of the students in the directory, building it from
+	 * the students set from a snapshot if it hasn't been yet. They are added
+	 * from the end, so each one goes in at the head of the list.
+	 * 
+	 * @return the sorted list of students
+	 */
+	private SortedList<Student> sortedDirectory() {
+		if (studentDirectory == null) {
+			SortedList<Student> list = new SortedList<Student>();
+			for (int i = unlisted.length - 1; i >= 0; i--) {
+				list.add(unlisted[i]);
+			}
+			studentDirectory = list;
+			unlisted = null;
+		}
+		return studentDirectory;
+	}
+
+	/**
+	 * Rebuilds the id index from the students in the directory
+	 */
+	private void indexDirectory() {
+		ConcurrentHashMap<String, Student> index = new ConcurrentHashMap<String, Student>();
+		for (Student s : getStudents()) {
+			index.put(s.getId(), s);
+		}
+		studentIndex = index;
+	}
+
+	/**
+	 * Binary searches the directory for the position of a student. The directory
+	 * is sorted by Student.compareTo, which ends on the unique id.
+	 * 
+	 * @param student the student to find, which must be in the directory
+	 * @return the index of the student in the directory
+	 */
+	private int findStudent(Student student) {
+		SortedList<Student> list = sortedDirectory();
+		int low = 0;
+		int high = list.size() - 1;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (list.get(mid).compareTo(student) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
 }
@@ -0,0 +1,179 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a new version of a file without touching the old one until the new
+ * one is complete. Everything is written to a temporary file next to it
+ * through one large buffer, and commit() forces the temporary file to the disk
+ * and renames it over the file. If the program stops before then, the file
+ * still holds its old contents.
+ *
+ * Lines are encoded straight into the buffer in the default charset with the
+ * system line separator, the same bytes PrintStream.println() writes.
+ *
+ * @author Amulya Jose
+ */
+class AtomicFile implements Closeable {
+
+	/** The size of the write buffer */
+	private static final int BUFFER_SIZE = 1 << 16;
+	/** The file being replaced */
+	private final Path target;
+	/** The temporary file being written */
+	private final Path temp;
+	/** The open temporary file */
+	private final FileChannel channel;
+	/** Holds bytes until the buffer is full */
+	private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+	/** Encodes lines into the buffer, created by the first line */
+	private CharsetEncoder encoder;
+	/** Whether the temporary file has replaced the file */
+	private boolean committed;
+
+	/**
+	 * Starts writing a new version of a file
+	 * @param fileName the file to replace
+	 * @throws FileNotFoundException if the file's directory doesn't exist or
+	 * 		can't be written, with the same message FileOutputStream gives
+	 * @throws IOException if the temporary file cannot be created
+	 */
+	AtomicFile(String fileName) throws IOException {
+		target = Paths.get(fileName);
+		temp = target.resolveSibling(target.getFileName() + ".tmp");
+		try {
+			channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING);
+		} catch (NoSuchFileException e) {
+			throw new FileNotFoundException(fileName + " (No such file or directory)");
+		} catch (AccessDeniedException e) {
+			throw new FileNotFoundException(fileName + " (Permission denied)");
+		}
+	}
+
+	/**
+	 * Writes bytes to the file
+	 * @param bytes the bytes to write
+	 * @param offset the index of the first byte to write
+	 * @param length the number of bytes to write
+	 * @throws IOException if the file cannot be written
+	 */
+	void write(byte[] bytes, int offset, int length) throws IOException {
+		while (length > 0) {
+			if (!buffer.hasRemaining()) {
+				flush();
+			}
+			int n = Math.min(length, buffer.remaining());
+			buffer.put(bytes, offset, n);
+			offset += n;
+			length -= n;
+		}
+	}
+
+	/**
+	 * Writes a line to the file, followed by the line separator. Characters the
+	 * charset can't encode are replaced, as PrintStream does.
+	 * @param line the line to write
+	 * @throws IOException if the file cannot be written
+	 */
+	void writeLine(String line) throws IOException {
+		if (encoder == null) {
+			encoder = Charset.defaultCharset().newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+					.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		}
+		encode(CharBuffer.wrap(line));
+		encode(CharBuffer.wrap(System.lineSeparator()));
+	}
+
+	/**
+	 * Writes the rest of the file, forces it to the disk and moves it over the
+	 * file being replaced
+	 * @throws IOException if the file cannot be written or replaced
+	 */
+	void commit() throws IOException {
+		flush();
+		channel.force(true);
+		channel.close();
+		try {
+			Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+		committed = true;
+		forceDirectory();
+	}
+
+	/**
+	 * Deletes the temporary file if it was never committed
+	 * @throws IOException if the temporary file cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		if (!committed) {
+			try {
+				channel.close();
+			} finally {
+				Files.deleteIfExists(temp);
+			}
+		}
+	}
+
+	/**
+	 * Encodes characters into the buffer, writing it out whenever it fills
+	 * @param chars the characters to encode
+	 * @throws IOException if the file cannot be written
+	 */
+	private void encode(CharBuffer chars) throws IOException {
+		while (true) {
+			CoderResult result = encoder.encode(chars, buffer, true);
+			if (!result.isOverflow()) {
+				break;
+			}
+			flush();
+		}
+		encoder.reset();
+	}
+
+	/**
+	 * Writes the buffer to the temporary file
+	 * @throws IOException if the file cannot be written
+	 */
+	private void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * Forces the directory holding the file, so the rename is on the disk. Not
+	 * every system can open a directory, and the rename has already happened,
+	 * so this is only done where it can be.
+	 */
+	private void forceDirectory() {
+		Path directory = target.toAbsolutePath().getParent();
+		try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+			dir.force(true);
+		} catch (IOException e) {
+			// the file has been replaced either way
+		}
+	}
+}
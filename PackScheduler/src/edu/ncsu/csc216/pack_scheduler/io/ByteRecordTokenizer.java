@@ -0,0 +1,109 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import java.nio.charset.Charset;
+
+/**
+ * Splits a comma separated record line held as bytes, such as a block copied
+ * from a file mapped into memory. Fields are only decoded when they are asked
+ * for, and numbers are parsed straight from the bytes. The charset has to store
+ * commas and line breaks as the single ASCII bytes for them, as UTF-8 and the
+ * other ASCII based charsets do.
+ *
+ * @author Amulya Jose
+ */
+class ByteRecordTokenizer extends RecordTokenizer {
+
+	/** The charset fields are decoded with */
+	private final Charset charset;
+	/** The bytes holding the line */
+	private byte[] bytes;
+	/** The index in the buffer the line starts at */
+	private int offset;
+	/** The number of bytes in the line */
+	private int length;
+
+	/**
+	 * Creates a tokenizer that decodes fields with the given charset
+	 * @param charset the charset of the bytes
+	 */
+	ByteRecordTokenizer(Charset charset) {
+		this.charset = charset;
+	}
+
+	/**
+	 * Starts reading fields from a new line
+	 * @param bytes the bytes holding the line
+	 * @param start the index the line starts at
+	 * @param end the index after the line
+	 * @return this tokenizer
+	 */
+	ByteRecordTokenizer reset(byte[] bytes, int start, int end) {
+		this.bytes = bytes;
+		this.offset = start;
+		this.length = end - start;
+		restart();
+		return this;
+	}
+
+	@Override
+	int length() {
+		return length;
+	}
+
+	@Override
+	boolean isComma(int index) {
+		return bytes[offset + index] == ',';
+	}
+
+	@Override
+	int fieldEnd(int from) {
+		int end = from;
+		while (end < length && bytes[offset + end] != ',') {
+			end++;
+		}
+		return end;
+	}
+
+	@Override
+	String field(int start, int end) {
+		return new String(bytes, offset + start, end - start, charset);
+	}
+
+	/**
+	 * Parses ASCII digits directly. A field with any other bytes is decoded
+	 * first so Integer.parseInt() can decide what it means.
+	 */
+	@Override
+	int intField(int start, int end) {
+		int index = start;
+		boolean negative = false;
+		if (index < end && (bytes[offset + index] == '-' || bytes[offset + index] == '+')) {
+			negative = bytes[offset + index] == '-';
+			index++;
+		}
+		if (index == end) {
+			throw new NumberFormatException();
+		}
+		long value = 0;
+		for (; index < end; index++) {
+			int b = bytes[offset + index];
+			if (b < 0) {
+				return Integer.parseInt(field(start, end));
+			}
+			if (b < '0' || b > '9') {
+				throw new NumberFormatException();
+			}
+			value = value * 10 + b - '0';
+			if (value > 1L + Integer.MAX_VALUE) {
+				throw new NumberFormatException();
+			}
+		}
+		if (negative) {
+			value = -value;
+		}
+		if (value > Integer.MAX_VALUE) {
+			throw new NumberFormatException();
+		}
+		return (int) value;
+	}
+}
@@ -2,11 +2,9 @@ package edu.ncsu.csc216.pack_scheduler.io;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.PrintStream;
-import java.io.File;
-import java.io.FileInputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.NoSuchElementException;
-import java.util.Scanner;
 
 import edu.ncsu.csc216.pack_scheduler.course.Course;
 import edu.ncsu.csc216.pack_scheduler.directory.FacultyDirectory;
@@ -22,7 +20,23 @@ import edu.ncsu.csc217.collections.list.SortedList;
  */
 public class CourseRecordIO {
 
-
+	/** A course read from a line with the id of the instructor the line names */
+	private static class CourseRecord {
+		/** the course read from the line, without an instructor */
+		private final Course course;
+		/** the instructor id on the line */
+		private final String instructorId;
+
+		/**
+		 * Creates a record of a course read from a line
+		 * @param course the course read from the line
+		 * @param instructorId the instructor id on the line
+		 */
+		CourseRecord(Course course, String instructorId) {
+			this.course = course;
+			this.instructorId = instructorId;
+		}
+	}
 
     /**
      * Reads course records from a file and generates a list of valid Courses.  Any invalid
@@ -33,119 +47,136 @@ public class CourseRecordIO {
      * @throws FileNotFoundException if the file cannot be found or read
      */
     public static SortedList<Course> readCourseRecords(String fileName) throws FileNotFoundException {
+    	return readCourseRecords(fileName, ReadMode.SEQUENTIAL);
+    }
 
-    	Scanner fileReader = new Scanner(new FileInputStream(fileName));  //Create a file scanner to read the file
-
-    	SortedList<Course> courses = new SortedList<Course>(); //Create an empty array of Course objects
-
-        while (fileReader.hasNextLine()) { //While we have more lines in the file
-
-        	try { //Attempt to do the following
-                //Read the line, process it in readCourse, and get the object
-                //If trying to construct a Course in readCourse() results in an exception, flow of control will transfer to the catch block, below
-                Course course = readCourse(fileReader.nextLine()); 
-
-                //Create a flag to see if the newly created Course is a duplicate of something already in the list  
-                boolean duplicate = false;
-                //Look at all the courses in our list
-                for (int i = 0; i < courses.size(); i++) {
-                    //Get the course at index i
-                    Course current = courses.get(i);
-                    //Check if the name and section are the same
-                    if (course.getName().equals(current.getName()) 
-                    		&& course.getSection().equals(current.getSection())) {
-                        //It's a duplicate!
-                        duplicate = true;
-                        break; //We can break out of the loop, no need to continue searching
-                    }
-                }
-                //If the course is NOT a duplicate
-                if (!duplicate) {
-                    courses.add(course); //Add to the ArrayList!
-                } //Otherwise ignore
-            } catch (IllegalArgumentException e) {
-                //The line is invalid b/c we couldn't create a course, skip it!
-            }
-        }
-        //Close the Scanner b/c we're responsible with our file handles
-        fileReader.close();
-        //Return the ArrayList with all the courses we read!
-        return courses;
+    /**
+     * Reads course records from a file and generates a list of valid Courses, parsing the
+     * file in the given mode.  Every mode gives the same Courses.
+     * @param fileName file to read Course records from
+     * @param mode whether to parse the file on this thread or in parallel
+     * @return a list of valid Courses
+     * @throws FileNotFoundException if the file cannot be found or read
+     */
+    public static SortedList<Course> readCourseRecords(String fileName, ReadMode mode) throws FileNotFoundException {
+
+    	//Read every valid line, process it in readCourse, and get the records in file order
+    	//Lines where trying to construct a Course in readCourse() results in an exception are skipped
+    	ArrayList<CourseRecord> records = RecordFiles.readRecords(fileName, mode, CourseRecordIO::readCourse);
+
+    	ArrayList<Course> courses = new ArrayList<Course>(records.size()); //The courses we keep, in the order they're read
+    	HashSet<String> names = new HashSet<String>(); //The name and section of every course we keep
+
+    	for (CourseRecord record : records) {
+    		try { //Attempt to do the following
+    			//The first course with a name and section wins, later ones are duplicates and ignored
+    			if (!names.contains(record.course.getName() + "," + record.course.getSection())) {
+    				//Instructors are assigned here, in file order, since it changes the faculty directory
+    				assignInstructor(record);
+    				names.add(record.course.getName() + "," + record.course.getSection());
+    				courses.add(record.course);
+    			}
+    		} catch (IllegalArgumentException e) {
+    			//The instructor couldn't take the course, skip it!
+    		}
+    	}
+    	//Return the sorted list with all the courses we read!
+    	return RecordFiles.toSortedList(courses);
     }
 
+    /**
+     * Reads a Course from a single record line and assigns it to the instructor the line
+     * names, the same way readCourseRecords() does for each line of a file.
+     * @param line the record line
+     * @return the Course the line represents
+     * @throws IllegalArgumentException if the line isn't a valid Course or the instructor
+     * can't take it
+     */
+    public static Course readCourseRecord(String line) {
+    	CourseRecord record = readCourse(new RecordTokenizer().reset(line));
+    	assignInstructor(record);
+    	return record.course;
+    }
 
     /**
      * Converts a text representation of course to a Course object
-     * @param fileLine a string of the line that represents a course
-     * @return a course object that fileLine represents
+     * @param tokenizer tokenizer holding the line that represents a course
+     * @return a record of the course that the line represents and the instructor it names
      * @throws IllegalArgumentException if there is more data on the line than 
      * expected, less, or the formatting is wrong
      */
-    private static Course readCourse(String fileLine) {
-		Scanner coursePartScanner = new Scanner(fileLine);
-		coursePartScanner.useDelimiter(",");
-
+    private static CourseRecord readCourse(RecordTokenizer tokenizer) {
 		try {
 
-			String name = coursePartScanner.next();
-			String title = coursePartScanner.next();
-			String section = coursePartScanner.next();
-			int credits = coursePartScanner.nextInt();
-			String instructorId = coursePartScanner.next();
-			int enrollmentCap = coursePartScanner.nextInt();
-			String meetingDays = coursePartScanner.next();
+			String name = tokenizer.next();
+			String title = tokenizer.next();
+			String section = tokenizer.next();
+			int credits = tokenizer.nextInt();
+			String instructorId = tokenizer.next();
+			int enrollmentCap = tokenizer.nextInt();
+			String meetingDays = tokenizer.next();
 
 			if ("A".equals(meetingDays)) {
 
-				// checks if there is another token
-				if (coursePartScanner.hasNext()) {
-					coursePartScanner.close();
-					throw new IllegalArgumentException("Line formatted unexpectedly");
-				}
-				coursePartScanner.close();
-				Course newCourse = new Course(name, title, section, credits, null, enrollmentCap, meetingDays);
-				
-				// checks if there is a Faculty with the given instructorId and if so, the Course is added
-				// to the Faculty's FacultySchedule, which updates the Course object
-				RegistrationManager manager = RegistrationManager.getInstance();
-				FacultyDirectory directory = manager.getFacultyDirectory();
-				if (directory.getFacultyById(instructorId) != null) {
-					Faculty faculty = directory.getFacultyById(instructorId);
-					faculty.getSchedule().addCourseToSchedule(newCourse);
-				}
-				
-				return newCourse;
+				// checks for the course's own limits and that there is nothing after them
+				int[] limits = readLimits(tokenizer);
+				Course newCourse = limits == null
+						? new Course(name, title, section, credits, null, enrollmentCap, meetingDays)
+						: new Course(name, title, section, credits, null, enrollmentCap, limits[0], limits[1], meetingDays, 0, 0);
+				return new CourseRecord(newCourse, instructorId);
 			} else {
 
-				int startTime = coursePartScanner.nextInt();
-				int endTime = coursePartScanner.nextInt();
-
-				// checks if there is another token
-				if (coursePartScanner.hasNext()) {
-					coursePartScanner.close();
-					throw new IllegalArgumentException("Line formatted unexpectedly");
-				}
-
-				coursePartScanner.close();
-				Course newCourse = new Course(name, title, section, credits, null, enrollmentCap, meetingDays, startTime, endTime);
-				
-				// checks if there is a Faculty with the given instructorId and if so, the Course is added
-				// to the Faculty's FacultySchedule, which updates the Course object
-				RegistrationManager manager = RegistrationManager.getInstance();
-				FacultyDirectory directory = manager.getFacultyDirectory();
-				if (directory.getFacultyById(instructorId) != null) {
-					Faculty faculty = directory.getFacultyById(instructorId);
-					faculty.getSchedule().addCourseToSchedule(newCourse);
-				}
-				
-				return newCourse;			}
+				int startTime = tokenizer.nextInt();
+				int endTime = tokenizer.nextInt();
+
+				// checks for the course's own limits and that there is nothing after them
+				int[] limits = readLimits(tokenizer);
+				Course newCourse = limits == null
+						? new Course(name, title, section, credits, null, enrollmentCap, meetingDays, startTime, endTime)
+						: new Course(name, title, section, credits, null, enrollmentCap, limits[0], limits[1],
+								meetingDays, startTime, endTime);
+				return new CourseRecord(newCourse, instructorId);
+			}
 
 		} catch (NoSuchElementException e) { // catches if there are not enough tokens
-			coursePartScanner.close();
 			throw new IllegalArgumentException("Line formatted unexpectedly");
 		}
 	}
 
+	/**
+	 * Checks if there is a Faculty with the record's instructorId and if so, the Course is added
+	 * to the Faculty's FacultySchedule, which updates the Course object
+	 * @param record the course read from a line and the instructor it names
+	 * @throws IllegalArgumentException if the Faculty can't be assigned the Course
+	 */
+	private static void assignInstructor(CourseRecord record) {
+		RegistrationManager manager = RegistrationManager.getInstance();
+		FacultyDirectory directory = manager.getFacultyDirectory();
+		Faculty faculty = directory.getFacultyById(record.instructorId);
+		if (faculty != null) {
+			faculty.getSchedule().addCourseToSchedule(record.course);
+		}
+	}
+
+	/**
+	 * Reads the max enrollment and waitlist size a course record can end with
+	 * when the course doesn't use the defaults
+	 * @param tokenizer tokenizer positioned after the meeting days and times
+	 * @return the max enrollment and waitlist size, or null if the record doesn't have them
+	 * @throws IllegalArgumentException if there are more tokens after them
+	 * @throws NoSuchElementException if only one of them is there or they aren't numbers
+	 */
+	private static int[] readLimits(RecordTokenizer tokenizer) {
+		if (!tokenizer.hasNext()) {
+			return null;
+		}
+		int[] limits = {tokenizer.nextInt(), tokenizer.nextInt()};
+		if (tokenizer.hasNext()) {
+			throw new IllegalArgumentException("Line formatted unexpectedly");
+		}
+		return limits;
+	}
+
 	/**
      * Writes the given list of Courses to a file.
      * @param fileName file to write schedule of Courses to
@@ -153,13 +184,11 @@ public class CourseRecordIO {
      * @throws IOException if cannot write to file
      */
     public static void writeCourseRecords(String fileName, SortedList<Course> courses) throws IOException {
-    	PrintStream fileWriter = new PrintStream(new File(fileName));
-
-    	for (int i = 0; i < courses.size(); i++) {
-    	    fileWriter.println(courses.get(i).toString());
+    	try (AtomicFile fileWriter = new AtomicFile(fileName)) {
+    	    for (int i = 0; i < courses.size(); i++) {
+    	        fileWriter.writeLine(courses.get(i).toString());
+    	    }
+    	    fileWriter.commit();
     	}
-
-    	fileWriter.close();
-
     }
 }
\ No newline at end of file
@@ -3,14 +3,12 @@
  */
 package edu.ncsu.csc216.pack_scheduler.io;
 
-import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.PrintStream;
-import java.util.Scanner;
+import java.util.ArrayList;
+import java.util.HashSet;
 
 import edu.ncsu.csc216.pack_scheduler.user.Faculty;
-import edu.ncsu.csc216.pack_scheduler.user.User;
 import edu.ncsu.csc216.pack_scheduler.util.LinkedList;
 
 /**
@@ -25,40 +23,37 @@ public class FacultyRecordIO {
 	 * @throws FileNotFoundException if file cannot be found or read
 	 */
 	public static LinkedList<Faculty> readFacultyRecords(String fileName) throws FileNotFoundException {
-		Scanner fileScanner = new Scanner(new File(fileName));
+		return readFacultyRecords(fileName, ReadMode.SEQUENTIAL);
+	}
+
+	/**
+	 * Reads in faculty information from file to be processed, parsing the file in the
+	 * given mode. Every mode gives the same faculty in the same order.
+	 * @param fileName file that is being read
+	 * @param mode whether to parse the file on this thread or in parallel
+	 * @return Custom LinkedList of faculty records
+	 * @throws FileNotFoundException if file cannot be found or read
+	 */
+	public static LinkedList<Faculty> readFacultyRecords(String fileName, ReadMode mode) throws FileNotFoundException {
+		ArrayList<Faculty> records = RecordFiles.readRecords(fileName, mode, FacultyRecordIO::processFaculty);
 		LinkedList<Faculty> faculty = new LinkedList<>();
-		while (fileScanner.hasNextLine()) {
-			try {
-				Faculty facultyPerson = processFaculty(fileScanner.nextLine());
-				boolean copy = false;
-	            for (int i = 0; i < faculty.size(); i++) {
-	            	User curStudent = faculty.get(i);
-	            	if (facultyPerson.getId().equals(curStudent.getId())) {
-	            		copy = true;
-	            		break;
-	            	}
-	            }
-	            if (!copy) {
-	            	faculty.add(facultyPerson);
-	            }
-			} catch (IllegalArgumentException e) {
-				// The line is invalid b/c we couldn't create a faculty, skip it!
+		HashSet<String> ids = new HashSet<String>();
+		for (Faculty facultyPerson : records) {
+			// the first record with an id wins, later ones are copies
+			if (ids.add(facultyPerson.getId())) {
+				faculty.add(facultyPerson);
 			}
 		}
-		fileScanner.close();
 		return faculty;
 	}
 	
 	/**
 	 * Processes a single line from the file that was read and assigns the information to fields.
-	 * @param line one line of the file being processed
+	 * @param lineReader tokenizer holding one line of the file being processed
 	 * @return Faculty object constructed by the information found on file
 	 * @throws IllegalArgumentException if line cannot be read or found
 	 */
-	private static Faculty processFaculty(String line) {
-		Scanner lineReader = new Scanner(line);
-		lineReader.useDelimiter(",");
-
+	private static Faculty processFaculty(RecordTokenizer lineReader) {
 		try {
 			String firstName = lineReader.next();
 			String lastName = lineReader.next();
@@ -66,11 +61,8 @@ public class FacultyRecordIO {
 			String email = lineReader.next();
 			String hashedPassword = lineReader.next();
 			int maxCourses = lineReader.nextInt();
-			Faculty facultyPerson = new Faculty(firstName, lastName, id, email, hashedPassword, maxCourses);
-			lineReader.close();
-			return facultyPerson;
+			return new Faculty(firstName, lastName, id, email, hashedPassword, maxCourses);
 		} catch (Exception e) {
-			lineReader.close();
 			throw new IllegalArgumentException();
 		}
 	}
@@ -82,12 +74,11 @@ public class FacultyRecordIO {
 	 * @throws IOException if file cannot be written to
 	 */
 	public static void writeFacultyRecords(String fileName, LinkedList<Faculty> facultyDirectory) throws IOException {
-		PrintStream fileWriter = new PrintStream(new File(fileName));
-
-		for (int i = 0; i < facultyDirectory.size(); i++) {
-			fileWriter.println(facultyDirectory.get(i).toString());
+		try (AtomicFile fileWriter = new AtomicFile(fileName)) {
+			for (Faculty facultyPerson : facultyDirectory) {
+				fileWriter.writeLine(facultyPerson.toString());
+			}
+			fileWriter.commit();
 		}
-
-		fileWriter.close();
 	}
 }
@@ -0,0 +1,324 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only log of changes made since a snapshot was saved, so they can be
+ * replayed on top of the snapshot after a crash. Each entry is a line of comma
+ * separated fields, like a record file, ending with a checksum of the line.
+ *
+ * Entries are appended to a buffer in memory and only reach the disk when they
+ * are committed. A commit writes and forces every entry appended so far, so
+ * when several threads commit at once, the first one to get the file commits
+ * the entries of the others too and they return without forcing it again.
+ * Callers append while they hold the locks that order their change and commit
+ * after letting go of them.
+ *
+ * The first line of a journal holds the checksum of the snapshot it follows.
+ * A journal left over from an older snapshot is ignored, since its changes are
+ * already in the newer snapshot.
+ *
+ * @author Amulya Jose
+ */
+public class Journal implements Closeable {
+
+	/** The first field of the first line of a journal */
+	private static final String HEADER = "journal";
+	/** The file the journal is written to */
+	private final FileChannel channel;
+	/** Entries appended but not yet written */
+	private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+	/** Computes the checksum of each entry */
+	private final CRC32 crc = new CRC32();
+	/** The number of entries appended */
+	private long appended;
+	/** The number of entries written and forced to the disk */
+	private volatile long committed;
+	/** Held by the thread writing and forcing the file */
+	private final Object commitLock = new Object();
+	/** Set if a commit failed, since entries after a lost one can't be replayed */
+	private volatile IOException failure;
+	/** Entries read from the journal when it was opened */
+	private final ArrayList<String[]> recovered;
+
+	/**
+	 * Creates a journal appending to an open file
+	 * @param channel the file to append to, positioned at its end
+	 * @param recovered the entries already in the file
+	 */
+	private Journal(FileChannel channel, ArrayList<String[]> recovered) {
+		this.channel = channel;
+		this.recovered = recovered;
+	}
+
+	/**
+	 * Starts a new, empty journal for the changes made after a snapshot,
+	 * replacing any journal already in the file
+	 * @param fileName the file to write the journal to
+	 * @param snapshotFile the snapshot the journal follows
+	 * @return the journal
+	 * @throws IOException if either file cannot be read or written
+	 */
+	public static Journal start(String fileName, String snapshotFile) throws IOException {
+		return start(Paths.get(fileName), checksum(snapshotFile));
+	}
+
+	/**
+	 * Opens the journal that follows a snapshot, reading the entries already in
+	 * it so they can be replayed. Entries after the first one that was only
+	 * partly written are dropped from the file. If there is no journal, or it
+	 * follows a different snapshot, a new one is started.
+	 * @param fileName the file the journal is in
+	 * @param snapshotFile the snapshot the journal follows
+	 * @return the journal, with the entries it already had in getRecovered()
+	 * @throws IOException if either file cannot be read or written
+	 */
+	public static Journal open(String fileName, String snapshotFile) throws IOException {
+		Path path = Paths.get(fileName);
+		long snapshot = checksum(snapshotFile);
+		byte[] bytes;
+		try {
+			bytes = Files.readAllBytes(path);
+		} catch (NoSuchFileException e) {
+			return start(path, snapshot);
+		}
+
+		int end = lineEnd(bytes, 0);
+		if (end < 0 || !header(snapshot).equals(new String(bytes, 0, end, StandardCharsets.UTF_8))) {
+			return start(path, snapshot);
+		}
+		ArrayList<String[]> entries = new ArrayList<String[]>();
+		CRC32 lineCrc = new CRC32();
+		int valid = end + 1;
+		while ((end = lineEnd(bytes, valid)) >= 0) {
+			String[] entry = parseEntry(new String(bytes, valid, end - valid, StandardCharsets.UTF_8), lineCrc);
+			if (entry == null) {
+				break;
+			}
+			entries.add(entry);
+			valid = end + 1;
+		}
+
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE);
+		try {
+			if (valid < bytes.length) {
+				channel.truncate(valid);
+				channel.force(false);
+			}
+			channel.position(valid);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+		return new Journal(channel, entries);
+	}
+
+	/**
+	 * Returns the entries that were in the journal when it was opened, in the
+	 * order they were appended
+	 * @return the recovered entries
+	 */
+	public ArrayList<String[]> getRecovered() {
+		return recovered;
+	}
+
+	/**
+	 * Appends an entry to the journal. The entry isn't on the disk until it is
+	 * committed. Fields can't hold commas or line breaks.
+	 * @param fields the fields of the entry
+	 * @return the number of the entry, to commit it with
+	 */
+	public synchronized long append(String... fields) {
+		String line = String.join(",", fields);
+		byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+		crc.reset();
+		crc.update(bytes);
+		pending.write(bytes, 0, bytes.length);
+		byte[] check = ("," + Long.toHexString(crc.getValue()) + "\n").getBytes(StandardCharsets.UTF_8);
+		pending.write(check, 0, check.length);
+		return ++appended;
+	}
+
+	/**
+	 * Waits until an entry, and every entry appended before it, is on the disk
+	 * @param entry the number of the entry returned by append()
+	 * @throws IOException if the journal cannot be written
+	 */
+	public void commit(long entry) throws IOException {
+		if (committed >= entry) {
+			return;
+		}
+		synchronized (commitLock) {
+			// a commit that ran while this one waited may have written the entry
+			if (committed >= entry) {
+				return;
+			}
+			if (failure != null) {
+				throw failure;
+			}
+			byte[] bytes;
+			long last;
+			synchronized (this) {
+				bytes = pending.toByteArray();
+				pending.reset();
+				last = appended;
+			}
+			try {
+				ByteBuffer buffer = ByteBuffer.wrap(bytes);
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+				channel.force(false);
+			} catch (IOException e) {
+				failure = e;
+				throw e;
+			}
+			committed = last;
+		}
+	}
+
+	/**
+	 * Appends an entry to a journal, if changes are journaled. Callers append
+	 * while they hold the lock that orders their change.
+	 * @param journal the journal, or null if changes aren't journaled
+	 * @param fields the fields of the entry
+	 * @return the number of the entry, or 0 if changes aren't journaled
+	 */
+	public static long appendTo(Journal journal, String... fields) {
+		return journal == null ? 0 : journal.append(fields);
+	}
+
+	/**
+	 * Waits until an entry of a journal is on the disk, if changes are
+	 * journaled. Callers commit after letting go of their locks, so other
+	 * changes can be made and committed with theirs while the file is forced.
+	 * @param journal the journal, or null if changes aren't journaled
+	 * @param entry the number of the entry returned by appendTo()
+	 * @throws IllegalArgumentException "Unable to write to journal" if the
+	 * 		entry cannot be committed. The change has been made but may be lost
+	 * 		in a crash.
+	 */
+	public static void commitTo(Journal journal, long entry) {
+		if (journal != null && entry > 0) {
+			try {
+				journal.commit(entry);
+			} catch (IOException e) {
+				throw new IllegalArgumentException("Unable to write to journal");
+			}
+		}
+	}
+
+	/**
+	 * Commits every entry appended so far and closes the file
+	 * @throws IOException if the journal cannot be written
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			long last;
+			synchronized (this) {
+				last = appended;
+			}
+			commit(last);
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Replaces a file with a journal holding only its header
+	 * @param path the file to write the journal to
+	 * @param snapshot the checksum of the snapshot the journal follows
+	 * @return the journal
+	 * @throws IOException if the file cannot be written
+	 */
+	private static Journal start(Path path, long snapshot) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		try {
+			ByteBuffer buffer = ByteBuffer.wrap((header(snapshot) + "\n").getBytes(StandardCharsets.UTF_8));
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			channel.force(false);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+		return new Journal(channel, new ArrayList<String[]>());
+	}
+
+	/**
+	 * Returns the first line of a journal that follows a snapshot
+	 * @param snapshot the checksum of the snapshot
+	 * @return the header line
+	 */
+	private static String header(long snapshot) {
+		return HEADER + "," + Long.toHexString(snapshot);
+	}
+
+	/**
+	 * Returns the checksum of a file
+	 * @param fileName the file to check
+	 * @return the CRC-32 of the file's bytes
+	 * @throws IOException if the file cannot be read
+	 */
+	private static long checksum(String fileName) throws IOException {
+		CRC32 fileCrc = new CRC32();
+		byte[] buffer = new byte[1 << 16];
+		try (FileInputStream in = new FileInputStream(fileName)) {
+			int read;
+			while ((read = in.read(buffer)) > 0) {
+				fileCrc.update(buffer, 0, read);
+			}
+		}
+		return fileCrc.getValue();
+	}
+
+	/**
+	 * Returns the index of the line break ending a line
+	 * @param bytes the bytes of the journal
+	 * @param start the index the line starts at
+	 * @return the index of the line break, or -1 if the line doesn't end
+	 */
+	private static int lineEnd(byte[] bytes, int start) {
+		for (int i = start; i < bytes.length; i++) {
+			if (bytes[i] == '\n') {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Splits an entry into its fields after checking its checksum
+	 * @param line the entry's line without its line break
+	 * @param lineCrc used to compute the checksum
+	 * @return the fields of the entry, or null if the line is damaged
+	 */
+	private static String[] parseEntry(String line, CRC32 lineCrc) {
+		int check = line.lastIndexOf(',');
+		if (check < 0) {
+			return null;
+		}
+		lineCrc.reset();
+		lineCrc.update(line.substring(0, check).getBytes(StandardCharsets.UTF_8));
+		if (!Long.toHexString(lineCrc.getValue()).equals(line.substring(check + 1))) {
+			return null;
+		}
+		return line.substring(0, check).split(",", -1);
+	}
+}
@@ -0,0 +1,20 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+/**
+ * How the record readers read a file. Every mode gives the same records in
+ * the same order, so the first record with a given key wins either way.
+ *
+ * @author Amulya Jose
+ */
+public enum ReadMode {
+	/** Read and parse the file one line at a time on the calling thread */
+	SEQUENTIAL,
+	/** Read the whole file, then parse line-aligned chunks of it in parallel on the common fork-join pool */
+	PARALLEL,
+	/**
+	 * Map the file into memory and split fields straight from its bytes, decoding
+	 * only the fields that are read. The file stays mapped until the buffer is
+	 * garbage collected, which on some systems keeps it from being replaced.
+	 */
+	MAPPED
+}
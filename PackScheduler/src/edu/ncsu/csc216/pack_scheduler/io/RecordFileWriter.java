@@ -0,0 +1,257 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.function.ToIntFunction;
+
+/**
+ * Writes a list of records to a file, one line per record, the same way the
+ * record writers do, and remembers where each record's line is and which
+ * version of the record it holds. A later save to the same file in
+ * SaveMode.INCREMENTAL then only writes what changed:
+ * <ul>
+ * <li>if no record was added, removed or changed, nothing is written</li>
+ * <li>a changed record whose line is still the same length is written over
+ * its old line, and the file is forced to the disk before the save returns</li>
+ * <li>otherwise the lines before the first record that was added, removed or
+ * changed are copied to a new file, the records from there on are written
+ * after them, and the new file replaces the old one once it is complete</li>
+ * </ul>
+ * A save that writes every record, in SaveMode.FULL or because there is no
+ * earlier save to build on, also writes a new file that replaces the old one,
+ * so only lines that keep their length are ever written in place and a crash
+ * can't cut the file short. The file ends up holding the same bytes a full
+ * save would write. If the file
+ * was changed by something else since the last save, its length or time
+ * differs and the whole file is written again.
+ *
+ * @param <E> the type of record
+ * @author Amulya Jose
+ */
+public class RecordFileWriter<E> {
+
+	/** The most bytes copied from the old file at a time */
+	private static final int COPY_BUFFER_SIZE = 1 << 16;
+	/** Returns the version of a record, which changes whenever its line would */
+	private final ToIntFunction<E> versions;
+	/** The charset the record writers use */
+	private final Charset charset = Charset.defaultCharset();
+	/** The file last saved to, or null if nothing has been saved */
+	private File savedFile;
+	/** The records as they were last saved */
+	private Object[] saved;
+	/** The version of each record when it was last saved */
+	private int[] savedVersions;
+	/** Where each record's line starts in the file, followed by the file's length */
+	private long[] offsets;
+	/** The time the file was last saved */
+	private long savedTime;
+
+	/**
+	 * Creates a writer that hasn't saved anything yet
+	 * @param versions returns the version of a record
+	 */
+	public RecordFileWriter(ToIntFunction<E> versions) {
+		this.versions = versions;
+	}
+
+	/**
+	 * Saves records to a file
+	 * @param fileName the file to save to
+	 * @param records the records to save, in order
+	 * @param mode whether to write every record or only what changed since the
+	 * 		last save to the same file
+	 * @return the number of records whose lines were written
+	 * @throws IOException if the file cannot be written
+	 */
+	public synchronized int write(String fileName, E[] records, SaveMode mode) throws IOException {
+		File file = new File(fileName);
+		int[] newVersions = new int[records.length];
+		for (int i = 0; i < records.length; i++) {
+			newVersions[i] = versions.applyAsInt(records[i]);
+		}
+
+		int first = 0;
+		boolean sameRecords = false;
+		if (mode == SaveMode.INCREMENTAL && file.equals(savedFile) && file.length() == offsets[saved.length]
+				&& file.lastModified() == savedTime) {
+			int common = Math.min(records.length, saved.length);
+			while (first < common && records[first] == saved[first] && newVersions[first] == savedVersions[first]) {
+				first++;
+			}
+			if (first == records.length && first == saved.length) {
+				return 0;
+			}
+			sameRecords = records.length == saved.length;
+			for (int i = first; sameRecords && i < records.length; i++) {
+				sameRecords = records[i] == saved[i];
+			}
+		}
+
+		int written;
+		try {
+			if (sameRecords) {
+				written = overwriteChanged(file, records, newVersions, first);
+			} else {
+				written = rewriteFrom(file, records, first);
+			}
+		} catch (IOException e) {
+			// the file may be partly written, so the next save writes all of it
+			reset();
+			throw e;
+		}
+		saved = records.clone();
+		savedVersions = newVersions;
+		savedFile = file;
+		savedTime = file.lastModified();
+		return written;
+	}
+
+	/**
+	 * Forgets the last save, so the next one writes the whole file
+	 */
+	public synchronized void reset() {
+		savedFile = null;
+		saved = null;
+		savedVersions = null;
+		offsets = null;
+	}
+
+	/**
+	 * Writes the lines of changed records when the file holds the same records
+	 * in the same order. Lines that are the same length as before are written
+	 * over, and if one isn't, the file is written again from there to a new
+	 * file.
+	 * @param file the file to write
+	 * @param records the records to save
+	 * @param newVersions the version of each record
+	 * @param first the index of the first changed record
+	 * @return the number of records whose lines were written
+	 * @throws IOException if the file cannot be written
+	 */
+	private int overwriteChanged(File file, E[] records, int[] newVersions, int first) throws IOException {
+		int written = 0;
+		int rewrite = records.length;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+			for (int i = first; i < records.length && rewrite == records.length; i++) {
+				if (newVersions[i] == savedVersions[i]) {
+					continue;
+				}
+				byte[] line = line(records[i]);
+				if (line.length != offsets[i + 1] - offsets[i]) {
+					rewrite = i;
+				} else {
+					write(channel, ByteBuffer.wrap(line), offsets[i]);
+					written++;
+				}
+			}
+			if (rewrite == records.length) {
+				channel.force(false);
+				return written;
+			}
+		}
+		// the lines already written over are copied to the new file
+		return written + rewriteFrom(file, records, rewrite);
+	}
+
+	/**
+	 * Writes the file again from a record on to a new file that replaces the old
+	 * one once it is complete, copying the lines before the record from the old
+	 * file
+	 * @param file the file to write
+	 * @param records the records to save
+	 * @param first the index of the first record to write
+	 * @return the number of records whose lines were written
+	 * @throws IOException if the file cannot be written
+	 */
+	private int rewriteFrom(File file, E[] records, int first) throws IOException {
+		if (first == 0) {
+			return writeAll(file, records);
+		}
+		long[] newOffsets = new long[records.length + 1];
+		System.arraycopy(offsets, 0, newOffsets, 0, first + 1);
+		try (AtomicFile out = new AtomicFile(file.getPath())) {
+			copy(file, out, newOffsets[first]);
+			for (int i = first; i < records.length; i++) {
+				byte[] line = line(records[i]);
+				out.write(line, 0, line.length);
+				newOffsets[i + 1] = newOffsets[i] + line.length;
+			}
+			out.commit();
+		}
+		offsets = newOffsets;
+		return records.length - first;
+	}
+
+	/**
+	 * Writes every record to a new file that replaces the old one once it is complete
+	 * @param file the file to write
+	 * @param records the records to save
+	 * @return the number of records whose lines were written
+	 * @throws IOException if the file cannot be written
+	 */
+	private int writeAll(File file, E[] records) throws IOException {
+		long[] newOffsets = new long[records.length + 1];
+		try (AtomicFile out = new AtomicFile(file.getPath())) {
+			for (int i = 0; i < records.length; i++) {
+				byte[] line = line(records[i]);
+				out.write(line, 0, line.length);
+				newOffsets[i + 1] = newOffsets[i] + line.length;
+			}
+			out.commit();
+		}
+		offsets = newOffsets;
+		return records.length;
+	}
+
+	/**
+	 * Copies the start of a file to a new version of it
+	 * @param file the file to copy from
+	 * @param out the new version of the file
+	 * @param length the number of bytes to copy
+	 * @throws IOException if the file cannot be read or the new one written
+	 */
+	private static void copy(File file, AtomicFile out, long length) throws IOException {
+		try (FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(length, COPY_BUFFER_SIZE));
+			long position = 0;
+			while (position < length) {
+				buffer.clear();
+				buffer.limit((int) Math.min(buffer.capacity(), length - position));
+				int n = in.read(buffer, position);
+				if (n < 0) {
+					throw new EOFException(file.getPath());
+				}
+				out.write(buffer.array(), 0, n);
+				position += n;
+			}
+		}
+	}
+
+	/**
+	 * Returns the bytes of a record's line, as println() writes it
+	 * @param record the record
+	 * @return the bytes of the line, with its line separator
+	 */
+	private byte[] line(E record) {
+		return (record.toString() + System.lineSeparator()).getBytes(charset);
+	}
+
+	/**
+	 * Writes all of a buffer to a file
+	 * @param channel the file to write
+	 * @param buffer the bytes to write
+	 * @param position where in the file to write them
+	 * @throws IOException if the file cannot be written
+	 */
+	private static void write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			position += channel.write(buffer, position);
+		}
+	}
+}
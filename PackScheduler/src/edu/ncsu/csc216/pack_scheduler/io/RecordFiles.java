@@ -0,0 +1,396 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import edu.ncsu.csc217.collections.list.SortedList;
+
+/**
+ * Helpers shared by the record readers for reading the records in a file and
+ * building the sorted lists they return.
+ *
+ * @author Amulya Jose
+ */
+final class RecordFiles {
+
+	/** The fewest characters worth parsing as a separate chunk in parallel mode */
+	private static final int MIN_CHUNK = 1 << 16;
+	/** The most bytes of a file mapped into memory at once in mapped mode */
+	private static final int MAX_MAP = Integer.MAX_VALUE;
+	/** Whether the default charset stores line breaks and commas as their single ASCII bytes */
+	private static final boolean ASCII_DELIMITERS = Arrays.equals("\n\r,".getBytes(Charset.defaultCharset()),
+			new byte[] { '\n', '\r', ',' });
+
+	/**
+	 * Parses a record from a line of a record file
+	 * @param <R> the type of record
+	 */
+	interface LineParser<R> {
+		/**
+		 * Parses the line held by the tokenizer
+		 * @param tokenizer the tokenizer reset to the line
+		 * @return the record on the line
+		 * @throws IllegalArgumentException if the line isn't a valid record
+		 */
+		R parse(RecordTokenizer tokenizer);
+	}
+
+	/**
+	 * Record files are only read through the static methods
+	 */
+	private RecordFiles() {
+	}
+
+	/**
+	 * Opens a record file for reading line by line
+	 * @param fileName the file to open
+	 * @return a buffered reader for the file
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 */
+	static BufferedReader open(String fileName) throws FileNotFoundException {
+		return new BufferedReader(new InputStreamReader(new FileInputStream(fileName)));
+	}
+
+	/**
+	 * Reads the valid records in a file in the order they appear. Invalid lines
+	 * are skipped. Parsers must not change shared state, since in parallel mode
+	 * they run on several threads at once. With a single processor there is
+	 * nothing to split the work across, so parallel mode streams the file instead.
+	 * Mapped mode does the same when the default charset can't be split as bytes.
+	 * @param <R> the type of record
+	 * @param fileName the file to read
+	 * @param mode whether to parse the file on this thread or in parallel
+	 * @param parser parses a record from a line
+	 * @return the valid records in file order
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 */
+	static <R> ArrayList<R> readRecords(String fileName, ReadMode mode, LineParser<R> parser)
+			throws FileNotFoundException {
+		if (mode == ReadMode.PARALLEL && Runtime.getRuntime().availableProcessors() > 1) {
+			return parseParallel(readText(fileName), parser);
+		}
+		if (mode == ReadMode.MAPPED && ASCII_DELIMITERS) {
+			return readMapped(fileName, parser, MAX_MAP);
+		}
+		ArrayList<R> records = new ArrayList<R>();
+		RecordTokenizer tokenizer = new RecordTokenizer();
+		BufferedReader fileReader = open(fileName);
+		try {
+			for (String line = fileReader.readLine(); line != null; line = fileReader.readLine()) {
+				try {
+					records.add(parser.parse(tokenizer.reset(line)));
+				} catch (IllegalArgumentException e) {
+					// skip invalid lines
+				}
+			}
+		} catch (IOException e) {
+			throw unreadable(fileName, e);
+		} finally {
+			try {
+				fileReader.close();
+			} catch (IOException e) {
+				// nothing left to read
+			}
+		}
+		return records;
+	}
+
+	/**
+	 * Reads the valid records in a file by mapping it into memory, at most window
+	 * bytes at a time. Each window after the first starts at the beginning of a line.
+	 * @param <R> the type of record
+	 * @param fileName the file to read
+	 * @param parser parses a record from a line
+	 * @param window the most bytes to map at once, which must be more than the
+	 * 		longest line and its line break
+	 * @return the valid records in file order
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 */
+	static <R> ArrayList<R> readMapped(String fileName, LineParser<R> parser, int window)
+			throws FileNotFoundException {
+		ArrayList<R> records = new ArrayList<R>();
+		ByteRecordTokenizer tokenizer = new ByteRecordTokenizer(Charset.defaultCharset());
+		FileInputStream in = new FileInputStream(fileName);
+		try {
+			FileChannel channel = in.getChannel();
+			long size = channel.size();
+			long offset = 0;
+			while (offset < size) {
+				long length = Math.min(window, size - offset);
+				MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+				int parsed = parseMapped(bytes, offset + length == size, tokenizer, parser, records);
+				if (parsed == 0) {
+					throw new IOException("Line longer than " + window + " bytes");
+				}
+				offset += parsed;
+			}
+		} catch (IOException e) {
+			throw unreadable(fileName, e);
+		} finally {
+			try {
+				in.close();
+			} catch (IOException e) {
+				// nothing left to read
+			}
+		}
+		return records;
+	}
+
+	/**
+	 * Parses the lines in a mapped part of a file. The bytes are copied out of
+	 * the mapping a block at a time, since reading a mapped buffer one byte at a
+	 * time is much slower than reading an array. Unless the part ends at the end
+	 * of the file, its last line is left unparsed if it might not be complete.
+	 * @param <R> the type of record
+	 * @param mapped the mapped part of the file, starting at the beginning of a line
+	 * @param last whether the part ends at the end of the file
+	 * @param tokenizer the tokenizer to split lines with
+	 * @param parser parses a record from a line
+	 * @param records the list to add the valid records to
+	 * @return the number of bytes at the start of the part that were parsed
+	 */
+	private static <R> int parseMapped(ByteBuffer mapped, boolean last, ByteRecordTokenizer tokenizer,
+			LineParser<R> parser, List<R> records) {
+		byte[] block = new byte[Math.min(MIN_CHUNK, mapped.remaining())];
+		int filled = 0;
+		int parsed = 0;
+		while (true) {
+			int copied = Math.min(block.length - filled, mapped.remaining());
+			mapped.get(block, filled, copied);
+			filled += copied;
+			boolean end = !mapped.hasRemaining();
+			int used = parseLines(block, filled, end && last, tokenizer, parser, records);
+			parsed += used;
+			if (end) {
+				return parsed;
+			}
+			// keep the unfinished line, making room for it if it fills the block
+			filled -= used;
+			if (used == 0 && filled == block.length) {
+				block = Arrays.copyOf(block, (int) Math.min(Integer.MAX_VALUE - 8L, block.length * 2L));
+			} else {
+				System.arraycopy(block, used, block, 0, filled);
+			}
+		}
+	}
+
+	/**
+	 * Parses the lines at the start of an array of bytes. Lines end at "\n",
+	 * "\r" or "\r\n", as they do for BufferedReader.readLine().
+	 * @param <R> the type of record
+	 * @param bytes the bytes holding the lines
+	 * @param end the index after the last byte
+	 * @param complete whether the bytes end with the end of the file, so the last
+	 * 		line is complete even without a line break
+	 * @param tokenizer the tokenizer to split lines with
+	 * @param parser parses a record from a line
+	 * @param records the list to add the valid records to
+	 * @return the number of bytes in the lines that were parsed
+	 */
+	private static <R> int parseLines(byte[] bytes, int end, boolean complete, ByteRecordTokenizer tokenizer,
+			LineParser<R> parser, List<R> records) {
+		int index = 0;
+		while (index < end) {
+			int lineEnd = index;
+			while (lineEnd < end && bytes[lineEnd] != '\n' && bytes[lineEnd] != '\r') {
+				lineEnd++;
+			}
+			int next = lineEnd;
+			if (lineEnd < end && bytes[next++] == '\r' && next < end && bytes[next] == '\n') {
+				next++;
+			}
+			// later bytes may hold the rest of the line or the "\n" of its "\r\n"
+			if (!complete && (lineEnd == end || (next == end && bytes[lineEnd] == '\r'))) {
+				return index;
+			}
+			try {
+				records.add(parser.parse(tokenizer.reset(bytes, index, lineEnd)));
+			} catch (IllegalArgumentException e) {
+				// skip invalid lines
+			}
+			index = next;
+		}
+		return index;
+	}
+
+	/**
+	 * Reads a whole file into a String, decoded the same way open() decodes it
+	 * @param fileName the file to read
+	 * @return the contents of the file
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 */
+	private static String readText(String fileName) throws FileNotFoundException {
+		FileInputStream in = new FileInputStream(fileName);
+		try {
+			return new String(in.readAllBytes(), Charset.defaultCharset());
+		} catch (IOException e) {
+			throw unreadable(fileName, e);
+		} finally {
+			try {
+				in.close();
+			} catch (IOException e) {
+				// nothing left to read
+			}
+		}
+	}
+
+	/**
+	 * Splits text into chunks that start at the beginning of a line, parses the
+	 * chunks in parallel and joins their records back together in order
+	 * @param <R> the type of record
+	 * @param text the contents of a record file
+	 * @param parser parses a record from a line
+	 * @return the valid records in the text in order
+	 */
+	static <R> ArrayList<R> parseParallel(String text, LineParser<R> parser) {
+		int chunks = (int) Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism() * 4L, text.length() / MIN_CHUNK));
+		int[] starts = new int[chunks + 1];
+		starts[chunks] = text.length();
+		for (int i = 1; i < chunks; i++) {
+			// chunks end after a '\n' so a "\r\n" is never split
+			int newline = text.indexOf('\n', Math.max(starts[i - 1], (int) ((long) text.length() * i / chunks)));
+			starts[i] = newline < 0 ? text.length() : newline + 1;
+		}
+
+		List<ArrayList<R>> parsed = new ArrayList<ArrayList<R>>(chunks);
+		for (int i = 0; i < chunks; i++) {
+			parsed.add(null);
+		}
+		ForkJoinPool.commonPool().invoke(new ChunkTask<R>(text, starts, 0, chunks, parser, parsed));
+
+		int total = 0;
+		for (ArrayList<R> chunk : parsed) {
+			total += chunk.size();
+		}
+		ArrayList<R> records = new ArrayList<R>(total);
+		for (ArrayList<R> chunk : parsed) {
+			records.addAll(chunk);
+		}
+		return records;
+	}
+
+	/**
+	 * Parses the lines in part of a record file. Lines end at "\n", "\r" or
+	 * "\r\n", as they do for BufferedReader.readLine().
+	 * @param <R> the type of record
+	 * @param text the contents of a record file
+	 * @param start the index the chunk starts at, the start of a line
+	 * @param end the index after the chunk
+	 * @param parser parses a record from a line
+	 * @return the valid records in the chunk in order
+	 */
+	private static <R> ArrayList<R> parseChunk(String text, int start, int end, LineParser<R> parser) {
+		ArrayList<R> records = new ArrayList<R>();
+		RecordTokenizer tokenizer = new RecordTokenizer();
+		int index = start;
+		while (index < end) {
+			int lineEnd = index;
+			while (lineEnd < end && text.charAt(lineEnd) != '\n' && text.charAt(lineEnd) != '\r') {
+				lineEnd++;
+			}
+			try {
+				records.add(parser.parse(tokenizer.reset(text.substring(index, lineEnd))));
+			} catch (IllegalArgumentException e) {
+				// skip invalid lines
+			}
+			index = lineEnd;
+			if (index < end && text.charAt(index++) == '\r' && index < end && text.charAt(index) == '\n') {
+				index++;
+			}
+		}
+		return records;
+	}
+
+	/**
+	 * Parses a range of chunks, splitting the range in half until one chunk is left
+	 * @param <R> the type of record
+	 */
+	private static class ChunkTask<R> extends RecursiveAction {
+		/** ID used for serialization */
+		private static final long serialVersionUID = 1L;
+		/** the contents of the record file */
+		private final String text;
+		/** the index each chunk starts at, followed by the length of the text */
+		private final int[] starts;
+		/** the first chunk in the range */
+		private final int first;
+		/** the chunk after the range */
+		private final int last;
+		/** parses a record from a line */
+		private final LineParser<R> parser;
+		/** the records parsed from each chunk */
+		private final List<ArrayList<R>> parsed;
+
+		/**
+		 * Creates a task to parse a range of chunks
+		 * @param text the contents of the record file
+		 * @param starts the index each chunk starts at, followed by the length of the text
+		 * @param first the first chunk in the range
+		 * @param last the chunk after the range
+		 * @param parser parses a record from a line
+		 * @param parsed the records parsed from each chunk
+		 */
+		ChunkTask(String text, int[] starts, int first, int last, LineParser<R> parser, List<ArrayList<R>> parsed) {
+			this.text = text;
+			this.starts = starts;
+			this.first = first;
+			this.last = last;
+			this.parser = parser;
+			this.parsed = parsed;
+		}
+
+		@Override
+		protected void compute() {
+			if (last - first == 1) {
+				parsed.set(first, parseChunk(text, starts[first], starts[last], parser));
+			} else {
+				int middle = (first + last) / 2;
+				invokeAll(new ChunkTask<R>(text, starts, first, middle, parser, parsed),
+						new ChunkTask<R>(text, starts, middle, last, parser, parsed));
+			}
+		}
+	}
+
+	/**
+	 * Returns the exception the readers throw when a file stops being readable
+	 * part way through
+	 * @param fileName the file being read
+	 * @param cause the error reading the file
+	 * @return a FileNotFoundException for the file with the error as its cause
+	 */
+	static FileNotFoundException unreadable(String fileName, IOException cause) {
+		FileNotFoundException e = new FileNotFoundException("Unable to read file " + fileName);
+		e.initCause(cause);
+		return e;
+	}
+
+	/**
+	 * Builds a SortedList from records that are already known to be distinct.
+	 * The records are sorted once and added largest first, so each add finds its
+	 * place at the front of the list instead of searching for it.
+	 * @param <E> the type of record
+	 * @param records the records to add, which are reordered
+	 * @return a sorted list of the records
+	 */
+	static <E extends Comparable<E>> SortedList<E> toSortedList(List<E> records) {
+		records.sort(Collections.reverseOrder());
+		SortedList<E> sorted = new SortedList<E>();
+		for (E record : records) {
+			sorted.add(record);
+		}
+		return sorted;
+	}
+}
@@ -0,0 +1,145 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+/**
+ * Splits a comma separated record line into its fields. It reads the fields
+ * the same way a Scanner with a "," delimiter does, but without regular
+ * expressions, and one tokenizer can be reset and reused for every line of a
+ * file. Numbers are parsed in place without creating a String for the field.
+ * Subclasses can read lines held in something other than a String by
+ * overriding the methods that look at the line.
+ *
+ * @author Amulya Jose
+ */
+class RecordTokenizer {
+
+	/** The line being split */
+	private String line;
+	/** The index in the line the next field starts at, or the comma before it */
+	private int position;
+
+	/**
+	 * Starts reading fields from a new line
+	 * @param line the line to split
+	 * @return this tokenizer
+	 */
+	RecordTokenizer reset(String line) {
+		this.line = line;
+		restart();
+		return this;
+	}
+
+	/**
+	 * Returns whether there is another field on the line. As with a Scanner, a
+	 * comma at the end of the line doesn't start an empty field.
+	 * @return true if there is another field
+	 */
+	boolean hasNext() {
+		return skipDelimiter() < length();
+	}
+
+	/**
+	 * Returns the next field on the line
+	 * @return the next field
+	 * @throws NoSuchElementException if there are no more fields
+	 */
+	String next() {
+		int start = startField();
+		return field(start, position);
+	}
+
+	/**
+	 * Returns the next field on the line as an int
+	 * @return the next field as an int
+	 * @throws InputMismatchException if the field isn't an int
+	 * @throws NoSuchElementException if there are no more fields
+	 */
+	int nextInt() {
+		int start = startField();
+		try {
+			return intField(start, position);
+		} catch (NumberFormatException e) {
+			throw new InputMismatchException();
+		}
+	}
+
+	/**
+	 * Goes back to the first field of the line
+	 */
+	void restart() {
+		position = 0;
+	}
+
+	/**
+	 * Returns the length of the line
+	 * @return the length of the line
+	 */
+	int length() {
+		return line.length();
+	}
+
+	/**
+	 * Returns whether there is a comma at an index in the line
+	 * @param index the index to check
+	 * @return true if there is a comma at the index
+	 */
+	boolean isComma(int index) {
+		return line.charAt(index) == ',';
+	}
+
+	/**
+	 * Returns the index of the first comma at or after an index, or the length
+	 * of the line if there isn't one
+	 * @param from the index to start looking at
+	 * @return the index the field starting at from ends at
+	 */
+	int fieldEnd(int from) {
+		int end = line.indexOf(',', from);
+		return end < 0 ? line.length() : end;
+	}
+
+	/**
+	 * Returns part of the line as a String
+	 * @param start the index the field starts at
+	 * @param end the index after the field
+	 * @return the field
+	 */
+	String field(int start, int end) {
+		return line.substring(start, end);
+	}
+
+	/**
+	 * Returns part of the line as an int, read the way Integer.parseInt() reads it
+	 * @param start the index the field starts at
+	 * @param end the index after the field
+	 * @return the field as an int
+	 * @throws NumberFormatException if the field isn't an int
+	 */
+	int intField(int start, int end) {
+		return Integer.parseInt(line, start, end, 10);
+	}
+
+	/**
+	 * Moves past the next field and returns where it started
+	 * @return the index the field starts at, with position at its end
+	 * @throws NoSuchElementException if there are no more fields
+	 */
+	private int startField() {
+		int start = skipDelimiter();
+		if (start >= length()) {
+			throw new NoSuchElementException();
+		}
+		position = fieldEnd(start);
+		return start;
+	}
+
+	/**
+	 * Returns the index after the comma at the current position, if there is one
+	 * @return the index the next field would start at
+	 */
+	private int skipDelimiter() {
+		return position < length() && isComma(position) ? position + 1 : position;
+	}
+}
@@ -0,0 +1,20 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+/**
+ * How the catalog and directories are saved to a record file. Every mode
+ * leaves the file holding the same records in the same order.
+ *
+ * @author Amulya Jose
+ */
+public enum SaveMode {
+	/** Write every record to a new file that replaces the old one once it is complete */
+	FULL,
+	/**
+	 * Write only the records that were added, removed or changed since the last
+	 * save to the same file, and nothing if none were. Lines that keep their
+	 * length are written in place, and otherwise the lines before the first
+	 * change are copied to a new file, so this is meant for frequent saves such
+	 * as autosaves.
+	 */
+	INCREMENTAL
+}
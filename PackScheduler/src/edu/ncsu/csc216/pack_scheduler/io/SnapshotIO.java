@@ -0,0 +1,583 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.course.roll.CourseRoll;
+import edu.ncsu.csc216.pack_scheduler.user.Faculty;
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+import edu.ncsu.csc216.pack_scheduler.util.LinkedList;
+
+/**
+ * Reads and writes snapshots of the course catalog and the student and faculty
+ * directories, including which faculty teach which courses, the students'
+ * schedules and every course's roll and waitlist. Unlike the record files, a
+ * snapshot is binary and meant to be loaded by this program, not edited.
+ *
+ * A snapshot starts with the bytes "PSNP" and a format version, followed by a
+ * table of every distinct String in the snapshot, then the courses, faculty
+ * and students. Numbers are written as variable length ints, Strings as their
+ * index in the table, and courses and students as their index in their
+ * section, so repeated titles, meeting days and passwords are only stored once.
+ * Every record starts with its length, and a reader skips any fields after the
+ * ones it knows, so a later version can add fields to the end of a record.
+ *
+ * @author Amulya Jose
+ */
+public class SnapshotIO {
+
+	/** The bytes every snapshot starts with */
+	private static final byte[] MAGIC = { 'P', 'S', 'N', 'P' };
+	/** The version of the format written by this class */
+	public static final int VERSION = 1;
+
+	/**
+	 * The catalog and directories read from a snapshot, linked together
+	 */
+	public static class Snapshot {
+		/** the courses in the catalog, in catalog order */
+		private final Course[] courses;
+		/** the students in the directory, in directory order */
+		private final Student[] students;
+		/** the faculty in the directory */
+		private final LinkedList<Faculty> faculty;
+
+		/**
+		 * Creates a snapshot
+		 * @param courses the courses in the catalog, in catalog order
+		 * @param students the students in the directory, in directory order
+		 * @param faculty the faculty in the directory
+		 */
+		private Snapshot(Course[] courses, Student[] students, LinkedList<Faculty> faculty) {
+			this.courses = courses;
+			this.students = students;
+			this.faculty = faculty;
+		}
+
+		/**
+		 * Returns the courses in the catalog, in catalog order
+		 * @return the courses
+		 */
+		public Course[] getCourses() {
+			return courses.clone();
+		}
+
+		/**
+		 * Returns the students in the directory, in directory order
+		 * @return the students
+		 */
+		public Student[] getStudents() {
+			return students.clone();
+		}
+
+		/**
+		 * Returns the faculty in the directory
+		 * @return the faculty
+		 */
+		public LinkedList<Faculty> getFaculty() {
+			return faculty;
+		}
+	}
+
+	/**
+	 * Writes a snapshot of the catalog and directories to a file. Courses on a
+	 * schedule or students on a roll that aren't in the catalog or directory
+	 * aren't kept.
+	 * @param fileName file to write the snapshot to
+	 * @param courses the courses in the catalog
+	 * @param students the students in the directory
+	 * @param faculty the faculty in the directory
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void writeSnapshot(String fileName, Course[] courses, Student[] students, Faculty[] faculty)
+			throws IOException {
+		HashMap<String, Integer> courseIndexes = new HashMap<String, Integer>();
+		for (int i = 0; i < courses.length; i++) {
+			courseIndexes.put(courses[i].getName() + "," + courses[i].getSection(), i);
+		}
+		HashMap<String, Integer> studentIndexes = new HashMap<String, Integer>();
+		for (int i = 0; i < students.length; i++) {
+			studentIndexes.put(students[i].getId(), i);
+		}
+
+		Output out = new Output();
+		out.startSection(courses.length);
+		for (Course c : courses) {
+			out.writeString(c.getName());
+			out.writeString(c.getTitle());
+			out.writeString(c.getSection());
+			out.writeInt(c.getCredits());
+			out.writeString(c.getInstructorId());
+			CourseRoll roll = c.getCourseRoll();
+			out.writeInt(roll.getEnrollmentCap());
+			out.writeInt(roll.getMaxEnrollment());
+			out.writeInt(roll.getWaitlistSize());
+			out.writeString(c.getMeetingDays());
+			out.writeInt(c.getStartTime());
+			out.writeInt(c.getEndTime());
+			out.writeIndexes(roll.getEnrolledStudents(), studentIndexes);
+			ArrayList<CourseRoll.Waitlisted> waitlisted = new ArrayList<CourseRoll.Waitlisted>();
+			for (CourseRoll.Waitlisted w : roll.getWaitlistedStudents()) {
+				if (studentIndexes.containsKey(w.getStudent().getId())) {
+					waitlisted.add(w);
+				}
+			}
+			out.writeInt(waitlisted.size());
+			for (CourseRoll.Waitlisted w : waitlisted) {
+				out.writeInt(studentIndexes.get(w.getStudent().getId()));
+				out.writeInt(w.getSeniority());
+				out.writeInt(w.getCredits());
+			}
+			out.endRecord();
+		}
+
+		out.startSection(faculty.length);
+		for (Faculty f : faculty) {
+			writeUser(out, f.getFirstName(), f.getLastName(), f.getId(), f.getEmail(), f.getPassword());
+			out.writeInt(f.getMaxCourses());
+			out.writeCourses(f.getSchedule().getScheduledCourses(), courseIndexes);
+			out.endRecord();
+		}
+
+		out.startSection(students.length);
+		for (Student s : students) {
+			writeUser(out, s.getFirstName(), s.getLastName(), s.getId(), s.getEmail(), s.getPassword());
+			out.writeInt(s.getMaxCredits());
+			out.writeInt(s.getSeniority());
+			out.writeString(s.getSchedule().getTitle());
+			out.writeCourses(s.getSchedule().getScheduledCourses(), courseIndexes);
+			out.endRecord();
+		}
+
+		try (AtomicFile file = new AtomicFile(fileName)) {
+			out.writeTo(file);
+			file.commit();
+		}
+	}
+
+	/**
+	 * Writes the fields every user has
+	 * @param out the snapshot being written
+	 * @param firstName the user's first name
+	 * @param lastName the user's last name
+	 * @param id the user's id
+	 * @param email the user's email
+	 * @param password the user's hashed password
+	 */
+	private static void writeUser(Output out, String firstName, String lastName, String id, String email,
+			String password) {
+		out.writeString(firstName);
+		out.writeString(lastName);
+		out.writeString(id);
+		out.writeString(email);
+		out.writeString(password);
+	}
+
+	/**
+	 * Reads a snapshot of the catalog and directories from a file. The courses,
+	 * students and faculty are checked the same way as when they are created
+	 * any other way.
+	 * @param fileName file to read the snapshot from
+	 * @return the catalog and directories in the snapshot
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 * @throws IOException if the file isn't a snapshot, is from a later version or
+	 * 		doesn't hold a valid catalog and directories
+	 */
+	public static Snapshot readSnapshot(String fileName) throws IOException {
+		byte[] bytes;
+		try (FileInputStream file = new FileInputStream(fileName)) {
+			bytes = file.readAllBytes();
+		}
+		try {
+			return readSnapshot(new Input(bytes));
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Invalid snapshot " + fileName, e);
+		}
+	}
+
+	/**
+	 * Reads the catalog and directories from the bytes of a snapshot and links
+	 * them together
+	 * @param in the snapshot being read
+	 * @return the catalog and directories in the snapshot
+	 * @throws IOException if the bytes aren't a snapshot or are from a later version
+	 * @throws IllegalArgumentException if the snapshot doesn't hold a valid
+	 * 		catalog and directories
+	 */
+	private static Snapshot readSnapshot(Input in) throws IOException {
+		in.readHeader();
+
+		int courseCount = in.readCount();
+		ArrayList<Course> courses = new ArrayList<Course>(courseCount);
+		int[][] enrolled = new int[courseCount][];
+		int[][] waitlisted = new int[courseCount][];
+		for (int i = 0; i < courseCount; i++) {
+			int end = in.startRecord();
+			String name = in.readString();
+			String title = in.readString();
+			String section = in.readString();
+			int credits = in.readInt();
+			String instructorId = in.readString();
+			int enrollmentCap = in.readInt();
+			int maxEnrollment = in.readInt();
+			int waitlistSize = in.readInt();
+			String meetingDays = in.readString();
+			int startTime = in.readInt();
+			int endTime = in.readInt();
+			courses.add(new Course(name, title, section, credits, instructorId, enrollmentCap, maxEnrollment,
+					waitlistSize, meetingDays, startTime, endTime));
+			enrolled[i] = in.readIndexes(1);
+			waitlisted[i] = in.readIndexes(3);
+			in.endRecord(end);
+		}
+
+		int facultyCount = in.readCount();
+		LinkedList<Faculty> faculty = new LinkedList<Faculty>();
+		HashSet<String> ids = new HashSet<String>();
+		for (int i = 0; i < facultyCount; i++) {
+			int end = in.startRecord();
+			Faculty f = new Faculty(in.readString(), in.readString(), in.readString(), in.readString(),
+					in.readString(), in.readInt());
+			for (int course : in.readIndexes(1)) {
+				// the faculty's schedule gives the course its instructor
+				Course c = courses.get(Input.checkIndex(course, courseCount));
+				c.setInstructorId(null);
+				f.getSchedule().addCourseToSchedule(c);
+			}
+			if (!ids.add(f.getId())) {
+				throw new IllegalArgumentException("Duplicate user " + f.getId());
+			}
+			faculty.add(f);
+			in.endRecord(end);
+		}
+
+		int studentCount = in.readCount();
+		ArrayList<Student> students = new ArrayList<Student>(studentCount);
+		ids.clear();
+		for (int i = 0; i < studentCount; i++) {
+			int end = in.startRecord();
+			Student s = new Student(in.readString(), in.readString(), in.readString(), in.readString(),
+					in.readString(), in.readInt());
+			s.setSeniority(in.readInt());
+			s.getSchedule().setTitle(in.readString());
+			for (int course : in.readIndexes(1)) {
+				s.getSchedule().addCourseToSchedule(courses.get(Input.checkIndex(course, courseCount)));
+			}
+			if (!ids.add(s.getId())) {
+				throw new IllegalArgumentException("Duplicate user " + s.getId());
+			}
+			students.add(s);
+			in.endRecord(end);
+		}
+
+		for (int i = 0; i < courseCount; i++) {
+			Student[] roll = new Student[enrolled[i].length];
+			for (int j = 0; j < roll.length; j++) {
+				roll[j] = students.get(Input.checkIndex(enrolled[i][j], studentCount));
+			}
+			CourseRoll.Waitlisted[] waitlist = new CourseRoll.Waitlisted[waitlisted[i].length / 3];
+			for (int j = 0; j < waitlist.length; j++) {
+				Student s = students.get(Input.checkIndex(waitlisted[i][3 * j], studentCount));
+				waitlist[j] = new CourseRoll.Waitlisted(s, waitlisted[i][3 * j + 1], waitlisted[i][3 * j + 2]);
+			}
+			courses.get(i).getCourseRoll().restore(roll, waitlist);
+		}
+
+		return new Snapshot(sorted(courses.toArray(new Course[courseCount]), "course"),
+				sorted(students.toArray(new Student[studentCount]), "user"), faculty);
+	}
+
+	/**
+	 * Sorts the records of a section, which a snapshot writes in order already,
+	 * and checks that no two are in the same place
+	 * @param <E> the type of record
+	 * @param records the records to sort
+	 * @param type what the records are, for the message
+	 * @return the records, sorted
+	 * @throws IllegalArgumentException if two records are in the same place
+	 */
+	private static <E extends Comparable<E>> E[] sorted(E[] records, String type) {
+		Arrays.sort(records);
+		for (int i = 1; i < records.length; i++) {
+			if (records[i - 1].compareTo(records[i]) == 0) {
+				throw new IllegalArgumentException("Duplicate " + type);
+			}
+		}
+		return records;
+	}
+
+	/**
+	 * Builds the bytes of a snapshot. Records are written to a buffer while the
+	 * String table is filled, and the table is written ahead of them at the end.
+	 */
+	private static class Output {
+		/** the index of each String in the table */
+		private final HashMap<String, Integer> strings = new HashMap<String, Integer>();
+		/** the Strings in the table in order */
+		private final ArrayList<String> table = new ArrayList<String>();
+		/** the sections written so far */
+		private final ByteArrayOutputStream sections = new ByteArrayOutputStream();
+		/** the record being written */
+		private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+
+		/**
+		 * Starts a section of records
+		 * @param count the number of records in the section
+		 */
+		void startSection(int count) {
+			writeVarInt(sections, count);
+		}
+
+		/**
+		 * Writes an int field to the record
+		 * @param value the value to write
+		 */
+		void writeInt(int value) {
+			writeVarInt(record, value);
+		}
+
+		/**
+		 * Writes a String field to the record as its place in the table, with
+		 * 0 for null
+		 * @param value the String to write
+		 */
+		void writeString(String value) {
+			if (value == null) {
+				writeVarInt(record, 0);
+				return;
+			}
+			Integer index = strings.get(value);
+			if (index == null) {
+				index = table.size();
+				strings.put(value, index);
+				table.add(value);
+			}
+			writeVarInt(record, index + 1);
+		}
+
+		/**
+		 * Writes the indexes of the students that have one
+		 * @param students the students to write
+		 * @param indexes the index of each student by id
+		 */
+		void writeIndexes(Student[] students, HashMap<String, Integer> indexes) {
+			ArrayList<Integer> known = new ArrayList<Integer>(students.length);
+			for (Student s : students) {
+				Integer index = indexes.get(s.getId());
+				if (index != null) {
+					known.add(index);
+				}
+			}
+			writeInt(known.size());
+			for (int index : known) {
+				writeInt(index);
+			}
+		}
+
+		/**
+		 * Writes the indexes of the scheduled courses that have one
+		 * @param scheduled the scheduled courses, with the name and section first
+		 * @param indexes the index of each course by name and section
+		 */
+		void writeCourses(String[][] scheduled, HashMap<String, Integer> indexes) {
+			ArrayList<Integer> known = new ArrayList<Integer>(scheduled.length);
+			for (String[] course : scheduled) {
+				Integer index = indexes.get(course[0] + "," + course[1]);
+				if (index != null) {
+					known.add(index);
+				}
+			}
+			writeInt(known.size());
+			for (int index : known) {
+				writeInt(index);
+			}
+		}
+
+		/**
+		 * Adds the record to its section with its length in front of it
+		 */
+		void endRecord() {
+			writeVarInt(sections, record.size());
+			sections.write(record.toByteArray(), 0, record.size());
+			record.reset();
+		}
+
+		/**
+		 * Writes the header, the String table and the sections
+		 * @param out the file to write to
+		 * @throws IOException if the file cannot be written
+		 */
+		void writeTo(AtomicFile out) throws IOException {
+			ByteArrayOutputStream header = new ByteArrayOutputStream();
+			header.write(MAGIC);
+			writeVarInt(header, VERSION);
+			writeVarInt(header, table.size());
+			for (String s : table) {
+				byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+				writeVarInt(header, bytes.length);
+				header.write(bytes);
+			}
+			out.write(header.toByteArray(), 0, header.size());
+			out.write(sections.toByteArray(), 0, sections.size());
+		}
+
+		/**
+		 * Writes an int seven bits at a time, lowest first, with the top bit of
+		 * each byte set if more bytes follow
+		 * @param out the buffer to write to
+		 * @param value the value to write
+		 */
+		private static void writeVarInt(ByteArrayOutputStream out, int value) {
+			while ((value & ~0x7F) != 0) {
+				out.write((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			out.write(value);
+		}
+	}
+
+	/**
+	 * Reads the bytes of a snapshot
+	 */
+	private static class Input {
+		/** the bytes of the snapshot */
+		private final byte[] bytes;
+		/** the index of the next byte to read */
+		private int position;
+		/** the index after the record or section being read */
+		private int limit;
+		/** the String table */
+		private String[] table;
+
+		/**
+		 * Creates an input for the bytes of a snapshot
+		 * @param bytes the bytes of the snapshot
+		 */
+		Input(byte[] bytes) {
+			this.bytes = bytes;
+			this.limit = bytes.length;
+		}
+
+		/**
+		 * Reads the magic bytes, the version and the String table
+		 * @throws IOException if the bytes aren't a snapshot this version can read
+		 */
+		void readHeader() throws IOException {
+			for (byte b : MAGIC) {
+				if (position >= limit || bytes[position++] != b) {
+					throw new IOException("Not a snapshot");
+				}
+			}
+			int version = readInt();
+			if (version < 1 || version > VERSION) {
+				throw new IOException("Unsupported snapshot version " + version);
+			}
+			table = new String[readCount()];
+			for (int i = 0; i < table.length; i++) {
+				int length = readCount();
+				table[i] = new String(bytes, position, length, StandardCharsets.UTF_8);
+				position += length;
+			}
+		}
+
+		/**
+		 * Reads a count or length, which can't be more than the bytes left
+		 * @return the count
+		 * @throws IllegalArgumentException if the count is negative or too large
+		 */
+		int readCount() {
+			int count = readInt();
+			if (count < 0 || count > limit - position) {
+				throw new IllegalArgumentException("Invalid count " + count);
+			}
+			return count;
+		}
+
+		/**
+		 * Starts reading a record, limiting reads to the end of it
+		 * @return the index after the record
+		 */
+		int startRecord() {
+			int length = readCount();
+			int end = position + length;
+			limit = end;
+			return end;
+		}
+
+		/**
+		 * Skips the rest of a record and lets reads continue to the end of the snapshot
+		 * @param end the index after the record
+		 */
+		void endRecord(int end) {
+			position = end;
+			limit = bytes.length;
+		}
+
+		/**
+		 * Reads an int written by Output.writeVarInt()
+		 * @return the int
+		 * @throws IllegalArgumentException if the int runs past the end of the
+		 * 		record or is too long
+		 */
+		int readInt() {
+			int value = 0;
+			for (int shift = 0; shift < 35; shift += 7) {
+				if (position >= limit) {
+					throw new IllegalArgumentException("Record ends early");
+				}
+				byte b = bytes[position++];
+				value |= (b & 0x7F) << shift;
+				if (b >= 0) {
+					return value;
+				}
+			}
+			throw new IllegalArgumentException("Invalid int");
+		}
+
+		/**
+		 * Reads a String from the table
+		 * @return the String, or null
+		 * @throws IllegalArgumentException if the String isn't in the table
+		 */
+		String readString() {
+			int index = readInt();
+			return index == 0 ? null : table[checkIndex(index - 1, table.length)];
+		}
+
+		/**
+		 * Reads a count followed by that many groups of ints
+		 * @param group the number of ints in each group
+		 * @return the ints
+		 */
+		int[] readIndexes(int group) {
+			int count = readCount();
+			int[] ints = new int[count * group];
+			for (int i = 0; i < ints.length; i++) {
+				ints[i] = readInt();
+			}
+			return ints;
+		}
+
+		/**
+		 * Checks that an index is in range
+		 * @param index the index
+		 * @param size the number of things it indexes
+		 * @return the index
+		 * @throws IllegalArgumentException if the index is out of range
+		 */
+		static int checkIndex(int index, int size) {
+			if (index < 0 || index >= size) {
+				throw new IllegalArgumentException("Invalid index " + index);
+			}
+			return index;
+		}
+	}
+}
@@ -1,14 +1,11 @@
 package edu.ncsu.csc216.pack_scheduler.io;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.PrintStream;
-import java.util.Scanner;
+import java.util.ArrayList;
+import java.util.HashSet;
 
 import edu.ncsu.csc216.pack_scheduler.user.Student;
-import edu.ncsu.csc216.pack_scheduler.user.User;
 import edu.ncsu.csc217.collections.list.SortedList;
 /**
  * Reads in student records from a file and writes student records to a file,
@@ -18,47 +15,47 @@ import edu.ncsu.csc217.collections.list.SortedList;
 public class StudentRecordIO {
 
 	/**
-	 * Reads in student information from file to be processed
+	 * Reads in student information from file to be processed. The first record
+	 * with an id wins and later ones are ignored, as are invalid lines.
 	 * @param fileName file that is being read
 	 * @return Array list of student records
 	 * @throws FileNotFoundException if file cannot be found or read
 	 */
 	public static SortedList<Student> readStudentRecords(String fileName) throws FileNotFoundException {
-		Scanner fileReader = new Scanner(new FileInputStream(fileName));  
-	    SortedList<Student> students = new SortedList<Student>(); 
-	    while (fileReader.hasNextLine()) {
-	        try {
-	            Student student = processStudent(fileReader.nextLine()); 
-	            // students.add(student); - removed to make the copy detection actually work.
-	            boolean copy = false;
-	            for (int i = 0; i < students.size(); i++) {
-	            	User curStudent = students.get(i);
-	            	if (student.getId().equals(curStudent.getId())) {
-	            		copy = true;
-	            		break;
-	            	}
-	            }
-	            if (!copy) {
-	            	students.add(student);
-	            }
-	        } catch (IllegalArgumentException e) {
-	        	// pass (we ignore invalid lines of data)
-	        }
+		return readStudentRecords(fileName, ReadMode.SEQUENTIAL);
+	}
+
+	/**
+	 * Reads in student information from file to be processed, parsing the file in
+	 * the given mode. Every mode gives the same students.
+	 * @param fileName file that is being read
+	 * @param mode whether to parse the file on this thread or in parallel
+	 * @return Array list of student records
+	 * @throws FileNotFoundException if file cannot be found or read
+	 */
+	public static SortedList<Student> readStudentRecords(String fileName, ReadMode mode) throws FileNotFoundException {
+	    ArrayList<Student> records = RecordFiles.readRecords(fileName, mode, StudentRecordIO::processStudent);
+	    ArrayList<Student> students = new ArrayList<Student>(records.size());
+	    HashSet<String> ids = new HashSet<String>();
+	    for (Student student : records) {
+	    	// a record is only kept if no earlier record had its id
+	    	if (ids.add(student.getId())) {
+	    		students.add(student);
+	    	}
 	    }
-	    fileReader.close();
-	    return students;
+	    // sorted once at the end rather than as each record is read
+	    return RecordFiles.toSortedList(students);
 	}
 	
 	/**
 	 * Processes a single line from the file that was read and assigns the information
-	 * to fields.
-	 * @param line one line of the file being processed
+	 * to fields. A student's seniority can follow their max credits, and is 0 if it
+	 * doesn't.
+	 * @param lineReader tokenizer holding one line of the file being processed
 	 * @return Student object constructed by the information found on file
 	 * @throws IllegalArgumentException if line cannot be read or found
 	 */
-	private static Student processStudent(String line) {
-		Scanner lineReader = new Scanner(line);
-		lineReader.useDelimiter(",");
+	private static Student processStudent(RecordTokenizer lineReader) {
 		try {
 			String firstName = lineReader.next();
 			String lastName = lineReader.next();
@@ -66,8 +63,14 @@ public class StudentRecordIO {
 			String email = lineReader.next();
 			String hashPW = lineReader.next();
 			int maxCredits = lineReader.nextInt();
-			lineReader.close();
-			return new Student(firstName, lastName, id, email, hashPW, maxCredits);
+			Student student = new Student(firstName, lastName, id, email, hashPW, maxCredits);
+			if (lineReader.hasNext()) {
+				student.setSeniority(lineReader.nextInt());
+				if (lineReader.hasNext()) {
+					throw new IllegalArgumentException();
+				}
+			}
+			return student;
 					
 	   } catch (Exception ex) {
 		   throw new IllegalArgumentException();
@@ -81,13 +84,12 @@ public class StudentRecordIO {
 	 * @throws IOException if file cannot be written to
 	 */
 	public static void writeStudentRecords(String fileName, SortedList<Student> studentDirectory) throws IOException {
-		PrintStream fileWriter = new PrintStream(new File(fileName));
-
-    	for (int i = 0; i < studentDirectory.size(); i++) {
-    	    fileWriter.println(studentDirectory.get(i).toString());
-    	}
-
-    	fileWriter.close();
+		try (AtomicFile fileWriter = new AtomicFile(fileName)) {
+			for (int i = 0; i < studentDirectory.size(); i++) {
+				fileWriter.writeLine(studentDirectory.get(i).toString());
+			}
+			fileWriter.commit();
+		}
 	}
 
 }
@@ -3,19 +3,30 @@ package edu.ncsu.csc216.pack_scheduler.manager;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.Base64;
 import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import edu.ncsu.csc216.pack_scheduler.catalog.CourseCatalog;
 import edu.ncsu.csc216.pack_scheduler.course.Course;
 import edu.ncsu.csc216.pack_scheduler.course.roll.CourseRoll;
 import edu.ncsu.csc216.pack_scheduler.directory.FacultyDirectory;
 import edu.ncsu.csc216.pack_scheduler.directory.StudentDirectory;
+import edu.ncsu.csc216.pack_scheduler.io.Journal;
+import edu.ncsu.csc216.pack_scheduler.io.SnapshotIO;
 import edu.ncsu.csc216.pack_scheduler.user.Faculty;
+import edu.ncsu.csc216.pack_scheduler.user.PasswordHasher;
+import edu.ncsu.csc216.pack_scheduler.user.Pbkdf2Scheme;
+import edu.ncsu.csc216.pack_scheduler.user.Sha256Scheme;
 import edu.ncsu.csc216.pack_scheduler.user.Student;
 import edu.ncsu.csc216.pack_scheduler.user.User;
+import edu.ncsu.csc216.pack_scheduler.user.schedule.FacultySchedule;
 import edu.ncsu.csc216.pack_scheduler.user.schedule.Schedule;
 
 /**
@@ -23,13 +34,37 @@ import edu.ncsu.csc216.pack_scheduler.user.schedule.Schedule;
  * allows logging in/out
  * Allows user to do specific things according to
  * the type of user
+ * 
+ * Besides the single current user used by the GUI, any number of users
+ * can work at once through their own Session. A change locks only the
+ * user it is for and then the course it touches, always in that order, so
+ * sessions working on different courses never wait on each other.
+ * 
+ * Once a checkpoint has been saved, every enroll, drop, reset and instructor
+ * change is also appended to a Journal, as is every change to the catalog and
+ * the directories, which journal their own. Each change is appended in the same
+ * critical section that makes it on its course, holding the roll's lock for
+ * enrollments and the course's lock for instructors, so changes to a course
+ * are journaled in the order they happened. A reset journals a drop or
+ * removal for each course on its own. Changes are committed once the locks
+ * are let go, so changes made at the same time share one write to the disk. A change is only reported as
+ * done once it is committed, and recover() replays the journal on top of the
+ * checkpoint after a crash.
+ * 
+ * Passwords are checked on a small pool of login threads, one per processor
+ * unless registrar.properties says otherwise, with a bounded queue in front
+ * of it. A slow password scheme then only ever keeps that many threads busy,
+ * however many users log in at once, and the rest wait in the queue. A login
+ * that finds the queue full is turned away. When a password is checked
+ * against a hash weaker than the current scheme's, the user's hash is made
+ * again with the current one. A stronger hash is kept as it is.
  * @author William Walton
  * @author Amulya Jose
  */
 public class RegistrationManager {
 
 	/** the current and only instance of RegistrationManager */
-	private static RegistrationManager instance;
+	private static volatile RegistrationManager instance;
 	/** the catalog of all the available courses */
 	private CourseCatalog courseCatalog;
 	/** the directory of all the students */
@@ -40,10 +75,32 @@ public class RegistrationManager {
 	private User registrar;
 	/** the currentUser of the program */
 	private User currentUser;
-	/** Hashing algorithm */
-	private static final String HASH_ALGORITHM = "SHA-256";
+	/** the open sessions of the program, keyed on their token */
+	private final ConcurrentHashMap<String, Session> sessions;
 	/** the file where the registrar's info is */
 	private static final String PROP_FILE = "registrar.properties";
+	/** the number of logins that can wait for a login thread, unless registrar.properties says otherwise */
+	private static final int LOGIN_QUEUE = 1024;
+	/** the threads passwords are checked on */
+	private volatile ThreadPoolExecutor loginPool;
+	/** the journal of changes since the last checkpoint, or null if changes aren't journaled */
+	private volatile Journal journal;
+	/** the snapshot of the last checkpoint, or null if changes aren't journaled */
+	private volatile String snapshotFile;
+	/** the file changes since the last checkpoint are journaled to, or null if they aren't */
+	private volatile String journalFile;
+	/** journal entry for a student enrolling in a course */
+	private static final String ENROLL = "enroll";
+	/** journal entry for a student dropping a course */
+	private static final String DROP = "drop";
+	/** journal entry for a student's schedule being reset */
+	private static final String RESET = "reset";
+	/** journal entry for a faculty being assigned to a course */
+	private static final String ASSIGN = "assign";
+	/** journal entry for a faculty being removed from a course */
+	private static final String UNASSIGN = "unassign";
+	/** journal entry for a faculty's schedule being reset */
+	private static final String RESET_FACULTY = "resetFaculty";
 
 	
 	/**
@@ -52,11 +109,13 @@ public class RegistrationManager {
 	 * there is no current user
 	 */
 	private RegistrationManager() {
+		this.loginPool = newLoginPool(Runtime.getRuntime().availableProcessors(), LOGIN_QUEUE);
 		createRegistrar();
 		this.courseCatalog = new CourseCatalog();
 		this.studentDirectory = new StudentDirectory();
         this.facultyDirectory = new FacultyDirectory();
 		this.currentUser = null;
+		this.sessions = new ConcurrentHashMap<String, Session>();
 	}
 	
 	/**
@@ -66,24 +125,66 @@ public class RegistrationManager {
 	 * @throws IllegalArgumentException if the currentUser isn't a Student
 	 */
 	public boolean enrollStudentInCourse(Course c) {
-	    if (!(currentUser instanceof Student)) {
+	    return enroll(currentUser, c);
+	}
+
+	/**
+	 * Returns true if the session's student can enroll in the given course.
+	 * @param session the session of the student
+	 * @param c Course to enroll in
+	 * @return true if enrolled
+	 * @throws IllegalArgumentException if the session isn't open or its user isn't a Student
+	 */
+	public boolean enrollStudentInCourse(Session session, Course c) {
+	    return enroll(getSessionUser(session), c);
+	}
+
+	/**
+	 * Enrolls a student in the given course if they can add it to their schedule
+	 * and the course can take them.
+	 * @param user the user to enroll
+	 * @param c Course to enroll in
+	 * @return true if enrolled
+	 * @throws IllegalArgumentException if the user isn't a Student or the
+	 * 		enrollment cannot be journaled
+	 */
+	private boolean enroll(User user, Course c) {
+	    if (!(user instanceof Student)) {
 	        throw new IllegalArgumentException("Illegal Action");
 	    }
-	    try {
-	        Student s = (Student)currentUser;
-	        Schedule schedule = s.getSchedule();
-	        CourseRoll roll = c.getCourseRoll();
-	        
-	        if (s.canAdd(c) && roll.canEnroll(s)) {
+	    Student s = (Student)user;
+	    Schedule schedule = s.getSchedule();
+	    CourseRoll roll = c.getCourseRoll();
+	    Journal j = journal;
+	    long entry;
+	    boolean added;
+	    synchronized (s) {
+	        try {
+	            // a full course is turned away without locking its roll
+	            if (!s.canAdd(c) || roll.getOpenSeats() == 0) {
+	                return false;
+	            }
+	        } catch (IllegalArgumentException e) {
+	            return false;
+	        }
+	        // the seat is filled and journaled under the roll's lock, so no other
+	        // change to the course can be journaled between them
+	        synchronized (roll) {
+	            if (!roll.enrollInOpenSeat(s)) {
+	                return false;
+	            }
+	            entry = Journal.appendTo(j, ENROLL, s.getId(), c.getName(), c.getSection());
+	        }
+	        try {
 	            schedule.addCourseToSchedule(c);
-	            roll.enroll(s);
-	            return true;
+	            added = true;
+	        } catch (IllegalArgumentException e) {
+	            entry = dropAndAppend(j, s, c);
+	            added = false;
 	        }
-	        
-	    } catch (IllegalArgumentException e) {
-	        return false;
 	    }
-	    return false;
+	    Journal.commitTo(j, entry);
+	    return added;
 	}
 
     /**
@@ -101,16 +202,63 @@ public class RegistrationManager {
 	 * @throws IllegalArgumentException if the currentUser isn't a Student
 	 */
 	public boolean dropStudentFromCourse(Course c) {
-	    if (!(currentUser instanceof Student)) {
+	    return drop(currentUser, c);
+	}
+
+	/**
+	 * Returns true if the session's student can drop the given course.
+	 * @param session the session of the student
+	 * @param c Course to drop
+	 * @return true if dropped
+	 * @throws IllegalArgumentException if the session isn't open or its user isn't a Student
+	 */
+	public boolean dropStudentFromCourse(Session session, Course c) {
+	    return drop(getSessionUser(session), c);
+	}
+
+	/**
+	 * Drops a student from the given course.
+	 * @param user the user to drop
+	 * @param c Course to drop
+	 * @return true if dropped
+	 * @throws IllegalArgumentException if the user isn't a Student or the drop
+	 * 		cannot be journaled
+	 */
+	private boolean drop(User user, Course c) {
+	    if (!(user instanceof Student)) {
 	        throw new IllegalArgumentException("Illegal Action");
 	    }
-	    try {
-	        Student s = (Student)currentUser;
-	        int num = s.getSchedule().getScheduledCourses().length;
-	        c.getCourseRoll().drop(s);
-	        return s.getSchedule().getScheduledCourses().length == num - 1;
-	    } catch (IllegalArgumentException e) {
-	        return false; 
+	    Student s = (Student)user;
+	    Journal j = journal;
+	    long entry;
+	    boolean dropped;
+	    synchronized (s) {
+	        try {
+	            int num = s.getSchedule().getScheduledCourses().length;
+	            entry = dropAndAppend(j, s, c);
+	            dropped = s.getSchedule().getScheduledCourses().length == num - 1;
+	        } catch (IllegalArgumentException e) {
+	            return false; 
+	        }
+	    }
+	    Journal.commitTo(j, entry);
+	    return dropped;
+	}
+
+	/**
+	 * Drops a student from a course's roll and appends the drop to the journal
+	 * before another change to the course can be made
+	 * @param j the journal, or null if changes aren't journaled
+	 * @param s the student to drop
+	 * @param c the course to drop
+	 * @return the number of the journal entry
+	 * @throws IllegalArgumentException if the student cannot be dropped
+	 */
+	private long dropAndAppend(Journal j, Student s, Course c) {
+	    CourseRoll roll = c.getCourseRoll();
+	    synchronized (roll) {
+	        roll.drop(s);
+	        return Journal.appendTo(j, DROP, s.getId(), c.getName(), c.getSection());
 	    }
 	}
 
@@ -120,68 +268,146 @@ public class RegistrationManager {
 	 * @throws IllegalArgumentException if the currentUser isn't a Student
 	 */
 	public void resetSchedule() {
-	    if (!(currentUser instanceof Student)) {
+	    reset(currentUser);
+	}
+
+	/**
+	 * Resets the session's student's schedule by dropping them
+	 * from every course and then resetting the schedule.
+	 * @param session the session of the student
+	 * @throws IllegalArgumentException if the session isn't open or its user isn't a Student
+	 */
+	public void resetSchedule(Session session) {
+	    reset(getSessionUser(session));
+	}
+
+	/**
+	 * Drops a student from every course on their schedule and then resets the schedule.
+	 * Each drop is journaled on its own, so it is ordered with the other changes
+	 * to its course.
+	 * @param user the user whose schedule is reset
+	 * @throws IllegalArgumentException if the user isn't a Student or the reset
+	 * 		cannot be journaled
+	 */
+	private void reset(User user) {
+	    if (!(user instanceof Student)) {
 	        throw new IllegalArgumentException("Illegal Action");
 	    }
-	    try {
-	        Student s = (Student)currentUser;
-	        Schedule schedule = s.getSchedule();
-	        String [][] scheduleArray = schedule.getScheduledCourses();
-	        for (int i = 0; i < scheduleArray.length; i++) {
-	            Course c = courseCatalog.getCourseFromCatalog(scheduleArray[i][0], scheduleArray[i][1]);
-	            c.getCourseRoll().drop(s);
+	    Student s = (Student)user;
+	    Journal j = journal;
+	    long entry = 0;
+	    synchronized (s) {
+	        try {
+	            Schedule schedule = s.getSchedule();
+	            String [][] scheduleArray = schedule.getScheduledCourses();
+	            for (int i = 0; i < scheduleArray.length; i++) {
+	                Course c = courseCatalog.getCourseFromCatalog(scheduleArray[i][0], scheduleArray[i][1]);
+	                entry = dropAndAppend(j, s, c);
+	            }
+	            schedule.resetSchedule();
+	            entry = Journal.appendTo(j, RESET, s.getId());
+	        } catch (IllegalArgumentException e) {
+	            //do nothing 
 	        }
-	        schedule.resetSchedule();
-	    } catch (IllegalArgumentException e) {
-	        //do nothing 
 	    }
+	    Journal.commitTo(j, entry);
 	}
 
 	/**
 	 * creates the registrar of the manager
-	 * according to the Properties file
+	 * according to the Properties file, along with the password scheme and
+	 * login threads if the file sets them
 	 * @throws IllegalArgumentException "Cannot create registrar." if file
-	 * 		cannot be read or found
+	 * 		cannot be read or found, or the settings in it are invalid
 	 */
 	private void createRegistrar() {
 		Properties prop = new Properties();
 
 		try (InputStream input = new FileInputStream(PROP_FILE)) {
 			prop.load(input);
+			configure(prop);
 
-			String hashPW = hashPW(prop.getProperty("pw"));
+			String hashPW = PasswordHasher.hash(prop.getProperty("pw"));
 
 			registrar = new Registrar(prop.getProperty("first"), prop.getProperty("last"), prop.getProperty("id"),
 					prop.getProperty("email"), hashPW);
-		} catch (IOException e) {
+		} catch (IOException | IllegalArgumentException e) {
 			throw new IllegalArgumentException("Cannot create registrar.");
 		}
 	}
 
 	/**
-	 * hashes the password to prevent it from being directly accessible
-	 * @param pw the unhashed password
-	 * @return a hashed passwrod
-	 * @throws IllegalArgumentException "Cannot hash password" if the hash algorithm
-	 * 		is invalid
+	 * Sets the password scheme and login threads from the optional settings in
+	 * the Properties file: hash (sha256 or pbkdf2), hash.iterations,
+	 * login.threads and login.queue
+	 * @param prop the properties
+	 * @throws IllegalArgumentException if a setting is invalid
 	 */
-	private String hashPW(String pw) {
-		try {
-			MessageDigest digest1 = MessageDigest.getInstance(HASH_ALGORITHM);
-			digest1.update(pw.getBytes());
-			return Base64.getEncoder().encodeToString(digest1.digest());
-		} catch (NoSuchAlgorithmException e) {
-			throw new IllegalArgumentException("Cannot hash password");
+	private void configure(Properties prop) {
+		String hash = prop.getProperty("hash");
+		if ("pbkdf2".equals(hash)) {
+			String iterations = prop.getProperty("hash.iterations");
+			PasswordHasher.setScheme(iterations == null ? new Pbkdf2Scheme()
+					: new Pbkdf2Scheme(Integer.parseInt(iterations)));
+		} else if ("sha256".equals(hash)) {
+			PasswordHasher.setScheme(new Sha256Scheme());
+		} else if (hash != null) {
+			throw new IllegalArgumentException("Invalid password scheme");
+		}
+		String threads = prop.getProperty("login.threads");
+		String queue = prop.getProperty("login.queue");
+		if (threads != null || queue != null) {
+			setLoginPool(threads == null ? loginPool.getMaximumPoolSize() : Integer.parseInt(threads),
+					queue == null ? LOGIN_QUEUE : Integer.parseInt(queue));
 		}
 	}
 
+	/**
+	 * Replaces the threads passwords are checked on. Logins already waiting
+	 * for the old threads are still checked.
+	 * @param threads the number of logins checked at once
+	 * @param queueSize the number of logins that can wait for a thread
+	 * @throws IllegalArgumentException "Invalid login threads" if threads or
+	 * 		queueSize is less than 1
+	 */
+	public void setLoginPool(int threads, int queueSize) {
+		if (threads < 1 || queueSize < 1) {
+			throw new IllegalArgumentException("Invalid login threads");
+		}
+		ThreadPoolExecutor old = loginPool;
+		loginPool = newLoginPool(threads, queueSize);
+		old.shutdown();
+	}
+
+	/**
+	 * Creates the threads passwords are checked on. They are daemon threads, so
+	 * they don't keep the program running.
+	 * @param threads the number of threads
+	 * @param queueSize the number of logins that can wait for a thread
+	 * @return the pool of threads
+	 */
+	private static ThreadPoolExecutor newLoginPool(int threads, int queueSize) {
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<Runnable>(queueSize), r -> {
+					Thread t = new Thread(r, "login");
+					t.setDaemon(true);
+					return t;
+				});
+		pool.allowCoreThreadTimeOut(true);
+		return pool;
+	}
+
 	/**
 	 * Returns an instance of the RegistrationManager
 	 * @return an instance of the RegistrationManager
 	 */
 	public static RegistrationManager getInstance() {
 		if (instance == null) {
-			instance = new RegistrationManager();
+			synchronized (RegistrationManager.class) {
+				if (instance == null) {
+					instance = new RegistrationManager();
+				}
+			}
 		}
 		return instance;
 	}
@@ -202,6 +428,211 @@ public class RegistrationManager {
 		return studentDirectory;
 	}
 
+	/**
+	 * Saves the catalog and the directories, with instructor assignments,
+	 * schedules, rolls and waitlists, to a snapshot file. Sessions should not be
+	 * making changes while the snapshot is saved.
+	 * @param fileName the file to save the snapshot to
+	 * @throws IllegalArgumentException "Unable to write to file " + fileName if
+	 * 		the file cannot be written
+	 */
+	public void saveSnapshot(String fileName) {
+		try {
+			SnapshotIO.writeSnapshot(fileName, courseCatalog.getCourses(), studentDirectory.getStudents(),
+					facultyDirectory.getFaculty());
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to write to file " + fileName);
+		}
+	}
+
+	/**
+	 * Replaces the catalog and the directories with the ones saved in a snapshot
+	 * file. Nothing is replaced if the snapshot cannot be read. If changes are
+	 * being journaled, a new checkpoint is saved to the same files, since the
+	 * journal can't be replayed on top of the loaded snapshot.
+	 * @param fileName the file to load the snapshot from
+	 * @throws IllegalArgumentException "Unable to read file " + fileName if the
+	 * 		file cannot be read or isn't a valid snapshot
+	 */
+	public void loadSnapshot(String fileName) {
+		try {
+			SnapshotIO.Snapshot snapshot = SnapshotIO.readSnapshot(fileName);
+			courseCatalog.setCourses(snapshot.getCourses());
+			studentDirectory.setStudents(snapshot.getStudents());
+			facultyDirectory.setFaculty(snapshot.getFaculty());
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to read file " + fileName);
+		}
+		if (journal != null) {
+			checkpoint(snapshotFile, journalFile);
+		}
+	}
+
+	/**
+	 * Saves a snapshot and starts a new journal for the changes made after it,
+	 * replacing the journal of the previous checkpoint. Sessions should not be
+	 * making changes while the checkpoint is saved.
+	 * @param snapshotFile the file to save the snapshot to
+	 * @param journalFile the file to journal later changes to
+	 * @throws IllegalArgumentException "Unable to write to file " + fileName if
+	 * 		either file cannot be written
+	 */
+	public void checkpoint(String snapshotFile, String journalFile) {
+		saveSnapshot(snapshotFile);
+		closeJournal();
+		try {
+			startJournaling(Journal.start(journalFile, snapshotFile), snapshotFile, journalFile);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to write to file " + journalFile);
+		}
+	}
+
+	/**
+	 * Loads the snapshot of the last checkpoint and replays the changes
+	 * journaled after it, then keeps journaling to the same journal. Changes
+	 * that were reported as done before a crash are all replayed.
+	 * @param snapshotFile the snapshot of the last checkpoint
+	 * @param journalFile the journal of the changes after it
+	 * @throws IllegalArgumentException "Unable to read file " + fileName if
+	 * 		either file cannot be read, or the journal doesn't match the snapshot
+	 */
+	public void recover(String snapshotFile, String journalFile) {
+		closeJournal();
+		loadSnapshot(snapshotFile);
+		Journal recovered;
+		try {
+			recovered = Journal.open(journalFile, snapshotFile);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to read file " + journalFile);
+		}
+		try {
+			for (String[] entry : recovered.getRecovered()) {
+				replay(entry);
+			}
+		} catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+			try {
+				recovered.close();
+			} catch (IOException ignored) {
+				// the journal is being given up on already
+			}
+			throw new IllegalArgumentException("Unable to read file " + journalFile);
+		}
+		startJournaling(recovered, snapshotFile, journalFile);
+	}
+
+	/**
+	 * Journals every later change, in the catalog and the directories as well
+	 * @param j the journal to write changes to, or null to stop
+	 * @param snapshotFile the snapshot the journal is replayed on
+	 * @param journalFile the file of the journal
+	 */
+	private void startJournaling(Journal j, String snapshotFile, String journalFile) {
+		this.snapshotFile = snapshotFile;
+		this.journalFile = journalFile;
+		courseCatalog.setJournal(j);
+		studentDirectory.setJournal(j);
+		facultyDirectory.setJournal(j);
+		journal = j;
+	}
+
+	/**
+	 * Stops journaling changes, after committing the ones already made
+	 * @throws IllegalArgumentException "Unable to write to journal" if they
+	 * 		cannot be committed
+	 */
+	public void closeJournal() {
+		Journal j = journal;
+		startJournaling(null, null, null);
+		if (j != null) {
+			try {
+				j.close();
+			} catch (IOException e) {
+				throw new IllegalArgumentException("Unable to write to journal");
+			}
+		}
+	}
+
+	/**
+	 * Makes a journaled change again
+	 * @param entry the fields of the journal entry
+	 * @throws IllegalArgumentException if the change doesn't apply
+	 */
+	private void replay(String[] entry) {
+		boolean applied;
+		switch (entry[0]) {
+		case ENROLL:
+			applied = enroll(replayedStudent(entry[1]), replayedCourse(entry[2], entry[3]));
+			break;
+		case DROP:
+			drop(replayedStudent(entry[1]), replayedCourse(entry[2], entry[3]));
+			applied = true;
+			break;
+		case RESET:
+			reset(replayedStudent(entry[1]));
+			applied = true;
+			break;
+		case ASSIGN:
+			applied = addFaculty(registrar, replayedCourse(entry[2], entry[3]), replayedFaculty(entry[1]));
+			break;
+		case UNASSIGN:
+			applied = removeFaculty(registrar, replayedCourse(entry[2], entry[3]), replayedFaculty(entry[1]));
+			break;
+		case RESET_FACULTY:
+			resetFaculty(registrar, replayedFaculty(entry[1]));
+			applied = true;
+			break;
+		default:
+			// anything else is a change the catalog or a directory journaled
+			applied = courseCatalog.replay(entry) || studentDirectory.replay(entry) || facultyDirectory.replay(entry);
+		}
+		if (!applied) {
+			throw new IllegalArgumentException("Journal doesn't match the snapshot");
+		}
+	}
+
+	/**
+	 * Returns the student a journal entry is for
+	 * @param id the id of the student
+	 * @return the student
+	 * @throws IllegalArgumentException if there is no such student
+	 */
+	private Student replayedStudent(String id) {
+		Student s = studentDirectory.getStudentById(id);
+		if (s == null) {
+			throw new IllegalArgumentException("Journal doesn't match the snapshot");
+		}
+		return s;
+	}
+
+	/**
+	 * Returns the faculty a journal entry is for
+	 * @param id the id of the faculty
+	 * @return the faculty
+	 * @throws IllegalArgumentException if there is no such faculty
+	 */
+	private Faculty replayedFaculty(String id) {
+		Faculty f = facultyDirectory.getFacultyById(id);
+		if (f == null) {
+			throw new IllegalArgumentException("Journal doesn't match the snapshot");
+		}
+		return f;
+	}
+
+	/**
+	 * Returns the course a journal entry is for
+	 * @param name the name of the course
+	 * @param section the section of the course
+	 * @return the course
+	 * @throws IllegalArgumentException if there is no such course
+	 */
+	private Course replayedCourse(String name, String section) {
+		Course c = courseCatalog.getCourseFromCatalog(name, section);
+		if (c == null) {
+			throw new IllegalArgumentException("Journal doesn't match the snapshot");
+		}
+		return c;
+	}
+
 	/**
 	 * Logs in the current user
 	 * @param id the id of the current user
@@ -214,28 +645,146 @@ public class RegistrationManager {
 			return false;
 		}
 		
+		User user = await(authenticateAsync(id, password));
+		if (user != null) {
+			currentUser = user;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Opens a new session for a user. Unlike login(), any number of sessions can be
+	 * open at once, including several for the same user.
+	 * @param id the id of the user
+	 * @param password the password of the user
+	 * @return the new session, or null if the password is wrong
+	 * @throws IllegalArgumentException if the user doesn't exist or too many
+	 * 		users are logging in
+	 */
+	public Session openSession(String id, String password) {
+		return await(openSessionAsync(id, password));
+	}
+
+	/**
+	 * Opens a new session for a user without waiting for their password to be
+	 * checked. The future completes with the session, or null if the password
+	 * is wrong, and fails with an IllegalArgumentException if the user doesn't
+	 * exist or too many users are logging in.
+	 * @param id the id of the user
+	 * @param password the password of the user
+	 * @return the future session
+	 */
+	public CompletableFuture<Session> openSessionAsync(String id, String password) {
+		return authenticateAsync(id, password).thenApply(user -> {
+			if (user == null) {
+				return null;
+			}
+			Session session = new Session(UUID.randomUUID().toString(), user);
+			sessions.put(session.getToken(), session);
+			return session;
+		});
+	}
+
+	/**
+	 * Returns the open session with the given token
+	 * @param token the token of the session
+	 * @return the session, or null if there is no open session with the token
+	 */
+	public Session getSession(String token) {
+		if (token == null) {
+			return null;
+		}
+		return sessions.get(token);
+	}
+
+	/**
+	 * Closes a session so it can no longer be used
+	 * @param session the session to close
+	 */
+	public void closeSession(Session session) {
+		if (session != null) {
+			sessions.remove(session.getToken(), session);
+		}
+	}
+
+	/**
+	 * Returns the user of an open session
+	 * @param session the session
+	 * @return the user of the session
+	 * @throws IllegalArgumentException "Illegal Action" if the session isn't open
+	 */
+	private User getSessionUser(Session session) {
+		if (session == null || sessions.get(session.getToken()) != session) {
+			throw new IllegalArgumentException("Illegal Action");
+		}
+		return session.getUser();
+	}
+
+	/**
+	 * Checks a user's password on a login thread
+	 * @param id the id of the user
+	 * @param password the password of the user
+	 * @return the future user, or null if the password is wrong
+	 */
+	private CompletableFuture<User> authenticateAsync(String id, String password) {
+		try {
+			return CompletableFuture.supplyAsync(() -> authenticate(id, password), loginPool);
+		} catch (RejectedExecutionException e) {
+			CompletableFuture<User> rejected = new CompletableFuture<User>();
+			rejected.completeExceptionally(new IllegalArgumentException("Too many logins, try again later."));
+			return rejected;
+		}
+	}
+
+	/**
+	 * Waits for a login to be checked
+	 * @param <T> the type of the result
+	 * @param login the login being checked
+	 * @return the result of the login
+	 * @throws IllegalArgumentException if the login failed or the wait was
+	 * 		interrupted
+	 */
+	private static <T> T await(CompletableFuture<T> login) {
+		try {
+			return login.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalArgumentException("Cannot log in.");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalArgumentException("Cannot log in.");
+		}
+	}
+
+	/**
+	 * Finds the user with the given id and checks their password
+	 * @param id the id of the user
+	 * @param password the password of the user
+	 * @return the user, or null if the password is wrong
+	 * @throws IllegalArgumentException if the user doesn't exist
+	 */
+	private User authenticate(String id, String password) {
 		boolean isRegistrar = false;
 
-		String localHashPW = hashPW(password);
 		if (registrar.getId().equals(id)) {
 			isRegistrar = true;
-			if (registrar.getPassword().equals(localHashPW)) {
-				currentUser = registrar;
-				return true;
+			if (checkPassword(registrar, password)) {
+				return registrar;
 			}
 		}
 		
 	    if (!isRegistrar) {
 	        Faculty f = facultyDirectory.getFacultyById(id);
-	        if (f != null && f.getPassword().equals(localHashPW)) {
-	            currentUser = f;
-	            return true;
+	        if (f != null && checkPassword(f, password)) {
+	            return f;
 	        }
 
 	        Student s = studentDirectory.getStudentById(id);
-	        if (s != null && s.getPassword().equals(localHashPW)) {
-	            currentUser = s;
-	            return true;
+	        if (s != null && checkPassword(s, password)) {
+	            return s;
 	        }
 
 	        if (f == null && s == null) {
@@ -243,7 +792,31 @@ public class RegistrationManager {
 	        }
 	    }
 	    
-	    return false;
+	    return null;
+	}
+
+	/**
+	 * Checks a user's password, and if it is right but their hash is weaker
+	 * than the current scheme's, replaces the hash with one from the current
+	 * scheme. The hash is only replaced if nothing else changed it meanwhile.
+	 * @param user the user
+	 * @param password the password to check
+	 * @return true if the password is right
+	 */
+	private static boolean checkPassword(User user, String password) {
+		String stored = user.getPassword();
+		if (!PasswordHasher.matches(password, stored)) {
+			return false;
+		}
+		if (PasswordHasher.needsRehash(stored)) {
+			String rehashed = PasswordHasher.hash(password);
+			synchronized (user) {
+				if (stored.equals(user.getPassword())) {
+					user.setPassword(rehashed);
+				}
+			}
+		}
+		return true;
 	}
 	
 	/**
@@ -254,11 +827,47 @@ public class RegistrationManager {
 	 * @throws IllegalArgumentException if the currentUser isn't a Registrar
 	 */
 	public boolean addFacultyToCourse(Course c, Faculty f) {
-		if (!(currentUser instanceof Registrar)) {
+		return addFaculty(currentUser, c, f);
+	}
+
+	/**
+	 * Adds a faculty object to a course on behalf of a session
+	 * @param session the session of the registrar
+	 * @param c the course being added to the faculty's schedule
+	 * @param f the faculty being manipulated
+	 * @return whether the course can be added to the faculty's schedule
+	 * @throws IllegalArgumentException if the session isn't open or its user isn't a Registrar
+	 */
+	public boolean addFacultyToCourse(Session session, Course c, Faculty f) {
+		return addFaculty(getSessionUser(session), c, f);
+	}
+
+	/**
+	 * Adds a course to a faculty's schedule
+	 * @param user the user making the change
+	 * @param c the course being added to the faculty's schedule
+	 * @param f the faculty being manipulated
+	 * @return whether the course can be added to the faculty's schedule
+	 * @throws IllegalArgumentException if the user isn't a Registrar or the
+	 * 		change cannot be journaled
+	 */
+	private boolean addFaculty(User user, Course c, Faculty f) {
+		if (!(user instanceof Registrar)) {
 			throw new IllegalArgumentException();
 		}
 		
-		return f.getSchedule().addCourseToSchedule(c);
+		Journal j = journal;
+		long entry;
+		synchronized (f) {
+			synchronized (c) {
+				if (!f.getSchedule().addCourseToSchedule(c)) {
+					return false;
+				}
+				entry = Journal.appendTo(j, ASSIGN, f.getId(), c.getName(), c.getSection());
+			}
+		}
+		Journal.commitTo(j, entry);
+		return true;
 	}
 	
 	/**
@@ -269,11 +878,47 @@ public class RegistrationManager {
 	 * @throws IllegalArgumentException if the currentUser isn't a Registrar
 	 */
 	public boolean removeFacultyFromCourse(Course c, Faculty f) {
-		if (!(currentUser instanceof Registrar)) {
+		return removeFaculty(currentUser, c, f);
+	}
+
+	/**
+	 * Removes a faculty object from a course on behalf of a session
+	 * @param session the session of the registrar
+	 * @param c the course being removed from the faculty's schedule
+	 * @param f the faculty being manipulated
+	 * @return whether the course can be removed from the faculty's schedule
+	 * @throws IllegalArgumentException if the session isn't open or its user isn't a Registrar
+	 */
+	public boolean removeFacultyFromCourse(Session session, Course c, Faculty f) {
+		return removeFaculty(getSessionUser(session), c, f);
+	}
+
+	/**
+	 * Removes a course from a faculty's schedule
+	 * @param user the user making the change
+	 * @param c the course being removed from the faculty's schedule
+	 * @param f the faculty being manipulated
+	 * @return whether the course can be removed from the faculty's schedule
+	 * @throws IllegalArgumentException if the user isn't a Registrar or the
+	 * 		change cannot be journaled
+	 */
+	private boolean removeFaculty(User user, Course c, Faculty f) {
+		if (!(user instanceof Registrar)) {
 			throw new IllegalArgumentException();
 		}
 		
-		return f.getSchedule().removeCourseFromSchedule(c);
+		Journal j = journal;
+		long entry;
+		synchronized (f) {
+			synchronized (c) {
+				if (!f.getSchedule().removeCourseFromSchedule(c)) {
+					return false;
+				}
+				entry = Journal.appendTo(j, UNASSIGN, f.getId(), c.getName(), c.getSection());
+			}
+		}
+		Journal.commitTo(j, entry);
+		return true;
 	}
 	
 	/**
@@ -282,11 +927,47 @@ public class RegistrationManager {
 	 * @throws IllegalArgumentException if the currentUser isn't a Registrar
 	 */
 	public void resetFacultySchedule(Faculty f) {
-		if (!(currentUser instanceof Registrar)) {
+		resetFaculty(currentUser, f);
+	}
+
+	/**
+	 * Resets a faculty's schedule on behalf of a session
+	 * @param session the session of the registrar
+	 * @param f the faculty being manipulated
+	 * @throws IllegalArgumentException if the session isn't open or its user isn't a Registrar
+	 */
+	public void resetFacultySchedule(Session session, Faculty f) {
+		resetFaculty(getSessionUser(session), f);
+	}
+
+	/**
+	 * Resets a faculty's schedule, removing them from each course under that
+	 * course's lock. Each removal is journaled on its own, so it is ordered with
+	 * the other changes to its course.
+	 * @param user the user making the change
+	 * @param f the faculty being manipulated
+	 * @throws IllegalArgumentException if the user isn't a Registrar or the
+	 * 		change cannot be journaled
+	 */
+	private void resetFaculty(User user, Faculty f) {
+		if (!(user instanceof Registrar)) {
 			throw new IllegalArgumentException();
 		}
 		
-		f.getSchedule().resetSchedule();
+		Journal j = journal;
+		long entry;
+		synchronized (f) {
+			FacultySchedule schedule = f.getSchedule();
+			for (Course c : schedule.getCourses()) {
+				synchronized (c) {
+					schedule.removeCourseFromSchedule(c);
+					Journal.appendTo(j, UNASSIGN, f.getId(), c.getName(), c.getSection());
+				}
+			}
+			schedule.resetSchedule();
+			entry = Journal.appendTo(j, RESET_FACULTY, f.getId());
+		}
+		Journal.commitTo(j, entry);
 	}
 
 	/**
@@ -306,13 +987,16 @@ public class RegistrationManager {
 
 	/**
 	 * clears all data including the
-	 * course catalog, student directory, and current user
+	 * course catalog, student directory, current user, and open sessions,
+	 * and stops journaling changes
 	 */
 	public void clearData() {
+		closeJournal();
 		courseCatalog.newCourseCatalog();
 		studentDirectory.newStudentDirectory();
 		facultyDirectory.newFacultyDirectory();
 		this.currentUser = null;
+		sessions.clear();
 	}
 
 	/**
@@ -0,0 +1,44 @@
+package edu.ncsu.csc216.pack_scheduler.manager;
+
+import edu.ncsu.csc216.pack_scheduler.user.User;
+
+/**
+ * A logged in user's session with the RegistrationManager. Sessions are
+ * created by RegistrationManager.openSession() and identified by a random
+ * token, so any number of users can be logged in at the same time.
+ *
+ * @author Amulya Jose
+ */
+public class Session {
+
+	/** the unique token identifying the session */
+	private final String token;
+	/** the user the session acts on behalf of */
+	private final User user;
+
+	/**
+	 * Creates a session for a user that has already been authenticated
+	 * @param token the unique token identifying the session
+	 * @param user the user the session acts on behalf of
+	 */
+	Session(String token, User user) {
+		this.token = token;
+		this.user = user;
+	}
+
+	/**
+	 * Returns the unique token identifying the session
+	 * @return the token of the session
+	 */
+	public String getToken() {
+		return token;
+	}
+
+	/**
+	 * Returns the user the session acts on behalf of
+	 * @return the user of the session
+	 */
+	public User getUser() {
+		return user;
+	}
+}
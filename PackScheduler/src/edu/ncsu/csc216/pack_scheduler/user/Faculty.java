@@ -76,6 +76,7 @@ public class Faculty extends User {
 			throw new IllegalArgumentException("Invalid max courses");
 		}
 		this.maxCourses = maxCourses;
+		changed();
 	}
 	
 	
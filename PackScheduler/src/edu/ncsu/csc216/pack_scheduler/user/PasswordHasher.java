@@ -0,0 +1,118 @@
+package edu.ncsu.csc216.pack_scheduler.user;
+
+/**
+ * Hashes passwords for storage and checks passwords against stored hashes.
+ * New passwords are hashed with the current PasswordScheme, single-round
+ * SHA-256 unless another scheme is set. A stored hash is checked with the
+ * scheme that made it, so hashes made before the scheme changed keep working,
+ * and needsRehash() says when a hash should be made again with the current
+ * scheme once the password is known. A hash is never made again with a weaker
+ * scheme, so going back to SHA-256 doesn't undo the PBKDF2 hashes already made. Every scheme's hashes only use
+ * characters that can be copied safely into the record files.
+ *
+ * @author Amulya Jose
+ */
+public final class PasswordHasher {
+
+	/** The original scheme, which the passwords in old record files use */
+	private static final PasswordScheme SHA_256 = new Sha256Scheme();
+	/** Checks PBKDF2 hashes made with any number of iterations */
+	private static final PasswordScheme PBKDF2 = new Pbkdf2Scheme();
+	/** The scheme new passwords are hashed with */
+	private static volatile PasswordScheme scheme = SHA_256;
+
+	/**
+	 * PasswordHasher only has static methods
+	 */
+	private PasswordHasher() {
+	}
+
+	/**
+	 * Returns the scheme new passwords are hashed with
+	 * @return the current scheme
+	 */
+	public static PasswordScheme getScheme() {
+		return scheme;
+	}
+
+	/**
+	 * Sets the scheme new passwords are hashed with. Hashes already stored can
+	 * still be checked.
+	 * @param newScheme the scheme to hash with
+	 * @throws IllegalArgumentException if newScheme is null
+	 */
+	public static void setScheme(PasswordScheme newScheme) {
+		if (newScheme == null) {
+			throw new IllegalArgumentException("Invalid password scheme");
+		}
+		scheme = newScheme;
+	}
+
+	/**
+	 * Hashes a password for storage with the current scheme
+	 * @param password the password to hash
+	 * @return the hash of the password
+	 * @throws NullPointerException if password is null
+	 */
+	public static String hash(String password) {
+		return scheme.hash(password);
+	}
+
+	/**
+	 * Returns whether a password matches a stored hash, checking it with the
+	 * scheme that made the hash
+	 * @param password the password to check
+	 * @param storedHash the stored hash to check it against
+	 * @return true if the password matches the hash, and false if it doesn't
+	 * 		or no known scheme made the hash
+	 * @throws NullPointerException if password is null
+	 */
+	public static boolean matches(String password, String storedHash) {
+		PasswordScheme current = scheme;
+		if (current.isSchemeOf(storedHash)) {
+			return current.matches(password, storedHash);
+		}
+		if (SHA_256.isSchemeOf(storedHash)) {
+			return SHA_256.matches(password, storedHash);
+		}
+		if (PBKDF2.isSchemeOf(storedHash)) {
+			return PBKDF2.matches(password, storedHash);
+		}
+		return false;
+	}
+
+	/**
+	 * Returns whether a stored hash should be made again with the current
+	 * scheme, because it is weaker than the hashes the current scheme makes.
+	 * Only the original SHA-256 hashes are weaker than another scheme's, so a
+	 * hash made by any other scheme is kept when the current scheme differs.
+	 * @param storedHash the stored hash
+	 * @return true if the hash should be made again
+	 */
+	public static boolean needsRehash(String storedHash) {
+		PasswordScheme current = scheme;
+		if (current.isSchemeOf(storedHash)) {
+			return current.needsRehash(storedHash);
+		}
+		return SHA_256.isSchemeOf(storedHash);
+	}
+
+	/**
+	 * Returns whether two hashes are the same, taking the same time no matter
+	 * where they differ, so a login doesn't show how much of a guess was right.
+	 * The length of a hash isn't secret, so it is checked up front.
+	 * @param hash a hash of the password being checked
+	 * @param storedHash the stored hash to check it against
+	 * @return true if the hashes are the same
+	 */
+	public static boolean isEqual(String hash, String storedHash) {
+		if (hash == null || storedHash == null || hash.length() != storedHash.length()) {
+			return false;
+		}
+		int difference = 0;
+		for (int i = 0; i < hash.length(); i++) {
+			difference |= hash.charAt(i) ^ storedHash.charAt(i);
+		}
+		return difference == 0;
+	}
+}
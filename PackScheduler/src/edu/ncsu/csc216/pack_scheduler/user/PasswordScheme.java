@@ -0,0 +1,42 @@
+package edu.ncsu.csc216.pack_scheduler.user;
+
+/**
+ * A way of hashing passwords. A scheme's hashes carry whatever parameters are
+ * needed to check them, so hashes made with different schemes, or with the
+ * same scheme at different strengths, can be stored side by side and checked
+ * with the scheme that made them.
+ *
+ * @author Amulya Jose
+ */
+public interface PasswordScheme {
+
+	/**
+	 * Hashes a password for storage
+	 * @param password the password to hash
+	 * @return the hash, safe to store in a record file
+	 */
+	String hash(String password);
+
+	/**
+	 * Returns whether a password matches a hash this scheme made
+	 * @param password the password to check
+	 * @param storedHash the stored hash to check it against
+	 * @return true if the password matches the hash
+	 */
+	boolean matches(String password, String storedHash);
+
+	/**
+	 * Returns whether a stored hash was made by this scheme
+	 * @param storedHash the stored hash
+	 * @return true if this scheme can check the hash
+	 */
+	boolean isSchemeOf(String storedHash);
+
+	/**
+	 * Returns whether a hash made by this scheme is weaker than the hashes it
+	 * makes now and should be made again the next time the password is known
+	 * @param storedHash a hash made by this scheme
+	 * @return true if the hash should be made again
+	 */
+	boolean needsRehash(String storedHash);
+}
@@ -0,0 +1,183 @@
+package edu.ncsu.csc216.pack_scheduler.user;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Hashes passwords with PBKDF2 over HMAC-SHA256 and a random salt. Each hash
+ * is stored as
+ *
+ * <pre>
+ * pbkdf2-sha256$iterations$salt$key
+ * </pre>
+ *
+ * with the salt and key in base64, so a hash can always be checked no matter
+ * how many iterations the scheme uses now. Hashes made with fewer iterations
+ * than the scheme uses need to be made again.
+ *
+ * Each hash takes as long as the iterations make it, which is the point, so
+ * passwords should be checked off the threads that serve requests.
+ *
+ * @author Amulya Jose
+ */
+public class Pbkdf2Scheme implements PasswordScheme {
+
+	/** The iterations recommended for PBKDF2 with HMAC-SHA256 */
+	public static final int DEFAULT_ITERATIONS = 600000;
+	/** The name that starts every hash this scheme makes */
+	private static final String NAME = "pbkdf2-sha256";
+	/** The key derivation algorithm */
+	private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+	/** The length of the salt in bytes */
+	private static final int SALT_LENGTH = 16;
+	/** The length of the derived key in bits */
+	private static final int KEY_LENGTH = 256;
+	/** Makes the salts */
+	private static final SecureRandom RANDOM = new SecureRandom();
+	/** The number of iterations new hashes use */
+	private final int iterations;
+
+	/**
+	 * Creates a scheme that makes hashes with the recommended iterations
+	 */
+	public Pbkdf2Scheme() {
+		this(DEFAULT_ITERATIONS);
+	}
+
+	/**
+	 * Creates a scheme that makes hashes with the given iterations
+	 * @param iterations the number of iterations new hashes use
+	 * @throws IllegalArgumentException if iterations is less than 1
+	 */
+	public Pbkdf2Scheme(int iterations) {
+		if (iterations < 1) {
+			throw new IllegalArgumentException("Invalid iterations");
+		}
+		this.iterations = iterations;
+	}
+
+	/**
+	 * Returns the number of iterations new hashes use
+	 * @return the iterations
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * Hashes a password with a new salt
+	 * @param password the password to hash
+	 * @return the hash with its iterations and salt
+	 * @throws NullPointerException if password is null
+	 * @throws IllegalArgumentException "Cannot hash password" if the key
+	 * 		derivation algorithm isn't available
+	 */
+	@Override
+	public String hash(String password) {
+		byte[] salt = new byte[SALT_LENGTH];
+		RANDOM.nextBytes(salt);
+		byte[] key = derive(password, salt, iterations);
+		Base64.Encoder encoder = Base64.getEncoder();
+		return NAME + "$" + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(key);
+	}
+
+	/**
+	 * Returns whether a password matches a stored hash, using the iterations
+	 * and salt stored with it
+	 * @param password the password to check
+	 * @param storedHash the stored hash to check it against
+	 * @return true if the password matches the hash, and false if it doesn't or
+	 * 		the hash isn't one this scheme makes
+	 * @throws NullPointerException if password is null
+	 * @throws IllegalArgumentException "Cannot hash password" if the key
+	 * 		derivation algorithm isn't available
+	 */
+	@Override
+	public boolean matches(String password, String storedHash) {
+		String[] parts = split(storedHash);
+		if (parts == null) {
+			return false;
+		}
+		byte[] salt;
+		byte[] key;
+		try {
+			salt = Base64.getDecoder().decode(parts[2]);
+			key = Base64.getDecoder().decode(parts[3]);
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+		return MessageDigest.isEqual(key, derive(password, salt, Integer.parseInt(parts[1])));
+	}
+
+	/**
+	 * Returns whether a stored hash was made by this scheme
+	 * @param storedHash the stored hash
+	 * @return true if the hash is a PBKDF2 hash
+	 */
+	@Override
+	public boolean isSchemeOf(String storedHash) {
+		return split(storedHash) != null;
+	}
+
+	/**
+	 * Returns whether a stored hash uses fewer iterations than new hashes do
+	 * @param storedHash a hash made by this scheme
+	 * @return true if the hash should be made again
+	 */
+	@Override
+	public boolean needsRehash(String storedHash) {
+		String[] parts = split(storedHash);
+		return parts == null || Integer.parseInt(parts[1]) < iterations;
+	}
+
+	/**
+	 * Splits a stored hash into its name, iterations, salt and key
+	 * @param storedHash the stored hash
+	 * @return the parts of the hash, or null if it isn't a PBKDF2 hash
+	 */
+	private static String[] split(String storedHash) {
+		if (storedHash == null || !storedHash.startsWith(NAME + "$")) {
+			return null;
+		}
+		String[] parts = storedHash.split("\\$", -1);
+		if (parts.length != 4 || parts[2].isEmpty() || parts[3].isEmpty()) {
+			return null;
+		}
+		try {
+			if (Integer.parseInt(parts[1]) < 1) {
+				return null;
+			}
+		} catch (NumberFormatException e) {
+			return null;
+		}
+		return parts;
+	}
+
+	/**
+	 * Derives the key for a password, clearing the copy of the password it makes
+	 * @param password the password
+	 * @param salt the salt
+	 * @param iterations the number of iterations
+	 * @return the derived key
+	 * @throws IllegalArgumentException "Cannot hash password" if the key
+	 * 		derivation algorithm isn't available
+	 */
+	private static byte[] derive(String password, byte[] salt, int iterations) {
+		char[] chars = password.toCharArray();
+		PBEKeySpec spec = new PBEKeySpec(chars, salt, iterations, KEY_LENGTH);
+		try {
+			return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+		} catch (GeneralSecurityException e) {
+			throw new IllegalArgumentException("Cannot hash password");
+		} finally {
+			spec.clearPassword();
+			Arrays.fill(chars, '\0');
+		}
+	}
+}
@@ -0,0 +1,147 @@
+package edu.ncsu.csc216.pack_scheduler.user;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * The original password scheme: one round of SHA-256 over the UTF-8 bytes of
+ * the password, stored as the base64 digest with nothing else. It is fast, so
+ * it has no parameters to raise, but it isn't salted, and it is kept so the
+ * passwords already in the record files can still be checked.
+ *
+ * Creating a MessageDigest looks the algorithm up in the security providers,
+ * so each thread keeps its own digest and buffer and reuses them for every
+ * password it hashes. The password is encoded straight into the buffer rather
+ * than into a new byte array, and the buffer is cleared afterwards.
+ *
+ * @author Amulya Jose
+ */
+public class Sha256Scheme implements PasswordScheme {
+
+	/** Hashing algorithm */
+	private static final String HASH_ALGORITHM = "SHA-256";
+	/** The size of the buffer a password is first encoded into */
+	private static final int BUFFER_SIZE = 64;
+	/** The length of a base64 encoded SHA-256 digest */
+	private static final int HASH_LENGTH = 44;
+	/** Each thread's digest and buffer */
+	private static final ThreadLocal<Hasher> HASHERS = ThreadLocal.withInitial(Hasher::new);
+
+	/**
+	 * Hashes a password as its base64 encoded SHA-256 digest
+	 * @param password the password to hash
+	 * @return the base64 encoded digest of the password
+	 * @throws NullPointerException if password is null
+	 */
+	@Override
+	public String hash(String password) {
+		return Base64.getEncoder().encodeToString(HASHERS.get().digest(password));
+	}
+
+	/**
+	 * Returns whether a password hashes to a stored hash
+	 * @param password the password to check
+	 * @param storedHash the stored hash to check it against
+	 * @return true if the password matches the hash
+	 * @throws NullPointerException if password is null
+	 */
+	@Override
+	public boolean matches(String password, String storedHash) {
+		return PasswordHasher.isEqual(hash(password), storedHash);
+	}
+
+	/**
+	 * Returns whether a stored hash is a base64 SHA-256 digest
+	 * @param storedHash the stored hash
+	 * @return true if this scheme made the hash
+	 */
+	@Override
+	public boolean isSchemeOf(String storedHash) {
+		return storedHash != null && storedHash.length() == HASH_LENGTH && storedHash.indexOf('$') < 0;
+	}
+
+	/**
+	 * SHA-256 has no parameters, so its hashes never need to be made again
+	 * @param storedHash the stored hash
+	 * @return false
+	 */
+	@Override
+	public boolean needsRehash(String storedHash) {
+		return false;
+	}
+
+	/**
+	 * One thread's digest and buffer
+	 */
+	private static class Hasher {
+		/** the digest */
+		private final MessageDigest digest;
+		/** holds the encoded password, grown for long passwords */
+		private byte[] buffer = new byte[BUFFER_SIZE];
+
+		/**
+		 * Creates a hasher for the current thread
+		 * @throws IllegalArgumentException "Cannot hash password" if the hash
+		 * 		algorithm isn't available
+		 */
+		Hasher() {
+			try {
+				digest = MessageDigest.getInstance(HASH_ALGORITHM);
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalArgumentException("Cannot hash password");
+			}
+		}
+
+		/**
+		 * Returns the digest of a password
+		 * @param password the password to hash
+		 * @return the digest
+		 */
+		byte[] digest(String password) {
+			int length = encode(password);
+			digest.update(buffer, 0, length);
+			Arrays.fill(buffer, 0, length, (byte) 0);
+			return digest.digest();
+		}
+
+		/**
+		 * Encodes a password into the buffer as UTF-8, the same bytes
+		 * getBytes(StandardCharsets.UTF_8) returns. A surrogate that isn't part
+		 * of a pair is encoded as '?'.
+		 * @param password the password to encode
+		 * @return the number of bytes in the buffer
+		 */
+		private int encode(String password) {
+			int length = password.length();
+			if (length * 3 > buffer.length) {
+				buffer = new byte[length * 3];
+			}
+			int n = 0;
+			for (int i = 0; i < length; i++) {
+				char c = password.charAt(i);
+				if (c < 0x80) {
+					buffer[n++] = (byte) c;
+				} else if (c < 0x800) {
+					buffer[n++] = (byte) (0xc0 | c >> 6);
+					buffer[n++] = (byte) (0x80 | c & 0x3f);
+				} else if (Character.isHighSurrogate(c) && i + 1 < length
+						&& Character.isLowSurrogate(password.charAt(i + 1))) {
+					int cp = Character.toCodePoint(c, password.charAt(++i));
+					buffer[n++] = (byte) (0xf0 | cp >> 18);
+					buffer[n++] = (byte) (0x80 | cp >> 12 & 0x3f);
+					buffer[n++] = (byte) (0x80 | cp >> 6 & 0x3f);
+					buffer[n++] = (byte) (0x80 | cp & 0x3f);
+				} else if (Character.isSurrogate(c)) {
+					buffer[n++] = '?';
+				} else {
+					buffer[n++] = (byte) (0xe0 | c >> 12);
+					buffer[n++] = (byte) (0x80 | c >> 6 & 0x3f);
+					buffer[n++] = (byte) (0x80 | c & 0x3f);
+				}
+			}
+			return n;
+		}
+	}
+}
@@ -22,6 +22,9 @@ public class Student extends User implements Comparable<Student> {
 	/** The student's schedule */
 	private Schedule schedule;
 
+	/** The student's seniority, such as their class standing, higher is more senior */
+	private int seniority;
+
 	/**
 	 * constructor for Student with maxCredits
 	 * 
@@ -74,6 +77,32 @@ public class Student extends User implements Comparable<Student> {
 			throw new IllegalArgumentException("Invalid max credits");
 		}
 		this.maxCredits = maxCredits;
+		changed();
+	}
+
+	/**
+	 * getter method for seniority
+	 * 
+	 * @return the seniority
+	 */
+	public int getSeniority() {
+		return seniority;
+	}
+
+	/**
+	 * setter method for seniority. Senior students are ahead of others on
+	 * course waitlists.
+	 * 
+	 * @param seniority the seniority to set, higher is more senior
+	 * 
+	 * @throws IllegalArgumentException "Invalid seniority" if seniority is negative
+	 */
+	public void setSeniority(int seniority) {
+		if (seniority < 0) {
+			throw new IllegalArgumentException("Invalid seniority");
+		}
+		this.seniority = seniority;
+		changed();
 	}
 
 	/**
@@ -113,13 +142,15 @@ public class Student extends User implements Comparable<Student> {
 	/**
 	 * gives a string representation of the class's fields as follows:
 	 * firstName,lastName,id,email,password,maxCredits
+	 * followed by ,seniority if the student has one
 	 * 
 	 * @return a string representation of this class
 	 */
 	@Override
 	public String toString() {
-		return getFirstName() + "," + getLastName() + "," + getId() + "," + getEmail()
+		String s = getFirstName() + "," + getLastName() + "," + getId() + "," + getEmail()
 				+ "," + getPassword() + "," + getMaxCredits();
+		return seniority == 0 ? s : s + "," + seniority;
 	}
 
 	/**
@@ -24,6 +24,8 @@ public abstract class User {
 	private String email;
 	/** the user's password */
 	private String password;
+	/** counts the changes to the fields in the user's record */
+	private volatile int version;
 
 	/**
 	 * creates a user with the given parameters
@@ -42,6 +44,23 @@ public abstract class User {
 		setPassword(hashPW);
 	}
 
+	/**
+	 * Returns a number that changes every time a field in the user's record
+	 * changes, so a save can tell which records need to be written again
+	 * 
+	 * @return the version of the user's record
+	 */
+	public int getVersion() {
+		return version;
+	}
+
+	/**
+	 * Marks the user's record as changed
+	 */
+	protected void changed() {
+		version++;
+	}
+
 	/**
 	 * getter method for first name
 	 * 
@@ -63,6 +82,7 @@ public abstract class User {
 			throw new IllegalArgumentException("Invalid first name");
 		}
 		this.firstName = firstName;
+		changed();
 	}
 
 	/**
@@ -86,6 +106,7 @@ public abstract class User {
 			throw new IllegalArgumentException("Invalid last name");
 		}
 		this.lastName = lastName;
+		changed();
 	}
 
 	/**
@@ -109,6 +130,7 @@ public abstract class User {
 			throw new IllegalArgumentException("Invalid id");
 		}
 		this.id = id;
+		changed();
 	}
 
 	/**
@@ -156,6 +178,7 @@ public abstract class User {
 		}
 
 		this.email = email;
+		changed();
 	}
 
 	/**
@@ -179,6 +202,7 @@ public abstract class User {
 			throw new IllegalArgumentException("Invalid password");
 		}
 		this.password = password;
+		changed();
 	}
 
 	/**
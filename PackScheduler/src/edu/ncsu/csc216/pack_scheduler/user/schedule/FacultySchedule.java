@@ -30,12 +30,12 @@ public class FacultySchedule {
 	 * @return true if added
 	 */
 	public boolean addCourseToSchedule(Course course) {
-		for (int i = 0; i < schedule.size(); i++) {
-			if (schedule.get(i).isDuplicate(course) && schedule.get(i).getSection().equals(course.getSection())) {
+		for (Course scheduled : schedule) {
+			if (scheduled.isDuplicate(course) && scheduled.getSection().equals(course.getSection())) {
 				throw new IllegalArgumentException("Already assigned " + course.getName());
 			}
 			try {
-				schedule.get(i).checkConflict(course);
+				scheduled.checkConflict(course);
 			} catch (ConflictException e) {
 				throw new IllegalArgumentException("The course cannot be assigned due to a conflict.");
 			}
@@ -79,12 +79,26 @@ public class FacultySchedule {
 	 */
 	public String[][] getScheduledCourses() {
 		String [][] scheduleArray = new String[schedule.size()][4];
-		for (int i = 0; i < schedule.size(); i++) {
-			scheduleArray[i] = schedule.get(i).getShortDisplayArray();
+		int i = 0;
+		for (Course scheduled : schedule) {
+			scheduleArray[i++] = scheduled.getShortDisplayArray();
 		}
 		return scheduleArray;
 	}
 	
+	/**
+	 * Returns the scheduled Courses, in the order they were added.
+	 * @return the scheduled Courses
+	 */
+	public Course[] getCourses() {
+		Course[] courses = new Course[schedule.size()];
+		int i = 0;
+		for (Course scheduled : schedule) {
+			courses[i++] = scheduled;
+		}
+		return courses;
+	}
+	
 	/**
 	 * Returns the number of courses the faculty is scheduled to teach.
 	 * @return num courses
@@ -132,6 +132,19 @@ public class Schedule {
         return ret;
     }
 
+    /**
+     * Returns the courses in the schedule, in the order they were added
+     * 
+     * @return the scheduled courses
+     */
+    public Course[] getCourses() {
+        Course[] courses = new Course[schedule.size()];
+        for (int i = 0; i < schedule.size(); i++) {
+            courses[i] = schedule.get(i);
+        }
+        return courses;
+    }
+
     /**
      * Sets the title of the schedule
      * 
@@ -0,0 +1,164 @@
+package edu.ncsu.csc216.pack_scheduler.util;
+
+import java.util.Collection;
+import java.util.HashSet;
+
+/**
+ * An ArrayList that also keeps its elements in a hash set, so checking for a
+ * duplicate when an element is added or set takes the same time however long
+ * the list is, rather than a pass over the whole list. It turns away the same
+ * duplicates ArrayList does.
+ *
+ * The set finds elements by their hash code, so an element must not change in
+ * a way that changes its equals() or hashCode() while it is in the list. Use
+ * ArrayList for elements that do.
+ * @param <E> the type of element in the list
+ * @author Amulya Jose
+ */
+public class ArrayHashList<E> extends ArrayList<E> {
+
+	/** The elements of the list */
+	private final HashSet<E> elements;
+
+	/**
+	 * Constructs an empty ArrayHashList
+	 */
+	public ArrayHashList() {
+		super();
+		elements = new HashSet<E>();
+	}
+
+	/**
+	 * Constructs an ArrayHashList with room for the given number of elements
+	 * before it has to grow
+	 * @param capacity the number of elements the list can hold before it grows
+	 * @throws IllegalArgumentException if capacity is negative
+	 */
+	public ArrayHashList(int capacity) {
+		super(capacity);
+		elements = new HashSet<E>(Math.max(16, (int) (capacity / 0.75f) + 1));
+	}
+
+	/**
+	 * Adds an element to the specified index
+	 * @param index the index to add the element at
+	 * @param element the element to add
+	 * @throws NullPointerException if element is null
+	 * @throws IndexOutOfBoundsException if
+	 * 		index greater than size
+	 * 		index less than 0
+	 * @throws IllegalArgumentException if there is another element in the list equal to this
+	 */
+	@Override
+	public void add(int index, E element) {
+		super.add(index, element);
+		elements.add(element);
+	}
+
+	/**
+	 * Adds all the elements of a collection at the specified index, in the
+	 * order the collection returns them. Nothing is added if any element can't be.
+	 * @param index the index to add the first element at
+	 * @param c the elements to add
+	 * @return true if the list changed
+	 * @throws NullPointerException if c or any of its elements is null
+	 * @throws IndexOutOfBoundsException if
+	 * 		index greater than size
+	 * 		index less than 0
+	 * @throws IllegalArgumentException if any of the elements are equal to each
+	 * 		other or to an element in the list
+	 */
+	@Override
+	public boolean addAll(int index, Collection<? extends E> c) {
+		int before = size();
+		if (!super.addAll(index, c)) {
+			return false;
+		}
+		for (int i = index; i < index + size() - before; i++) {
+			elements.add(get(i));
+		}
+		return true;
+	}
+
+	/**
+	 * Removes the element at the index
+	 * @param index the index of the element to remove
+	 * @return the element that was removed
+	 * @throws IndexOutOfBoundsException if
+	 * 		index less than 0 or
+	 * 		index greater than or equal to size
+	 */
+	@Override
+	public E remove(int index) {
+		E element = super.remove(index);
+		elements.remove(element);
+		return element;
+	}
+
+	/**
+	 * Removes the elements from fromIndex up to but not including toIndex
+	 * @param fromIndex the index of the first element to remove
+	 * @param toIndex the index after the last element to remove
+	 * @throws IndexOutOfBoundsException if
+	 * 		fromIndex less than 0 or
+	 * 		toIndex greater than size or
+	 * 		fromIndex greater than toIndex
+	 */
+	@Override
+	public void removeRange(int fromIndex, int toIndex) {
+		if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (fromIndex == 0 && toIndex == size()) {
+			elements.clear();
+		} else {
+			for (int i = fromIndex; i < toIndex; i++) {
+				elements.remove(get(i));
+			}
+		}
+		super.removeRange(fromIndex, toIndex);
+	}
+
+	/**
+	 * Sets the element at the index
+	 * @param index the index of the element to set
+	 * @param element the element the index should be set to
+	 * @return the element previously at the specified position
+	 * @throws NullPointerException if element is null
+	 * @throws IndexOutOfBoundsException if 
+	 * 		index greater than or equal to size or
+	 * 		index less than 0
+	 * @throws IllegalArgumentException if there is another element in the list equal to this
+	 */
+	@Override
+	public E set(int index, E element) {
+		E old = super.set(index, element);
+		elements.remove(old);
+		elements.add(element);
+		return old;
+	}
+
+	/**
+	 * Returns whether the list holds an element equal to o
+	 * @param o the element to look for
+	 * @return true if an element in the list is equal to o
+	 */
+	@Override
+	public boolean contains(Object o) {
+		return o != null && elements.contains(o);
+	}
+
+	/**
+	 * Returns the index of the first element equal to o, without looking
+	 * through the list if there isn't one
+	 * @param o the element to look for
+	 * @return the index of the element, or -1 if no element is equal to o
+	 */
+	@Override
+	public int indexOf(Object o) {
+		if (!contains(o)) {
+			return -1;
+		}
+		return super.indexOf(o);
+	}
+}
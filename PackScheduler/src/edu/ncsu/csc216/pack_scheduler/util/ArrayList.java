@@ -1,10 +1,17 @@
 package edu.ncsu.csc216.pack_scheduler.util;
 
 import java.util.AbstractList;
+import java.util.Collection;
+import java.util.HashSet;
 
 /**
  * Stores data in an array
  * allows for variable sizes
+ * 
+ * The array doubles when it fills, and elements are shifted with
+ * System.arraycopy(). addAll() and removeRange() shift the elements after
+ * them once however many elements they add or remove, so building a list in
+ * bulk takes time in proportion to its length.
  * @param <E> the type of ArrayList
  * @author Amulya Jose
  * @author William Walton
@@ -21,10 +28,23 @@ public class ArrayList<E> extends AbstractList<E> {
 	/**
 	 * Constructs an ArrayList
 	 */
-	@SuppressWarnings("unchecked")
 	public ArrayList() {
+		this(INIT_SIZE);
+	}
+
+	/**
+	 * Constructs an ArrayList with room for the given number of elements
+	 * before its array has to grow
+	 * @param capacity the number of elements the list can hold before it grows
+	 * @throws IllegalArgumentException if capacity is negative
+	 */
+	@SuppressWarnings("unchecked")
+	public ArrayList(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Invalid capacity");
+		}
 		size = 0;
-		list = (E[]) new Object[INIT_SIZE];
+		list = (E[]) new Object[capacity];
 	}
 	
 	/**
@@ -41,33 +61,110 @@ public class ArrayList<E> extends AbstractList<E> {
 			throw new NullPointerException();
 		}
 		if (size() == list.length) {
-			growArray();
+			growArray(size + 1);
 		}
 		if (index < 0 || index > size()) {
 			throw new IndexOutOfBoundsException();
 		}
-		for (E otherElement : this) {
-			if (element.equals(otherElement)) {
+		if (contains(element)) {
+			throw new IllegalArgumentException();
+		}
+		System.arraycopy(list, index, list, index + 1, size - index);
+		list[index] = element;
+		size++;
+	}
+
+	/**
+	 * Adds all the elements of a collection to the end of the list
+	 * @param c the elements to add
+	 * @return true if the list changed
+	 * @throws NullPointerException if c or any of its elements is null
+	 * @throws IllegalArgumentException if any of the elements are equal to each
+	 * 		other or to an element in the list
+	 */
+	@Override
+	public boolean addAll(Collection<? extends E> c) {
+		return addAll(size, c);
+	}
+
+	/**
+	 * Adds all the elements of a collection at the specified index, in the
+	 * order the collection returns them. The elements after the index are
+	 * shifted once. Nothing is added if any element can't be.
+	 * @param index the index to add the first element at
+	 * @param c the elements to add
+	 * @return true if the list changed
+	 * @throws NullPointerException if c or any of its elements is null
+	 * @throws IndexOutOfBoundsException if
+	 * 		index greater than size
+	 * 		index less than 0
+	 * @throws IllegalArgumentException if any of the elements are equal to each
+	 * 		other or to an element in the list
+	 */
+	@Override
+	public boolean addAll(int index, Collection<? extends E> c) {
+		if (index < 0 || index > size()) {
+			throw new IndexOutOfBoundsException();
+		}
+		Object[] added = c.toArray();
+		HashSet<Object> newElements = new HashSet<Object>();
+		for (Object element : added) {
+			if (element == null) {
+				throw new NullPointerException();
+			}
+			if (!newElements.add(element)) {
 				throw new IllegalArgumentException();
 			}
 		}
-		for (int i = size(); i > index; i--) {
-			list[i] = list[i - 1];
+		for (int i = 0; i < size; i++) {
+			if (newElements.contains(list[i])) {
+				throw new IllegalArgumentException();
+			}
+		}
+		if (added.length == 0) {
+			return false;
+		}
+		ensureCapacity(size + added.length);
+		System.arraycopy(list, index, list, index + added.length, size - index);
+		System.arraycopy(added, 0, list, index, added.length);
+		size += added.length;
+		return true;
+	}
+
+	/**
+	 * Makes sure the array can hold at least the given number of elements
+	 * without growing again
+	 * @param minCapacity the number of elements the array should hold
+	 */
+	public void ensureCapacity(int minCapacity) {
+		if (minCapacity > list.length) {
+			growArray(minCapacity);
+		}
+	}
+
+	/**
+	 * Shrinks the array to the size of the list
+	 */
+	@SuppressWarnings("unchecked")
+	public void trimToSize() {
+		if (size < list.length) {
+			E[] newList = (E[]) new Object[size];
+			System.arraycopy(list, 0, newList, 0, size);
+			list = newList;
 		}
-		list[index] = element;
-		size++;
 	}
 	
 	/**
-	 * Doubles the length of the array. Has to have an unchecked warning because of construction
+	 * Doubles the length of the array, or grows it to minCapacity if that is
+	 * more. Has to have an unchecked warning because of construction
 	 * of new array
+	 * @param minCapacity the number of elements the array has to hold
 	 */
 	@SuppressWarnings("unchecked")
-	private void growArray() {
-		E[] newList = (E[]) new Object[size * 2];
-		for (int i = 0; i < size(); i++) {
-			newList[i] = list[i];
-		}
+	private void growArray(int minCapacity) {
+		int length = Math.max(Math.max(list.length * 2, INIT_SIZE), minCapacity);
+		E[] newList = (E[]) new Object[length];
+		System.arraycopy(list, 0, newList, 0, size);
 		list = newList;
 	}
 	
@@ -85,13 +182,34 @@ public class ArrayList<E> extends AbstractList<E> {
 			throw new IndexOutOfBoundsException();
 		}
 		E element = list[index];
-		for (int i = index; i < size - 1; i++) {
-			list[i] = list[i + 1];
-		}
+		System.arraycopy(list, index + 1, list, index, size - index - 1);
 		list[size() - 1] = null;
 		size--;
 		return element;
 	}
+
+	/**
+	 * Removes the elements from fromIndex up to but not including toIndex,
+	 * shifting the elements after them once
+	 * @param fromIndex the index of the first element to remove
+	 * @param toIndex the index after the last element to remove
+	 * @throws IndexOutOfBoundsException if
+	 * 		fromIndex less than 0 or
+	 * 		toIndex greater than size or
+	 * 		fromIndex greater than toIndex
+	 */
+	@Override
+	public void removeRange(int fromIndex, int toIndex) {
+		if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+			throw new IndexOutOfBoundsException();
+		}
+		System.arraycopy(list, toIndex, list, fromIndex, size - toIndex);
+		int newSize = size - (toIndex - fromIndex);
+		for (int i = newSize; i < size; i++) {
+			list[i] = null;
+		}
+		size = newSize;
+	}
 	
 	/**
 	 * Sets the element at the index
@@ -111,16 +229,43 @@ public class ArrayList<E> extends AbstractList<E> {
 		if (index < 0 || index >= size()) {
 			throw new IndexOutOfBoundsException();
 		}
-		for (E otherElement : this) {
-			if (element.equals(otherElement)) {
-				throw new IllegalArgumentException();
-			}
+		if (contains(element)) {
+			throw new IllegalArgumentException();
 		}
 		E otherElement = list[index];
 		list[index] = element;
 		return otherElement;
 	}
 
+	/**
+	 * Returns whether the list holds an element equal to o. add() and set()
+	 * use this to turn away duplicates.
+	 * @param o the element to look for
+	 * @return true if an element in the list is equal to o
+	 */
+	@Override
+	public boolean contains(Object o) {
+		return indexOf(o) >= 0;
+	}
+
+	/**
+	 * Returns the index of the first element equal to o
+	 * @param o the element to look for
+	 * @return the index of the element, or -1 if no element is equal to o
+	 */
+	@Override
+	public int indexOf(Object o) {
+		if (o == null) {
+			return -1;
+		}
+		for (int i = 0; i < size; i++) {
+			if (o.equals(list[i])) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
 	/**
 	 * Gets the size of the array
 	 * @return size the size of the array
@@ -3,45 +3,68 @@ package edu.ncsu.csc216.pack_scheduler.util;
 import java.util.NoSuchElementException;
 
 /**
- * ArrayQueue should have a field of type ArrayList. 
- * ArrayQueue will construct an ArrayList and delegate to the ArrayList.
+ * ArrayQueue stores its elements in a circular array. The front of the queue
+ * is at index head and new elements go in at index tail, both wrapping around
+ * the end of the array, so enqueue and dequeue never shift elements.
+ * The array starts small and doubles as needed, up to the capacity.
  * @param <E> the type of element being stored in the queue
  * @author Carter Gentile
  */
 
 public class ArrayQueue<E> implements Queue<E> {
-	/** A list to be used as a queue */
-	private ArrayList<E> list;
-	
+	/** The length the array starts at when the capacity allows it */
+	private static final int INIT_SIZE = 10;
+
+	/** The circular array holding the elements of the queue */
+	private E[] elements;
+
+	/** Index of the front of the queue */
+	private int head;
+
+	/** Index the next enqueued element is stored at */
+	private int tail;
+
+	/** The number of elements in the queue */
+	private int size;
+
 	/** This is the capacity of the list*/
 	private int capacity;
-	
+
 	/**
 	 * This is the constructor of the ArrayQueue class
-	 * It creates the list and sets the size 
+	 * It creates the list and sets the size
 	 * of that list to being capacity.
-	 * 
+	 *
 	 * @param capacity for the capacity of the list.
 	 */
+	@SuppressWarnings("unchecked")
 	public ArrayQueue(int capacity) {
-	    list = new ArrayList<E>();
 	    setCapacity(capacity);
+	    elements = (E[]) new Object[Math.min(capacity, INIT_SIZE)];
 	}
 
 	/**
 	 * Adds the element to the back of the Queue
 	 * @param element The element to be added to the queue
+	 * @throws NullPointerException if the element is null
 	 * @throws IllegalArgumentException if the size is equal to or greater than the capacity
 	 */
 	@Override
 	public void enqueue(E element) {
-		if (list.size() >= capacity) {
+		if (element == null) {
+			throw new NullPointerException();
+		}
+		if (size >= capacity) {
 			throw new IllegalArgumentException("There is no more room in the list");
 		}
-		list.add(list.size(), element);
-		
+		if (size == elements.length) {
+			growArray();
+		}
+		elements[tail] = element;
+		tail = next(tail);
+		size++;
 	}
-	
+
 	/**
 	 * Removes and returns the element at the front of the Queue
 	 * @return returns the element at the front
@@ -49,10 +72,13 @@ public class ArrayQueue<E> implements Queue<E> {
 	 */
 	@Override
 	public E dequeue() {
-		if (list.isEmpty()) {
+		if (isEmpty()) {
 			throw new NoSuchElementException();
 		}
-		E element = list.remove(0);
+		E element = elements[head];
+		elements[head] = null;
+		head = next(head);
+		size--;
 		return element;
 	}
 
@@ -62,7 +88,7 @@ public class ArrayQueue<E> implements Queue<E> {
 	 */
 	@Override
 	public boolean isEmpty() {
-		return list.size() == 0;
+		return size == 0;
 	}
 
 	/**
@@ -71,7 +97,7 @@ public class ArrayQueue<E> implements Queue<E> {
 	 */
 	@Override
 	public int size() {
-        return list.size();
+        return size;
 	}
 
 
@@ -79,30 +105,56 @@ public class ArrayQueue<E> implements Queue<E> {
 	 * Sets the queues capacity
 	 * If the actual parameter is negative or if it is less than the number
 	 *  of elements in the Queue, an 1IllegalArgumentException is thrown
-	 * @param capacity The capacity that the queue is at 
+	 * @param capacity The capacity that the queue is at
 	 * @throws IllegalArgumentException if the actual parameter is negative or if it
 	 */
 	@Override
 	public void setCapacity(int capacity) {
-	    if (capacity < 0 || capacity < list.size()) {
+	    if (capacity < 0 || capacity < size) {
 	        throw new IllegalArgumentException("Invalid capacity");
 	    }
 	    this.capacity = capacity;
 	}
-	
+
 	/**
 	 * Returns true if the element is in the list and otherwise false
 	 * @param element the element to check if it is in the list
 	 * @return true if the element is in the list and otherwise false
 	 */
 	public boolean contains(E element) {
-		for (int i = 0; i < list.size(); i++) {
-			if (element.equals(list.get(i))) {
+		for (int i = 0, index = head; i < size; i++, index = next(index)) {
+			if (element.equals(elements[index])) {
 				return true;
 			}
 		}
 		return false;
 	}
 
+	/**
+	 * Returns the index after the given one, wrapping around to the start of the array
+	 * @param index the index to move on from
+	 * @return the next index in the circular array
+	 */
+	private int next(int index) {
+		index++;
+		return index == elements.length ? 0 : index;
+	}
+
+	/**
+	 * Doubles the length of the array, without going past the capacity, and
+	 * unwraps the elements so the front of the queue is at index 0
+	 */
+	@SuppressWarnings("unchecked")
+	private void growArray() {
+		int length = (int) Math.min((long) capacity, Math.max(1L, elements.length * 2L));
+		E[] newElements = (E[]) new Object[length];
+		int firstPart = Math.min(size, elements.length - head);
+		System.arraycopy(elements, head, newElements, 0, firstPart);
+		System.arraycopy(elements, 0, newElements, firstPart, size - firstPart);
+		elements = newElements;
+		head = 0;
+		tail = size == length ? 0 : size;
+	}
+
 
 }
@@ -1,10 +1,19 @@
 package edu.ncsu.csc216.pack_scheduler.util;
 
 import java.util.AbstractList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * Stores data in a list of elements that consist of the actual list data and the location of 
  * the next element in the list
+ * 
+ * The list remembers the last node it reached by index, so a loop that gets
+ * or sets elements in order walks on from there instead of from the front
+ * each time, and adding at the end goes straight to the back node. The
+ * iterator walks the nodes directly and fails fast if the list is changed
+ * other than through it.
  * @param <E> the type of element stored in the list
  * @author William Walton
  * @author Amulya Jose
@@ -23,9 +32,12 @@ public class LinkedAbstractList<E> extends AbstractList<E> {
 	
     /** The last node in the list */
     private ListNode back;
-    
-	
-	
+
+	/** The last node reached by index, or null if there isn't one */
+	private ListNode cursor;
+
+	/** The index of the cursor node */
+	private int cursorIndex;
 
 	/**
 	 * Constructs a LinkedAbstractList
@@ -66,10 +78,8 @@ public class LinkedAbstractList<E> extends AbstractList<E> {
 		if (index < 0 || index > size()) {
 			throw new IndexOutOfBoundsException();
 		}
-		for (E otherElement : this) {
-			if (element.equals(otherElement)) {
-				throw new IllegalArgumentException();
-			}
+		if (contains(element)) {
+			throw new IllegalArgumentException();
 		}
 		if (size == capacity) {
 			throw new IllegalArgumentException();
@@ -80,27 +90,18 @@ public class LinkedAbstractList<E> extends AbstractList<E> {
 	        if (back == null) {
 	            back = front; 
 	        }
-	    } else if (index == size) {
-	        if (back == null) {
-	            front = new ListNode(element, front);
-	            back = front;
-	        } else {
-	            back.next = new ListNode(element);
-	            back = back.next;
+	        if (cursor != null) {
+	            cursorIndex++;
 	        }
+	    } else if (index == size) {
+	        back.next = new ListNode(element);
+	        back = back.next;
 		} else {
-			ListNode current = front;
-			
-			for (int i = 0; i < index - 1; i++) {
-				current = current.next;
-			}
-			
+			ListNode current = nodeAt(index - 1);
 			current.next = new ListNode(element, current.next);
-	        if (current.next.next == null) {
-	            back = current.next;
-	        }
 		}
 		size++;
+		modCount++;
 	}
 	
 	/**
@@ -119,16 +120,17 @@ public class LinkedAbstractList<E> extends AbstractList<E> {
 		
 		if (index == 0) {
 			value = front.data;
+			if (cursor == front) {
+				cursor = null;
+			} else if (cursor != null) {
+				cursorIndex--;
+			}
 			front = front.next;
 	        if (front == null) {
 	            back = null;
 	        }
 		} else {
-			ListNode current = front;
-			
-			for (int i = 0; i < index - 1; i++) {
-				current = current.next;
-			}
+			ListNode current = nodeAt(index - 1);
 			
 			value = current.next.data;
 			
@@ -139,6 +141,7 @@ public class LinkedAbstractList<E> extends AbstractList<E> {
 	        }
 		}
 		size--;
+		modCount++;
 		return value;
 	}
 	
@@ -160,17 +163,11 @@ public class LinkedAbstractList<E> extends AbstractList<E> {
 		if (index < 0 || index >= size()) {
 			throw new IndexOutOfBoundsException();
 		}
-		for (E otherElement : this) {
-			if (element.equals(otherElement)) {
-				throw new IllegalArgumentException();
-			}
+		if (contains(element)) {
+			throw new IllegalArgumentException();
 		}
 		
-		ListNode current = front;
-		
-		for (int i = 0; i < index; i++) {
-			current = current.next;
-		}
+		ListNode current = nodeAt(index);
 		E value = current.data;
 		current.data = element;
 		return value;
@@ -190,11 +187,53 @@ public class LinkedAbstractList<E> extends AbstractList<E> {
 		if (index < 0 || index >= size()) {
 			throw new IndexOutOfBoundsException();
 		}
+		return nodeAt(index).data;
+	}
+
+	/**
+	 * Removes every element from the list
+	 */
+	@Override
+	public void clear() {
+		front = null;
+		back = null;
+		cursor = null;
+		size = 0;
+		modCount++;
+	}
+
+	/**
+	 * Returns an iterator over the elements of the list, from front to back.
+	 * Its remove() removes the last element it returned.
+	 * @return the iterator
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new NodeIterator();
+	}
+
+	/**
+	 * Returns the node at an index, walking on from the cursor if it is at or
+	 * before the index and from the front otherwise, and moves the cursor there
+	 * @param index the index of the node, which must be in the list
+	 * @return the node at the index
+	 */
+	private ListNode nodeAt(int index) {
+		if (index == size - 1) {
+			return back;
+		}
 		ListNode current = front;
-		for (int i = 0; i < index; i++) {
+		int i = 0;
+		if (cursor != null && cursorIndex <= index) {
+			current = cursor;
+			i = cursorIndex;
+		}
+		for (; i < index; i++) {
 			current = current.next;
 		}
-		return current.data;
+		cursor = current;
+		cursorIndex = index;
+		return current;
 	}
 	
 	/**
@@ -220,6 +259,88 @@ public class LinkedAbstractList<E> extends AbstractList<E> {
 		this.capacity = capacity;
 	}
 
+	/**
+	 * Walks the nodes of the list from front to back. It throws a
+	 * ConcurrentModificationException if the list is changed other than by its
+	 * own remove().
+	 */
+	private class NodeIterator implements Iterator<E> {
+		/** The node the next call to next() returns */
+		private ListNode next = front;
+		/** The node next() last returned, or null if it was removed or there isn't one */
+		private ListNode lastReturned;
+		/** The node before next */
+		private ListNode previous;
+		/** The modCount the list should have */
+		private int expectedModCount = modCount;
+
+		/**
+		 * Returns whether there are more elements
+		 * @return true if next() has an element to return
+		 */
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		/**
+		 * Returns the next element
+		 * @return the next element
+		 * @throws NoSuchElementException if there are no more elements
+		 * @throws ConcurrentModificationException if the list was changed
+		 */
+		@Override
+		public E next() {
+			checkForChange();
+			if (next == null) {
+				throw new NoSuchElementException();
+			}
+			if (lastReturned != null) {
+				previous = lastReturned;
+			}
+			lastReturned = next;
+			next = next.next;
+			return lastReturned.data;
+		}
+
+		/**
+		 * Removes the element next() last returned
+		 * @throws IllegalStateException if next() hasn't been called since the
+		 * 		last remove()
+		 * @throws ConcurrentModificationException if the list was changed
+		 */
+		@Override
+		public void remove() {
+			if (lastReturned == null) {
+				throw new IllegalStateException();
+			}
+			checkForChange();
+			if (previous == null) {
+				front = next;
+			} else {
+				previous.next = next;
+			}
+			if (lastReturned == back) {
+				back = previous;
+			}
+			lastReturned = null;
+			cursor = null;
+			size--;
+			modCount++;
+			expectedModCount = modCount;
+		}
+
+		/**
+		 * Checks that the list hasn't been changed other than by this iterator
+		 * @throws ConcurrentModificationException if it has
+		 */
+		private void checkForChange() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
+
 	/**
 	 * The ListNode of the LinkedAbstractList
 	 */
@@ -2,6 +2,7 @@ package edu.ncsu.csc216.pack_scheduler.util;
 
 
 import java.util.AbstractSequentialList;
+import java.util.ConcurrentModificationException;
 import java.util.ListIterator;
 import java.util.NoSuchElementException;
 
@@ -29,6 +30,17 @@ public class LinkedList<E> extends AbstractSequentialList<E> {
 	 */
 	private int size;
 
+	/**
+	 * The node most recently reached by index, or back once past the last element.
+	 * Seeks can start here, so walking the list by index is linear overall.
+	 */
+	private ListNode cursor;
+
+	/**
+	 * The index of the cursor node.
+	 */
+	private int cursorIndex;
+
     /**
      * Constructs an empty LinkedList.
      * Initializes the front and back nodes with null data, and sets their references.
@@ -40,6 +52,8 @@ public class LinkedList<E> extends AbstractSequentialList<E> {
         front.next = back;
         back.prev = front;
         size = 0;
+        cursor = back;
+        cursorIndex = 0;
     }
 
     /**
@@ -83,8 +97,87 @@ public class LinkedList<E> extends AbstractSequentialList<E> {
             throw new IndexOutOfBoundsException("Invalid index.");
         }
 
-        ListIterator<E> iterator = listIterator(index);
-        iterator.add(element);
+        linkBefore(nodeAt(index), index, element);
+    }
+
+    /**
+     * Adds an element to the end of the list. Finding the end takes constant time,
+     * though the element is still checked against every element in the list.
+     *
+     * @param element the element to add
+     * @throws NullPointerException if the element is null
+     * @throws IllegalArgumentException if the element is already in the list
+     */
+    public void addLast(E element) {
+        add(size, element);
+    }
+
+    /**
+     * Returns the element at the given index, walking from whichever of the front,
+     * the back, or the last index reached is closest.
+     *
+     * @param index the index of the element
+     * @return the element at the index
+     * @throws IndexOutOfBoundsException if the index is less than 0 or not less than size
+     */
+    @Override
+    public E get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+        return nodeAt(index).data;
+    }
+
+    /**
+     * Returns the node at the given index, or back if the index is size. The walk
+     * starts from whichever of front, back and the cursor is closest, and the node
+     * found becomes the cursor.
+     *
+     * @param index the index of the node, from 0 to size
+     * @return the node at the index
+     */
+    private ListNode nodeAt(int index) {
+        ListNode current;
+        if (index <= size - index && index <= Math.abs(index - cursorIndex)) {
+            current = front.next;
+            for (int i = 0; i < index; i++) {
+                current = current.next;
+            }
+        } else if (size - index <= Math.abs(index - cursorIndex)) {
+            current = back;
+            for (int i = size; i > index; i--) {
+                current = current.prev;
+            }
+        } else {
+            current = cursor;
+            for (int i = cursorIndex; i < index; i++) {
+                current = current.next;
+            }
+            for (int i = cursorIndex; i > index; i--) {
+                current = current.prev;
+            }
+        }
+        cursor = current;
+        cursorIndex = index;
+        return current;
+    }
+
+    /**
+     * Links a new node for an element in front of the given node, which becomes the
+     * cursor at the index after the new node.
+     *
+     * @param next the node to link the element in front of
+     * @param index the index the new node will have
+     * @param element the element to add
+     */
+    private void linkBefore(ListNode next, int index, E element) {
+        ListNode newNode = new ListNode(element, next.prev, next);
+        next.prev.next = newNode;
+        next.prev = newNode;
+        size++;
+        modCount++;
+        cursor = next;
+        cursorIndex = index + 1;
     }
 
     /**
@@ -159,6 +252,11 @@ public class LinkedList<E> extends AbstractSequentialList<E> {
     	 */
     	private ListNode lastRetrieved;
 
+    	/**
+    	 * The modCount of the list this iterator expects, so changes made around it are caught.
+    	 */
+    	private int expectedModCount;
+
 
         /**
          * Constructs a LinkedListIterator and positions it at the specified index.
@@ -170,15 +268,23 @@ public class LinkedList<E> extends AbstractSequentialList<E> {
             if (index < 0 || index > size) {
                 throw new IndexOutOfBoundsException();
             }
-            previous = front;
-            next = front.next;
-            for (int i = 0; i < index; i++) {
-                previous = next;
-                next = next.next;
-            }
+            next = nodeAt(index);
+            previous = next.prev;
             previousIndex = index - 1;
             nextIndex = index;
             lastRetrieved = null;
+            expectedModCount = modCount;
+        }
+
+        /**
+         * Checks that the list has only been changed through this iterator since it was made.
+         *
+         * @throws ConcurrentModificationException if the list was changed some other way
+         */
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
         }
 
         /**
@@ -196,9 +302,11 @@ public class LinkedList<E> extends AbstractSequentialList<E> {
          *
          * @return the next element in the list
          * @throws NoSuchElementException if the iteration has no next element
+         * @throws ConcurrentModificationException if the list was changed other than through this iterator
          */
         @Override
         public E next() {
+            checkForComodification();
             if (!hasNext()) {
                 throw new NoSuchElementException();
             }
@@ -225,9 +333,11 @@ public class LinkedList<E> extends AbstractSequentialList<E> {
          *
          * @return the previous element in the list
          * @throws NoSuchElementException if the iteration has no previous element
+         * @throws ConcurrentModificationException if the list was changed other than through this iterator
          */
         @Override
         public E previous() {
+            checkForComodification();
             if (!hasPrevious()) {
                 throw new NoSuchElementException();
             }
@@ -266,23 +376,23 @@ public class LinkedList<E> extends AbstractSequentialList<E> {
          * @param e the element to add
          * @throws NullPointerException if the element to add is null
          * @throws IllegalArgumentException if the element to add is a duplicate of an element already in the list
+         * @throws ConcurrentModificationException if the list was changed other than through this iterator
          */
         @Override
         public void add(E e) {
             if (e == null) {
                 throw new NullPointerException();
             }
+            checkForComodification();
             if (contains(e)) {
                 throw new IllegalArgumentException("Duplicate element");
             }
-            ListNode newNode = new ListNode(e, previous, next);
-            previous.next = newNode;
-            next.prev = newNode;
-            previous = newNode;
+            linkBefore(next, nextIndex, e);
+            previous = next.prev;
             previousIndex++;
             nextIndex++;
-            size++;
             lastRetrieved = null;
+            expectedModCount = modCount;
         }
 
         /**
@@ -290,25 +400,31 @@ public class LinkedList<E> extends AbstractSequentialList<E> {
          *
          * @throws IllegalStateException if neither remove() nor add(E) have been called after the last call to next() or previous(),
          *                               or if remove() or add(E) was the last call on the list, or if there has not been a call to next() or previous()
+         * @throws ConcurrentModificationException if the list was changed other than through this iterator
          */
         @Override
         public void remove() {
             if (lastRetrieved == null) {
                 throw new IllegalStateException();
             }
+            checkForComodification();
             ListNode prevNode = lastRetrieved.prev;
             ListNode nextNode = lastRetrieved.next;
             prevNode.next = nextNode;
             nextNode.prev = prevNode;
             if (lastRetrieved == previous) {
                 previousIndex--;
+                nextIndex--;
                 previous = prevNode;
             } else {
-                nextIndex--;
                 next = nextNode;
             }
             size--;
+            modCount++;
+            cursor = next;
+            cursorIndex = nextIndex;
             lastRetrieved = null;
+            expectedModCount = modCount;
         }
 
         /**
@@ -319,6 +435,7 @@ public class LinkedList<E> extends AbstractSequentialList<E> {
          * @throws IllegalStateException if neither remove() nor add(E) have been called after the last call to next() or previous(),
          *                               or if remove() or add(E) was the last call on the list, or if there has not been a call to next() or previous()
          * @throws IllegalArgumentException if the element to set is a duplicate of an element already in the list
+         * @throws ConcurrentModificationException if the list was changed other than through this iterator
          */
         @Override
         public void set(E e) {
@@ -328,6 +445,7 @@ public class LinkedList<E> extends AbstractSequentialList<E> {
             if (lastRetrieved == null) {
                 throw new IllegalStateException();
             }
+            checkForComodification();
             if (contains(e)) {
                 throw new IllegalArgumentException("Duplicate element");
             }
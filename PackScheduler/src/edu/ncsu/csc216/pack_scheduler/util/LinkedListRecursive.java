@@ -3,17 +3,33 @@
  */
 package edu.ncsu.csc216.pack_scheduler.util;
 
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 /**
  * Custom implementation of a recursive linked list that doesn’t allow for null elements or duplicate elements
+ * 
+ * The list keeps its recursive shape, with the list handing each operation to
+ * its front node, but each node walks on to the node it wants in a loop rather
+ * than by calling the next node, so a long list can't overflow the stack. The
+ * list also keeps its last node, so adding to the end doesn't walk the list,
+ * and can be iterated over with a for-each loop.
  * @param <E> the type of elements in the list
  * @author Amulya Jose
  */
-public class LinkedListRecursive<E> {
+public class LinkedListRecursive<E> implements Iterable<E> {
 	/** The size of the list */
 	private int size;
 	
 	/** The first node in the list */
 	private ListNode front;
+
+	/** The last node in the list */
+	private ListNode back;
+
+	/** The number of times elements have been added or removed, so iterators can fail fast */
+	private int modCount;
 	
 	/**
 	 * Constructs a recursive linked list
@@ -21,6 +37,7 @@ public class LinkedListRecursive<E> {
 	public LinkedListRecursive() {
 		this.size = 0;
 		this.front = null;
+		this.back = null;
 	}
 	
 	/**
@@ -47,10 +64,6 @@ public class LinkedListRecursive<E> {
 	 * @throws IllegalArgumentException if the the element already exists
 	 */
 	public boolean add(E element) {
-		if (contains(element)) {
-			throw new IllegalArgumentException("Duplicate element");
-		}
-		
 		add(size, element);
 		
 		return true;
@@ -80,13 +93,17 @@ public class LinkedListRecursive<E> {
 		
 		if (index == 0) {
 			front = new ListNode(element, front);
-			size++;
-		} else if (front == null) {
-			throw new IndexOutOfBoundsException();
+			if (back == null) {
+				back = front;
+			}
+		} else if (index == size) {
+			back.next = new ListNode(element, null);
+			back = back.next;
 		} else {
 			front.add(index - 1, element);
-			size++;
 		}
+		size++;
+		modCount++;
  	}
 	
 	/**
@@ -98,6 +115,8 @@ public class LinkedListRecursive<E> {
 	public E get(int index) {
 		if (index < 0 || index > size - 1) {
 			throw new IndexOutOfBoundsException("Index is out of bounds");
+		} else if (index == size - 1) {
+			return back.data;
 		} else {
 			return front.get(index);
 		}
@@ -114,15 +133,8 @@ public class LinkedListRecursive<E> {
 		} else if (isEmpty()) {
 			return false;
 		} else if (front.data.equals(element)) {
-			if (front.next != null) {
-				front = front.next;
-				size--;
-				return true;
-			} else {
-				front = null;
-				size--;
-				return true;
-			}
+			removeFront();
+			return true;
 		} else {
 			return front.remove(element);
 		}
@@ -137,14 +149,26 @@ public class LinkedListRecursive<E> {
 		if (index < 0 || index > size - 1) {
 			throw new IndexOutOfBoundsException("Index is out of bounds");
 		} else if (index == 0) {
-			E value = front.data;
-			front = front.next;
-			size--;
-			return value;
+			return removeFront();
 		} else {
 			return front.remove(index - 1);
 		}
 	}
+
+	/**
+	 * Removes the front node
+	 * @return the element that was at the front
+	 */
+	private E removeFront() {
+		E value = front.data;
+		front = front.next;
+		if (front == null) {
+			back = null;
+		}
+		size--;
+		modCount++;
+		return value;
+	}
 	
 	/**
 	 * Sets the element at the given index to the given element
@@ -182,9 +206,54 @@ public class LinkedListRecursive<E> {
 			return front.contains(element);
 		}
 	}
+
+	/**
+	 * Returns an iterator over the elements of the list, from front to back. It
+	 * throws a ConcurrentModificationException if the list has had elements
+	 * added or removed since it was created.
+	 * @return the iterator
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+			/** The node the next call to next() returns */
+			private ListNode next = front;
+			/** The modCount the list should have */
+			private final int expectedModCount = modCount;
+
+			/**
+			 * Returns whether there are more elements
+			 * @return true if next() has an element to return
+			 */
+			@Override
+			public boolean hasNext() {
+				return next != null;
+			}
+
+			/**
+			 * Returns the next element
+			 * @return the next element
+			 * @throws NoSuchElementException if there are no more elements
+			 * @throws ConcurrentModificationException if the list was changed
+			 */
+			@Override
+			public E next() {
+				if (modCount != expectedModCount) {
+					throw new ConcurrentModificationException();
+				}
+				if (next == null) {
+					throw new NoSuchElementException();
+				}
+				E data = next.data;
+				next = next.next;
+				return data;
+			}
+		};
+	}
 	
 	/**
-     * Inner class that represents a node in the linked list.
+     * Inner class that represents a node in the linked list. Each method starts
+     * at this node and walks along the nodes after it.
      */
     private class ListNode {
     	/** The data stored in this node. */
@@ -194,19 +263,17 @@ public class LinkedListRecursive<E> {
     	public ListNode next;
     	
     	/**
-    	 * Adds the given element at the given index.
-    	 * @param index the index at which to add the given element
+    	 * Adds the given element after the node the given number of nodes on
+    	 * from this one.
+    	 * @param index the index at which to add the given element, counting the node after this one as 0
     	 * @param element the element to be added at the given index
-    	 * @throws IndexOutOfBoundsException if the index is less than zero or if next is null and you
-    	 * 			haven't reached the index yet
+    	 * @throws IndexOutOfBoundsException if the list ends before the index is reached
     	 */
     	public void add(int index, E element) {
-    		if (index == 0) {
-    			next = new ListNode(element, next);
-    		} else if (next == null) {
-    			throw new IndexOutOfBoundsException();
-    		} else {
-    			next.add(index - 1, element);
+    		ListNode before = nodeAt(index);
+    		before.next = new ListNode(element, before.next);
+    		if (before == back) {
+    			back = before.next;
     		}
     	}
     	
@@ -214,58 +281,39 @@ public class LinkedListRecursive<E> {
     	 * Gets the element at the given index
     	 * @param index the index at which to retrieve the element from
     	 * @return the element at the given index
-    	 * @throws IndexOutOfBoundsException if next is null and you haven't reached the index yet
+    	 * @throws IndexOutOfBoundsException if the list ends before the index is reached
     	 */
     	public E get(int index) {
-    		if (index == 0) {
-    			return this.data;
-    		} else if (next == null) {
-    			throw new IndexOutOfBoundsException();
-    		} else {
-    			return next.get(index - 1);
-    		}
+    		return nodeAt(index).data;
     	}
     	
     	/**
     	 * Removes the element at the given index
-    	 * @param index the index at which to remove the element
+    	 * @param index the index at which to remove the element, counting the node after this one as 0
     	 * @return the element at the given index
-    	 * @throws IndexOutOfBoundsException if next is null and you haven't reached the index yet
+    	 * @throws IndexOutOfBoundsException if the list ends before the index is reached
     	 */
     	public E remove(int index) {
-    		if (index == 0) {
-    			E value = next.data;
-    			next = next.next;
-    			size--;
-    			return value;
-    		} else if (next == null) {
+    		ListNode before = nodeAt(index);
+    		if (before.next == null) {
     			throw new IndexOutOfBoundsException();
-    		} else {
-    			return next.remove(index - 1);
     		}
+    		return removeAfter(before);
     	}
     	
     	/**
-    	 * Removes the node with the given index
+    	 * Removes the first node after this one holding the given element
     	 * @param element the element to be removed from the list
     	 * @return true if the element is removed and false if it isn't
     	 */
     	public boolean remove(E element) {
-    		if (this.data == null) {
-    			return false;
-    		}
-    		
-    		if (this.next == null) {
-    			return false;
+    		for (ListNode current = this; current.next != null; current = current.next) {
+    			if (current.next.data.equals(element)) {
+    				removeAfter(current);
+    				return true;
+    			}
     		}
-    		
-    		if (next.data.equals(element)) {
-    			next = next.next;
-    			size--;
-    			return true;
-    		}
-    		
-    		return this.next.remove(element);	
+    		return false;
     	}
     	
     	/**
@@ -273,38 +321,60 @@ public class LinkedListRecursive<E> {
     	 * @param index the index at which to set the given element
     	 * @param element the given element to set at the given index
     	 * @return the old data at the given index
+    	 * @throws IndexOutOfBoundsException if the list ends before the index is reached
     	 */
     	public E set(int index, E element) {
-    		if (index == 0) {
-    			E value = this.data;
-    			this.data = element;
-    			return value;
-    		} else if (next == null) {
-    			throw new IndexOutOfBoundsException();
-    		} else {
-    			return next.set(index - 1, element);
-    		}
+    		ListNode node = nodeAt(index);
+    		E value = node.data;
+    		node.data = element;
+    		return value;
     	}
     	
     	/**
-    	 * Recursively checks the elements in the list to see if the element is contained inside the list
+    	 * Checks this node and the nodes after it to see if the element is contained inside the list
     	 * @param element the element to be checked if it is inside the list
     	 * @return true if the element is contained inside the list and otherwise false
     	 */
     	public boolean contains(E element) {
-    		if (this.data == null) {
-    			return false;
+    		for (ListNode current = this; current != null; current = current.next) {
+    			if (current.data.equals(element)) {
+    				return true;
+    			}
     		}
-    		
-    		if (this.data.equals(element)) {
-    			return true;
+    		return false;
+    	}
+
+    	/**
+    	 * Returns the node the given number of nodes on from this one
+    	 * @param index the number of nodes to walk on
+    	 * @return the node
+    	 * @throws IndexOutOfBoundsException if the list ends before the index is reached
+    	 */
+    	private ListNode nodeAt(int index) {
+    		ListNode current = this;
+    		for (int i = 0; i < index; i++) {
+    			if (current.next == null) {
+    				throw new IndexOutOfBoundsException();
+    			}
+    			current = current.next;
     		}
-    		
-    		if (this.next == null) {
-    			return false;
+    		return current;
+    	}
+
+    	/**
+    	 * Removes the node after the given one
+    	 * @param before the node before the one to remove
+    	 * @return the element that was removed
+    	 */
+    	private E removeAfter(ListNode before) {
+    		E value = before.next.data;
+    		before.next = before.next.next;
+    		if (before.next == null) {
+    			back = before;
     		}
-    		
-    		return this.next.contains(element);
+    		size--;
+    		modCount++;
+    		return value;
     	}
 
         /**
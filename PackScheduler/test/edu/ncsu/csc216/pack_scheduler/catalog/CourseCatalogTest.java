@@ -16,6 +16,8 @@ import org.junit.Before;
 import org.junit.jupiter.api.Test;
 import edu.ncsu.csc216.pack_scheduler.course.Activity;
 import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.io.SaveMode;
+import edu.ncsu.csc216.pack_scheduler.user.schedule.Schedule;
 
 /**
  * Tests the CourseCatalog class
@@ -134,6 +136,23 @@ public class CourseCatalogTest {
 		assertEquals("002", courseCatalog[0][1]);
 		assertEquals("Intro to Programming - Java", courseCatalog[0][2]);
 		assertEquals("MW 11:20AM-1:10PM", courseCatalog[0][3]);
+
+		// Remove from the middle of the catalog and make sure lookups stay in sync
+		assertTrue(cc.removeCourseFromCatalog("CSC217", "211"));
+		assertFalse(cc.removeCourseFromCatalog("CSC217", "211"));
+		assertNull(cc.getCourseFromCatalog("CSC217", "211"));
+		courseCatalog = cc.getCourseCatalog();
+		assertEquals(11, courseCatalog.length);
+		assertEquals("CSC217", courseCatalog[5][0]);
+		assertEquals("202", courseCatalog[5][1]);
+		assertEquals("CSC217", courseCatalog[6][0]);
+		assertEquals("223", courseCatalog[6][1]);
+
+		// A removed course can be added back, but only once
+		assertTrue(cc.addCourseToCatalog("CSC217", "Software Development Fundamentals Lab", "211", 1, null, 10, "M", 830, 1020));
+		assertFalse(cc.addCourseToCatalog("CSC217", "Software Development Fundamentals Lab", "211", 1, null, 10, "M", 830, 1020));
+		assertEquals("211", cc.getCourseFromCatalog("CSC217", "211").getSection());
+		assertEquals(12, cc.getCourseCatalog().length);
 	}
 
 	/**
@@ -217,6 +236,72 @@ public class CourseCatalogTest {
 		assertEquals("Data Structures and Algorithms", catalog[12][2]);
 	}
 
+	/**
+	 * Test CourseCatalog.getCoursesThatFit().
+	 */
+	@Test
+	public void testGetCoursesThatFit() {
+		CourseCatalog cc = new CourseCatalog();
+		cc.loadCoursesFromFile(validTestFile);
+
+		// Everything fits an empty schedule
+		Schedule schedule = new Schedule();
+		assertEquals(13, cc.getCoursesThatFit(schedule).length);
+
+		// Courses with a scheduled name or a time conflict don't fit
+		schedule.addCourseToSchedule(cc.getCourseFromCatalog("CSC216", "001"));
+		schedule.addCourseToSchedule(cc.getCourseFromCatalog("CSC116", "001"));
+		String[][] fits = cc.getCoursesThatFit(schedule);
+		assertEquals(4, fits.length);
+		assertEquals("CSC217", fits[0][0]);
+		assertEquals("211", fits[0][1]);
+		assertEquals("CSC217", fits[1][0]);
+		assertEquals("223", fits[1][1]);
+		assertEquals("CSC217", fits[2][0]);
+		assertEquals("601", fits[2][1]);
+		assertEquals("CSC230", fits[3][0]);
+		assertEquals("001", fits[3][1]);
+
+		// The result matches checking every course with Schedule.canAdd()
+		String[][] catalog = cc.getCourseCatalog();
+		int canAdd = 0;
+		for (int i = 0; i < catalog.length; i++) {
+			if (schedule.canAdd(cc.getCourseFromCatalog(catalog[i][0], catalog[i][1]))) {
+				canAdd++;
+			}
+		}
+		assertEquals(canAdd, fits.length);
+
+		// Courses re-timed in place are checked at their new times
+		Course lab = cc.getCourseFromCatalog("CSC217", "211");
+		Course discrete = cc.getCourseFromCatalog("CSC226", "001");
+		lab.setMeetingDaysAndTime("MW", 1000, 1050);
+		discrete.setMeetingDaysAndTime("F", 1500, 1550);
+		fits = cc.getCoursesThatFit(schedule);
+		assertEquals(4, fits.length);
+		assertEquals("223", fits[0][1]);
+		assertEquals("601", fits[1][1]);
+		assertEquals("CSC226", fits[2][0]);
+		assertEquals("CSC230", fits[3][0]);
+		lab.setMeetingDaysAndTime("T", 830, 1020);
+		discrete.setMeetingDaysAndTime("MWF", 935, 1025);
+		fits = cc.getCoursesThatFit(schedule);
+		assertEquals(4, fits.length);
+		assertEquals("211", fits[0][1]);
+
+		// Removed courses are no longer considered
+		assertTrue(cc.removeCourseFromCatalog("CSC230", "001"));
+		assertEquals(3, cc.getCoursesThatFit(schedule).length);
+
+		// Scheduled courses that aren't in the catalog still rule out conflicts
+		schedule.addCourseToSchedule(new Course("CSC230", "C and Software Tools", "001", 3, "dbsturgi", 10, "T", 900, 950));
+		assertTrue(cc.removeCourseFromCatalog("CSC216", "001"));
+		fits = cc.getCoursesThatFit(schedule);
+		assertEquals(2, fits.length);
+		assertEquals("223", fits[0][1]);
+		assertEquals("601", fits[1][1]);
+	}
+
 	/**
 	 * Tests CourseCatalog.saveCourseCatalog().
 	 */
@@ -232,6 +317,23 @@ public class CourseCatalogTest {
 		checkFiles("test-files/expected_course_records.txt", "test-files/actual_course_records.txt");
 	}
 
+	/**
+	 * Tests CourseCatalog.saveCourseCatalog() writing only the changes
+	 */
+	@Test
+	public void testSaveCourseCatalogIncremental() {
+		CourseCatalog cc = new CourseCatalog();
+		cc.addCourseToCatalog(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, ENROLLMENT_CAP, "MW", START_TIME, END_TIME);
+		cc.saveCourseCatalog("test-files/actual_course_records.txt", SaveMode.INCREMENTAL);
+
+		// the instructor is changed in place and the added course is written after it
+		cc.getCourseFromCatalog(NAME, SECTION).setInstructorId(null);
+		cc.getCourseFromCatalog(NAME, SECTION).setInstructorId(INSTRUCTOR_ID);
+		cc.addCourseToCatalog("CSC116", "Intro to Programming - Java", "003", 3, "spbalik", 10, "MW", 1250, 1440);
+		cc.saveCourseCatalog("test-files/actual_course_records.txt", SaveMode.INCREMENTAL);
+		checkFiles("test-files/expected_course_records.txt", "test-files/actual_course_records.txt");
+	}
+
 	/**
 	 * Helper method to compare two files for the same contents
 	 * 
@@ -0,0 +1,133 @@
+package edu.ncsu.csc216.pack_scheduler.catalog;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+
+/**
+ * Tests the TimeSlotIndex class
+ * 
+ * @author Amulya Jose
+ */
+public class TimeSlotIndexTest {
+
+	/** Course meeting MW 9:10AM-11:00AM */
+	private final Course morning = new Course("CSC116", "Intro to Programming - Java", "001", 3, null, 10, "MW", 910, 1100);
+	/** Course meeting M 10:40AM-12:30PM */
+	private final Course lab = new Course("CSC217", "Software Development Fundamentals Lab", "202", 1, null, 10, "M", 1040, 1230);
+	/** Course meeting MW 11:20AM-1:10PM */
+	private final Course midday = new Course("CSC116", "Intro to Programming - Java", "002", 3, null, 10, "MW", 1120, 1310);
+	/** Course meeting TH 9:10AM-11:00AM */
+	private final Course tuesday = new Course("CSC116", "Intro to Programming - Java", "003", 3, null, 10, "TH", 910, 1100);
+	/** Arranged course */
+	private final Course arranged = new Course("CSC216", "Software Development Fundamentals", "601", 3, null, 10, "A");
+
+	/**
+	 * Tests TimeSlotIndex.addConflictingCourses() after adding and removing courses
+	 */
+	@Test
+	public void testAddConflictingCourses() {
+		TimeSlotIndex index = new TimeSlotIndex();
+		index.add(morning);
+		index.add(lab);
+		index.add(midday);
+		index.add(tuesday);
+		index.add(arranged);
+
+		// The lab overlaps both MW courses on Monday
+		Set<Course> conflicts = newSet();
+		index.addConflictingCourses(lab, conflicts);
+		assertEquals(3, conflicts.size());
+		assertTrue(conflicts.contains(lab));
+		assertTrue(conflicts.contains(morning));
+		assertTrue(conflicts.contains(midday));
+
+		// Sharing hours but not days isn't a conflict
+		conflicts = newSet();
+		index.addConflictingCourses(tuesday, conflicts);
+		assertEquals(1, conflicts.size());
+		assertTrue(conflicts.contains(tuesday));
+
+		// Arranged courses never conflict
+		conflicts = newSet();
+		index.addConflictingCourses(arranged, conflicts);
+		assertTrue(conflicts.isEmpty());
+
+		// Removed courses are no longer found
+		index.remove(morning);
+		index.remove(arranged);
+		conflicts = newSet();
+		index.addConflictingCourses(lab, conflicts);
+		assertEquals(2, conflicts.size());
+		assertFalse(conflicts.contains(morning));
+	}
+
+	/**
+	 * Tests that a course is still found after its hash code changes
+	 */
+	@Test
+	public void testInstructorAssigned() {
+		TimeSlotIndex index = new TimeSlotIndex();
+		index.add(morning);
+		morning.setInstructorId("jdyoung2");
+
+		Set<Course> conflicts = newSet();
+		index.addConflictingCourses(lab, conflicts);
+		assertTrue(conflicts.contains(morning));
+
+		index.remove(morning);
+		conflicts = newSet();
+		index.addConflictingCourses(lab, conflicts);
+		assertTrue(conflicts.isEmpty());
+	}
+
+	/**
+	 * Tests that a course re-timed in place is moved by update() and can still
+	 * be removed
+	 */
+	@Test
+	public void testRetimed() {
+		TimeSlotIndex index = new TimeSlotIndex();
+		index.add(morning);
+		index.add(arranged);
+		morning.setMeetingDaysAndTime("TH", 910, 1100);
+
+		Set<Course> conflicts = newSet();
+		index.update(morning);
+		index.addConflictingCourses(lab, conflicts);
+		assertTrue(conflicts.isEmpty());
+		index.addConflictingCourses(tuesday, conflicts);
+		assertTrue(conflicts.contains(morning));
+
+		// an arranged course given times is indexed at them
+		arranged.setMeetingDaysAndTime("M", 1100, 1150);
+		index.update(arranged);
+		conflicts = newSet();
+		index.addConflictingCourses(lab, conflicts);
+		assertTrue(conflicts.contains(arranged));
+
+		// a course re-timed after update() is still removed from where it was put
+		morning.setMeetingDaysAndTime("MW", 910, 1100);
+		index.remove(morning);
+		index.update(morning);
+		conflicts = newSet();
+		index.addConflictingCourses(tuesday, conflicts);
+		assertTrue(conflicts.isEmpty());
+	}
+
+	/**
+	 * Creates an empty identity set of courses
+	 * 
+	 * @return an empty set of courses
+	 */
+	private static Set<Course> newSet() {
+		return Collections.newSetFromMap(new IdentityHashMap<Course, Boolean>());
+	}
+
+}
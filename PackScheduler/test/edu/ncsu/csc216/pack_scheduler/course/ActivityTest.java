@@ -111,4 +111,27 @@ class ActivityTest {
 		assertEquals("Schedule conflict.", e2.getMessage());
 	}
 
+	/**
+	 * test method for checkConflict() where the only shared day is the last meeting day
+	 * and the meeting days are updated after construction
+	 */
+	@Test
+	public void testCheckConflictLastSharedDay() {
+		Activity a1 = new Course("CSC216", "Software Development Fundamentals", "001", 3, "sesmith5", 10, "MWF", 900,
+				950);
+		Activity a2 = new Course("CSC216", "Software Development Fundamentals", "001", 3, "sesmith5", 10, "THF", 945,
+				1100);
+
+		assertThrows(ConflictException.class, () -> a1.checkConflict(a2));
+		assertThrows(ConflictException.class, () -> a2.checkConflict(a1));
+
+		a2.setMeetingDaysAndTime("TH", 945, 1100);
+		assertDoesNotThrow(() -> a1.checkConflict(a2));
+		assertDoesNotThrow(() -> a2.checkConflict(a1));
+
+		a2.setMeetingDaysAndTime("A", 0, 0);
+		assertDoesNotThrow(() -> a1.checkConflict(a2));
+		assertDoesNotThrow(() -> a2.checkConflict(a1));
+	}
+
 }
@@ -574,4 +574,29 @@ public class CourseTest {
 		assertEquals("100", displayArray[4]);
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Tests a course with its own max enrollment and waitlist size
+	 */
+	@Test
+	public void testCourseLimits() {
+		Course c1 = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, 600, 600, 500, MEETING_DAYS, START_TIME, END_TIME);
+		assertEquals(600, c1.getCourseRoll().getEnrollmentCap());
+		assertEquals(600, c1.getCourseRoll().getMaxEnrollment());
+		assertEquals(500, c1.getCourseRoll().getWaitlistSize());
+		assertEquals("CSC216,Software Development Fundamentals,001,3,sesmith5,600,MW,1330,1445,600,500", c1.toString());
+
+		Course c2 = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, ENROLLMENT_CAP,
+				CourseRoll.DEFAULT_MAX_ENROLLMENT, 20, "A", 0, 0);
+		assertEquals("CSC216,Software Development Fundamentals,001,3,sesmith5,100,A,250,20", c2.toString());
+
+		Course c3 = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, ENROLLMENT_CAP,
+				CourseRoll.DEFAULT_MAX_ENROLLMENT, CourseRoll.DEFAULT_WAITLIST_SIZE, "A", 0, 0);
+		assertEquals("CSC216,Software Development Fundamentals,001,3,sesmith5,100,A", c3.toString());
+
+		Exception e1 = assertThrows(IllegalArgumentException.class,
+				() -> new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, 601, 600, 500, MEETING_DAYS, START_TIME, END_TIME));
+		assertEquals("Invalid enrollment capacity", e1.getMessage());
+		assertThrows(IllegalArgumentException.class,
+				() -> new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, 100, 600, -1, MEETING_DAYS, START_TIME, END_TIME));
+	}
+}
@@ -8,6 +8,7 @@ import edu.ncsu.csc217.collections.list.SortedList;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.FileNotFoundException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 /**
@@ -199,4 +200,257 @@ public class CourseRollTest {
 
         assertEquals(150, courseRoll.getOpenSeats());
     }
+
+    /**
+     * tests that students enrolling from many threads at once never overfill the roll or waitlist
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    @Test
+    public void testConcurrentEnroll() throws InterruptedException {
+    	Course c = new Course("CSC216", "Programming Concepts - Java", "001", 4, "sesmith5", 10, "A");
+    	CourseRoll courseRoll = c.getCourseRoll();
+    	AtomicInteger accepted = new AtomicInteger();
+
+    	Thread[] threads = new Thread[8];
+    	for (int t = 0; t < threads.length; t++) {
+    		final int first = t;
+    		threads[t] = new Thread(() -> {
+    			for (int i = first; i < studentList.size(); i += threads.length) {
+    				try {
+    					courseRoll.enroll(studentList.get(i));
+    					accepted.incrementAndGet();
+    				} catch (IllegalArgumentException e) {
+    					// the waitlist is full
+    				}
+    			}
+    		});
+    	}
+    	for (Thread thread : threads) {
+    		thread.start();
+    	}
+    	for (Thread thread : threads) {
+    		thread.join();
+    	}
+
+    	assertEquals(20, accepted.get());
+    	assertEquals(0, courseRoll.getOpenSeats());
+    	assertEquals(10, courseRoll.getNumberOnWaitlist());
+    }
+
+    /**
+     * tests that a reserved seat given back because it couldn't be filled goes to a
+     * student who joined the waitlist while it was reserved
+     * @throws InterruptedException if interrupted while waiting for the thread
+     */
+    @Test
+    public void testReleaseSeatToWaitlist() throws InterruptedException {
+    	Course c = new Course("CSC216", "Programming Concepts - Java", "001", 4, "sesmith5", 10, "A");
+    	CourseRoll courseRoll = c.getCourseRoll();
+    	for (int i = 0; i < 9; i++) {
+    		courseRoll.enroll(studentList.get(i));
+    	}
+    	assertEquals(1, courseRoll.getOpenSeats());
+
+    	AtomicInteger rejected = new AtomicInteger();
+    	Thread duplicate = new Thread(() -> {
+    		try {
+    			courseRoll.enroll(studentList.get(0));
+    		} catch (IllegalArgumentException e) {
+    			rejected.incrementAndGet();
+    		}
+    	});
+    	synchronized (courseRoll) {
+    		// the duplicate takes the last seat, then waits for the lock to fill it
+    		duplicate.start();
+    		long deadline = System.currentTimeMillis() + 10000;
+    		while (courseRoll.getOpenSeats() != 0 && System.currentTimeMillis() < deadline) {
+    			Thread.yield();
+    		}
+    		assertEquals(0, courseRoll.getOpenSeats());
+    		courseRoll.enroll(studentList.get(9));
+    		assertEquals(1, courseRoll.getNumberOnWaitlist());
+    	}
+    	duplicate.join();
+
+    	assertEquals(1, rejected.get());
+    	assertEquals(0, courseRoll.getOpenSeats());
+    	assertEquals(0, courseRoll.getNumberOnWaitlist());
+    	assertFalse(courseRoll.canEnroll(studentList.get(9)));
+    	courseRoll.drop(studentList.get(9));
+    	assertEquals(1, courseRoll.getOpenSeats());
+    }
+
+    /**
+     * test that the open seat counter follows enrolling in open seats, drops and cap changes
+     */
+    @Test
+    public void testEnrollInOpenSeat() {
+    	Course c = new Course("CSC216", "Programming Concepts - Java", "001", 4, "sesmith5", 10, "A");
+    	CourseRoll courseRoll = c.getCourseRoll();
+    	assertFalse(courseRoll.enrollInOpenSeat(null));
+    	for (int i = 0; i < 10; i++) {
+    		assertTrue(courseRoll.enrollInOpenSeat(studentList.get(i)));
+    	}
+    	assertEquals(0, courseRoll.getOpenSeats());
+    	assertFalse(courseRoll.enrollInOpenSeat(studentList.get(10)));
+    	assertEquals(0, courseRoll.getNumberOnWaitlist());
+
+    	courseRoll.setEnrollmentCap(12);
+    	assertEquals(2, courseRoll.getOpenSeats());
+    	assertFalse(courseRoll.enrollInOpenSeat(studentList.get(0)));
+    	assertEquals(2, courseRoll.getOpenSeats());
+    	assertThrows(IllegalArgumentException.class, () -> courseRoll.enroll(studentList.get(0)));
+    	assertEquals(2, courseRoll.getOpenSeats());
+
+    	courseRoll.drop(studentList.get(0));
+    	assertEquals(3, courseRoll.getOpenSeats());
+    	courseRoll.setEnrollmentCap(10);
+    	assertEquals(1, courseRoll.getOpenSeats());
+    	assertTrue(courseRoll.enrollInOpenSeat(studentList.get(10)));
+    	assertEquals(0, courseRoll.getOpenSeats());
+
+    	courseRoll.setEnrollmentCap(14);
+    	for (int i = 11; i < 15; i++) {
+    		assertTrue(courseRoll.enrollInOpenSeat(studentList.get(i)));
+    	}
+    	IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+    			() -> courseRoll.setEnrollmentCap(13));
+    	assertEquals("Cannot decrease enrollment capacity below the current number of students in the class.",
+    			e.getMessage());
+    	assertEquals(0, courseRoll.getOpenSeats());
+    	assertEquals(14, courseRoll.getEnrollmentCap());
+    }
+
+    /**
+     * test dropping a student from the middle of the waitlist and that the
+     * rest of the waitlist is promoted in order
+     */
+    @Test
+    public void testDropFromWaitlist() {
+    	Course c = new Course("CSC216", "Programming Concepts - Java", "001", 4, "sesmith5", 10, "A");
+    	CourseRoll courseRoll = c.getCourseRoll();
+    	for (int i = 0; i < 15; i++) {
+    		courseRoll.enroll(studentList.get(i));
+    	}
+    	assertEquals(5, courseRoll.getNumberOnWaitlist());
+    	assertFalse(courseRoll.canEnroll(studentList.get(12)));
+    	assertThrows(IllegalArgumentException.class, () -> courseRoll.enroll(studentList.get(12)));
+
+    	courseRoll.drop(studentList.get(12));
+    	assertEquals(4, courseRoll.getNumberOnWaitlist());
+    	courseRoll.drop(studentList.get(12));
+    	assertEquals(4, courseRoll.getNumberOnWaitlist());
+
+    	// the first student left on the waitlist gets the seat each time
+    	for (int i = 0; i < 4; i++) {
+    		courseRoll.drop(studentList.get(i));
+    	}
+    	assertEquals(0, courseRoll.getNumberOnWaitlist());
+    	assertEquals(0, courseRoll.getOpenSeats());
+    	courseRoll.drop(studentList.get(10));
+    	courseRoll.drop(studentList.get(11));
+    	courseRoll.drop(studentList.get(13));
+    	assertEquals(3, courseRoll.getOpenSeats());
+    	courseRoll.drop(studentList.get(14));
+    	assertEquals(4, courseRoll.getOpenSeats());
+    	assertTrue(courseRoll.canEnroll(studentList.get(0)));
+    	assertFalse(courseRoll.canEnroll(studentList.get(4)));
+    }
+
+    /**
+     * test a course with its own max enrollment and waitlist size, and that the
+     * waitlist promotes the most senior student first
+     */
+    @Test
+    public void testCourseLimits() {
+    	Course c = new Course("CSC216", "Programming Concepts - Java", "001", 4, "sesmith5", 600, 600, 1000, "A", 0, 0);
+    	CourseRoll courseRoll = c.getCourseRoll();
+    	assertEquals(600, courseRoll.getMaxEnrollment());
+    	assertEquals(1000, courseRoll.getWaitlistSize());
+    	assertEquals(600, courseRoll.getOpenSeats());
+    	assertThrows(IllegalArgumentException.class, () -> courseRoll.setEnrollmentCap(601));
+    	assertThrows(IllegalArgumentException.class, () -> new CourseRoll(10, c, 9, 10));
+    	assertThrows(IllegalArgumentException.class, () -> new CourseRoll(10, c, 10, -1));
+
+    	Student[] students = new Student[1600];
+    	for (int i = 0; i < students.length; i++) {
+    		students[i] = new Student("First", "Last", "s" + i, "s" + i + "@ncsu.edu", "pw");
+    		courseRoll.enroll(students[i]);
+    	}
+    	assertEquals(0, courseRoll.getOpenSeats());
+    	assertEquals(1000, courseRoll.getNumberOnWaitlist());
+    	Student extra = new Student("First", "Last", "extra", "extra@ncsu.edu", "pw");
+    	assertThrows(IllegalArgumentException.class, () -> courseRoll.enroll(extra));
+    	assertThrows(IllegalArgumentException.class, () -> courseRoll.setWaitlistSize(999));
+
+    	// the senior student joined last but is promoted first
+    	courseRoll.drop(students[1599]);
+    	students[1599].getSchedule().removeCourseFromSchedule(c);
+    	students[1599].setSeniority(4);
+    	courseRoll.setWaitlistSize(1001);
+    	courseRoll.enroll(students[1599]);
+    	courseRoll.drop(students[0]);
+    	assertFalse(courseRoll.canEnroll(students[1599]));
+    	assertEquals(999, courseRoll.getNumberOnWaitlist());
+
+    	// then the rest of the waitlist in the order they joined
+    	courseRoll.drop(students[1599]);
+    	assertEquals(998, courseRoll.getNumberOnWaitlist());
+    	courseRoll.drop(students[600]);
+    	assertEquals(997, courseRoll.getNumberOnWaitlist());
+    	courseRoll.drop(students[601]);
+    	assertEquals(996, courseRoll.getNumberOnWaitlist());
+    	assertFalse(courseRoll.canEnroll(students[602]));
+    	courseRoll.drop(students[603]);
+    	assertEquals(995, courseRoll.getNumberOnWaitlist());
+    	assertEquals(0, courseRoll.getOpenSeats());
+    }
+
+    /**
+     * test listing the roll and waitlist and restoring them, with the waitlist
+     * keeping the priority each student joined with
+     */
+    @Test
+    public void testRestore() {
+    	Course c = new Course("CSC216", "Programming Concepts - Java", "001", 4, "sesmith5", 10, "A");
+    	CourseRoll courseRoll = c.getCourseRoll();
+    	for (int i = 0; i < 13; i++) {
+    		courseRoll.enroll(studentList.get(i));
+    	}
+    	Student[] enrolled = courseRoll.getEnrolledStudents();
+    	CourseRoll.Waitlisted[] waitlisted = courseRoll.getWaitlistedStudents();
+    	assertEquals(10, enrolled.length);
+    	assertEquals(studentList.get(0), enrolled[0]);
+    	assertEquals(3, waitlisted.length);
+    	assertEquals(studentList.get(10), waitlisted[0].getStudent());
+    	assertEquals(0, waitlisted[0].getSeniority());
+
+    	Course copy = new Course("CSC216", "Programming Concepts - Java", "001", 4, "sesmith5", 10, "A");
+    	CourseRoll restored = copy.getCourseRoll();
+    	CourseRoll.Waitlisted senior = new CourseRoll.Waitlisted(studentList.get(12), 3, 0);
+    	restored.restore(enrolled, new CourseRoll.Waitlisted[] { waitlisted[0], waitlisted[1], senior });
+    	assertEquals(0, restored.getOpenSeats());
+    	assertEquals(3, restored.getNumberOnWaitlist());
+    	assertFalse(restored.canEnroll(studentList.get(12)));
+    	// the student restored with more seniority is promoted first
+    	restored.drop(studentList.get(0));
+    	assertEquals(studentList.get(12), restored.getEnrolledStudents()[9]);
+    	assertEquals(2, restored.getWaitlistedStudents().length);
+
+    	Student[] tooMany = new Student[11];
+    	for (int i = 0; i < tooMany.length; i++) {
+    		tooMany[i] = studentList.get(i);
+    	}
+    	CourseRoll.Waitlisted[] none = new CourseRoll.Waitlisted[0];
+    	assertThrows(IllegalArgumentException.class, () -> restored.restore(tooMany, none));
+    	assertThrows(IllegalArgumentException.class,
+    			() -> restored.restore(new Student[] { studentList.get(0), studentList.get(0) }, none));
+    	assertThrows(IllegalArgumentException.class, () -> restored.restore(new Student[] { studentList.get(0) },
+    			new CourseRoll.Waitlisted[] { new CourseRoll.Waitlisted(studentList.get(0), 0, 0) }));
+    	assertEquals(2, restored.getNumberOnWaitlist());
+
+    	restored.restore(new Student[0], none);
+    	assertEquals(10, restored.getOpenSeats());
+    	assertEquals(0, restored.getNumberOnWaitlist());
+    }
 }
@@ -0,0 +1,115 @@
+package edu.ncsu.csc216.pack_scheduler.course.roll;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+
+/**
+ * Tests the Waitlist class
+ * @author Amulya Jose
+ */
+public class WaitlistTest {
+
+	/**
+	 * Creates a student with the given id and seniority
+	 * @param id the student's id
+	 * @param seniority the student's seniority
+	 * @return the new student
+	 */
+	private Student student(String id, int seniority) {
+		Student s = new Student("First", "Last", id, id + "@ncsu.edu", "pw");
+		s.setSeniority(seniority);
+		return s;
+	}
+
+	/**
+	 * Tests that students are promoted by seniority, then scheduled credits,
+	 * then the order they joined in
+	 */
+	@Test
+	public void testPriority() {
+		Waitlist waitlist = new Waitlist(10);
+		Student fresh = student("fresh", 0);
+		Student freshBusy = student("freshbusy", 0);
+		freshBusy.getSchedule().addCourseToSchedule(
+				new Course("CSC116", "Intro to Programming - Java", "001", 3, null, 10, "A"));
+		Student freshLate = student("freshlate", 0);
+		Student senior = student("senior", 3);
+		Student junior = student("junior", 2);
+
+		waitlist.add(freshBusy);
+		waitlist.add(fresh);
+		waitlist.add(junior);
+		waitlist.add(freshLate);
+		waitlist.add(senior);
+		assertEquals(5, waitlist.size());
+
+		assertEquals(senior, waitlist.poll());
+		assertEquals(junior, waitlist.poll());
+		assertEquals(fresh, waitlist.poll());
+		assertEquals(freshLate, waitlist.poll());
+		assertEquals(freshBusy, waitlist.poll());
+		assertEquals(0, waitlist.size());
+		assertThrows(NoSuchElementException.class, () -> waitlist.poll());
+	}
+
+	/**
+	 * Tests removing students from anywhere on the waitlist
+	 */
+	@Test
+	public void testRemove() {
+		Waitlist waitlist = new Waitlist(1000);
+		for (int i = 0; i < 1000; i++) {
+			waitlist.add(student("s" + i, i % 4));
+		}
+		assertThrows(IllegalArgumentException.class, () -> waitlist.add(student("s5", 0)));
+		assertThrows(IllegalArgumentException.class, () -> waitlist.add(student("extra", 0)));
+
+		for (int i = 0; i < 1000; i += 3) {
+			assertTrue(waitlist.remove("s" + i));
+			assertFalse(waitlist.contains("s" + i));
+		}
+		assertFalse(waitlist.remove("s0"));
+		assertEquals(666, waitlist.size());
+
+		// most senior first, and in the order they joined within each seniority
+		int lastSeniority = Integer.MAX_VALUE;
+		int lastNumber = -1;
+		while (waitlist.size() > 0) {
+			Student s = waitlist.poll();
+			int number = Integer.parseInt(s.getId().substring(1));
+			assertNotEquals(0, number % 3);
+			assertTrue(s.getSeniority() <= lastSeniority);
+			if (s.getSeniority() == lastSeniority) {
+				assertTrue(number > lastNumber);
+			}
+			lastSeniority = s.getSeniority();
+			lastNumber = number;
+		}
+	}
+
+	/**
+	 * Tests the waitlist's capacity
+	 */
+	@Test
+	public void testCapacity() {
+		assertThrows(IllegalArgumentException.class, () -> new Waitlist(-1));
+		Waitlist waitlist = new Waitlist(0);
+		assertThrows(IllegalArgumentException.class, () -> waitlist.add(student("a", 0)));
+		waitlist.setCapacity(2);
+		waitlist.add(student("a", 0));
+		waitlist.add(student("b", 0));
+		assertThrows(IllegalArgumentException.class, () -> waitlist.add(student("c", 0)));
+		Exception e = assertThrows(IllegalArgumentException.class, () -> waitlist.setCapacity(1));
+		assertEquals("Invalid waitlist size.", e.getMessage());
+		waitlist.setCapacity(3);
+		waitlist.add(student("c", 0));
+		assertEquals(3, waitlist.getCapacity());
+		assertEquals("a", waitlist.poll().getId());
+	}
+}
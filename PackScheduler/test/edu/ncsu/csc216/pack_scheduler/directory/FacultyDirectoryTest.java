@@ -214,6 +214,14 @@ public class FacultyDirectoryTest {
 		assertEquals("Halla", facultyDirectory[2][0]);
 		assertEquals("Aguirre", facultyDirectory[2][1]);
 		assertEquals("haguirr", facultyDirectory[2][2]);
+
+		// A removed faculty can't be found or removed again, but can be added back
+		assertNull(fd.getFacultyById("awitt"));
+		assertFalse(fd.removeFaculty("awitt"));
+		assertTrue(fd.addFaculty("Ashely", "Witt", "awitt", "mollis@Fuscealiquetmagna.net", "pw", "pw", 2));
+		assertFalse(fd.addFaculty("Ashely", "Witt", "awitt", "mollis@Fuscealiquetmagna.net", "pw", "pw", 2));
+		assertEquals("awitt", fd.getFacultyById("awitt").getId());
+		assertEquals(8, fd.getFacultyDirectory().length);
 	}
 
 	/**
@@ -232,6 +232,14 @@ public class StudentDirectoryTest {
 		assertEquals("Shannon", studentDirectory[3][0]);
 		assertEquals("Hansen", studentDirectory[3][1]);
 		assertEquals("shansen", studentDirectory[3][2]);
+
+		// A removed student can't be found or removed again, but can be added back
+		assertNull(sd.getStudentById("efrost"));
+		assertFalse(sd.removeStudent("efrost"));
+		assertTrue(sd.addStudent("Emerald", "Frost", "efrost", "adipiscing@acipsumPhasellus.edu", "pw", "pw", 3));
+		assertFalse(sd.addStudent("Emerald", "Frost", "efrost", "adipiscing@acipsumPhasellus.edu", "pw", "pw", 3));
+		assertEquals("efrost", sd.getStudentById("efrost").getId());
+		assertEquals(10, sd.getStudentDirectory().length);
 	}
 
 	/**
@@ -0,0 +1,77 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the AtomicFile class
+ * @author Amulya Jose
+ */
+public class AtomicFileTest {
+
+	/** The file being replaced */
+	private static final String FILE = "test-files/actual_course_records.txt";
+	/** The temporary file written before it is replaced */
+	private static final File TEMP = new File(FILE + ".tmp");
+
+	/**
+	 * Tests that lines are written as println() writes them, and that the file
+	 * is only replaced on commit
+	 */
+	@Test
+	public void testCommit() {
+		StringBuilder longLine = new StringBuilder();
+		while (longLine.length() < 100000) {
+			longLine.append("CSC216,Software Development Fundamentals,001,3,sesmith5,10,TH,1330,1445;");
+		}
+		String[] lines = { "first", "", "caf\u00e9 \ud83d\ude00", longLine.toString() };
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		PrintStream printStream = new PrintStream(expected);
+		for (String line : lines) {
+			printStream.println(line);
+		}
+		printStream.close();
+
+		assertDoesNotThrow(() -> {
+			try (AtomicFile file = new AtomicFile(FILE)) {
+				for (String line : lines) {
+					file.writeLine(line);
+				}
+				file.write(new byte[] { 'x', 'y' }, 1, 1);
+				assertTrue(TEMP.exists());
+				assertNotEquals(expected.size() + 1, new File(FILE).length());
+				file.commit();
+			}
+		});
+		assertFalse(TEMP.exists());
+		ByteArrayOutputStream withByte = new ByteArrayOutputStream();
+		withByte.write(expected.toByteArray(), 0, expected.size());
+		withByte.write('y');
+		assertArrayEquals(withByte.toByteArray(), assertDoesNotThrow(() -> Files.readAllBytes(new File(FILE).toPath())));
+	}
+
+	/**
+	 * Tests that the file keeps its old contents if the new one isn't committed
+	 */
+	@Test
+	public void testCloseWithoutCommit() {
+		byte[] before = assertDoesNotThrow(() -> Files.readAllBytes(new File(FILE).toPath()));
+		assertDoesNotThrow(() -> {
+			try (AtomicFile file = new AtomicFile(FILE)) {
+				file.writeLine("partly written");
+			}
+		});
+		assertFalse(TEMP.exists());
+		assertArrayEquals(before, assertDoesNotThrow(() -> Files.readAllBytes(new File(FILE).toPath())));
+
+		Exception e = assertThrows(FileNotFoundException.class, () -> new AtomicFile("test-files/nonexistent/file.txt"));
+		assertEquals("test-files/nonexistent/file.txt (No such file or directory)", e.getMessage());
+	}
+}
@@ -4,6 +4,8 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import org.junit.Before;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -93,6 +95,26 @@ public class CourseRecordIOTest {
 		}
 	}
 
+	/**
+	 * Tests reading course records in each mode.
+	 * @param mode the mode to read in
+	 */
+	@ParameterizedTest
+	@EnumSource(ReadMode.class)
+	public void testReadCourseRecordsInEachMode(ReadMode mode) {
+		try {
+			SortedList<Course> courses = CourseRecordIO.readCourseRecords(validTestFile, mode);
+			assertEquals(13, courses.size());
+
+			for (int i = 0; i < validCourses.length; i++) {
+				assertEquals(validCourses[i], courses.get(i).toString());
+			}
+			assertEquals(0, CourseRecordIO.readCourseRecords(invalidTestFile, mode).size());
+		} catch (FileNotFoundException e) {
+			fail("Unexpected error reading " + validTestFile);
+		}
+	}
+
 	/**
 	 * Tests readInvalidCourseRecords().
 	 */
@@ -149,4 +171,28 @@ public class CourseRecordIOTest {
 		}
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Tests that a course's own max enrollment and waitlist size are written and read back
+	 */
+	@Test
+	public void testCourseLimitRecords() {
+		SortedList<Course> courses = new SortedList<Course>();
+		courses.add(new Course("CSC116", "Intro to Programming - Java", "003", 3, null, 600, 600, 400, "MW", 1250, 1440));
+		courses.add(new Course("CSC216", "Software Development Fundamentals", "601", 3, null, 10, 250, 30, "A", 0, 0));
+		courses.add(new Course("CSC226", "Discrete Mathematics for Computer Scientists", "001", 3, null, 10, "MWF", 935, 1025));
+
+		try {
+			CourseRecordIO.writeCourseRecords("test-files/actual_course_records.txt", courses);
+			SortedList<Course> read = CourseRecordIO.readCourseRecords("test-files/actual_course_records.txt");
+			assertEquals(3, read.size());
+			for (int i = 0; i < courses.size(); i++) {
+				assertEquals(courses.get(i).toString(), read.get(i).toString());
+			}
+			assertEquals(600, read.get(0).getCourseRoll().getOpenSeats());
+			assertEquals(400, read.get(0).getCourseRoll().getWaitlistSize());
+			assertEquals(30, read.get(1).getCourseRoll().getWaitlistSize());
+		} catch (IOException e) {
+			fail("Cannot write to course records file");
+		}
+	}
+}
@@ -12,6 +12,8 @@ import java.util.Scanner;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 import edu.ncsu.csc216.pack_scheduler.user.Faculty;
 import edu.ncsu.csc216.pack_scheduler.util.LinkedList;
@@ -132,6 +134,27 @@ public class FacultyRecordIOTest {
 		}
 	}
 	
+	/**
+	 * Tests that reading faculty in each mode keeps the first copy and the file order
+	 * @param mode the mode to read in
+	 */
+	@ParameterizedTest
+	@EnumSource(ReadMode.class)
+	public void testReadFacultyRecordsInEachMode(ReadMode mode) {
+		LinkedList<Faculty> faculty = assertDoesNotThrow(
+				() -> FacultyRecordIO.readFacultyRecords("test-files/faculty_records_with_copy.txt", mode),
+				"should not throw exception");
+		assertEquals(8, faculty.size());
+		for (int i = 0; i < 8; i++) {
+			assertEquals(validFaculty[i], faculty.get(i).toString());
+		}
+		assertEquals(0, assertDoesNotThrow(
+				() -> FacultyRecordIO.readFacultyRecords("test-files/invalid_faculty_records.txt", mode),
+				"should not throw exception").size());
+		assertThrows(FileNotFoundException.class,
+				() -> FacultyRecordIO.readFacultyRecords("test_files/szdioflu.txt", mode));
+	}
+	
 	/**
 	 * Tests FacultyRecordIO.readFacultyRecords() for a file full of invalid faculty
 	 */
@@ -0,0 +1,207 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the Journal class
+ * @author Amulya Jose
+ */
+public class JournalTest {
+
+	/** A file standing in for the snapshot the journal follows */
+	private static final String SNAPSHOT_FILE = "test-files/course_records.txt";
+	/** The file journals are written to */
+	private String journalFile;
+
+	/**
+	 * Makes a temporary file for the journals
+	 * @throws IOException if the file cannot be made
+	 */
+	@BeforeEach
+	public void setUp() throws IOException {
+		journalFile = File.createTempFile("journal", ".txt").getPath();
+	}
+
+	/**
+	 * Deletes the temporary file
+	 */
+	@AfterEach
+	public void tearDown() {
+		new File(journalFile).delete();
+	}
+
+	/**
+	 * Tests that committed entries are read back when the journal is opened, and
+	 * that entries appended after opening it follow them
+	 */
+	@Test
+	public void testCommitAndOpen() {
+		assertDoesNotThrow(() -> {
+			try (Journal journal = Journal.start(journalFile, SNAPSHOT_FILE)) {
+				assertEquals(1, journal.append("enroll", "efrost", "CSC216", "001"));
+				long last = journal.append("drop", "efrost", "CSC216", "001");
+				journal.commit(last);
+				journal.commit(1);
+				journal.append("reset", "");
+			}
+			try (Journal journal = Journal.open(journalFile, SNAPSHOT_FILE)) {
+				ArrayList<String[]> entries = journal.getRecovered();
+				assertEquals(3, entries.size());
+				assertArrayEquals(new String[] { "enroll", "efrost", "CSC216", "001" }, entries.get(0));
+				assertArrayEquals(new String[] { "drop", "efrost", "CSC216", "001" }, entries.get(1));
+				assertArrayEquals(new String[] { "reset", "" }, entries.get(2));
+				journal.commit(journal.append("enroll", "ahicks", "CSC116", "003"));
+			}
+			try (Journal journal = Journal.open(journalFile, SNAPSHOT_FILE)) {
+				assertEquals(4, journal.getRecovered().size());
+				assertEquals("ahicks", journal.getRecovered().get(3)[1]);
+			}
+		});
+	}
+
+	/**
+	 * Tests appending and committing through the helpers that skip a missing
+	 * journal, and that a failed commit is reported as the managers report it
+	 */
+	@Test
+	public void testAppendAndCommitHelpers() {
+		assertEquals(0, Journal.appendTo(null, "enroll", "efrost", "CSC216", "001"));
+		Journal.commitTo(null, 1);
+
+		Journal journal = assertDoesNotThrow(() -> Journal.start(journalFile, SNAPSHOT_FILE));
+		Journal.commitTo(journal, Journal.appendTo(journal, "enroll", "efrost", "CSC216", "001"));
+		Journal.commitTo(journal, 0);
+		assertDoesNotThrow(() -> journal.close());
+		long entry = Journal.appendTo(journal, "drop", "efrost", "CSC216", "001");
+		Exception e = assertThrows(IllegalArgumentException.class, () -> Journal.commitTo(journal, entry));
+		assertEquals("Unable to write to journal", e.getMessage());
+
+		assertDoesNotThrow(() -> {
+			try (Journal reopened = Journal.open(journalFile, SNAPSHOT_FILE)) {
+				assertEquals(1, reopened.getRecovered().size());
+				assertEquals("enroll", reopened.getRecovered().get(0)[0]);
+			}
+		});
+	}
+
+	/**
+	 * Tests that a partly written entry, and everything after it, is dropped
+	 * from the journal when it is opened
+	 */
+	@Test
+	public void testOpenDamaged() {
+		long length = assertDoesNotThrow(() -> {
+			try (Journal journal = Journal.start(journalFile, SNAPSHOT_FILE)) {
+				journal.commit(journal.append("enroll", "efrost", "CSC216", "001"));
+			}
+			return new File(journalFile).length();
+		});
+
+		// a line with the wrong checksum, then one cut off before its line break
+		appendText("drop,efrost,CSC216,001,0\nenroll,ahicks,CSC");
+		assertDoesNotThrow(() -> {
+			try (Journal journal = Journal.open(journalFile, SNAPSHOT_FILE)) {
+				assertEquals(1, journal.getRecovered().size());
+				assertEquals(length, new File(journalFile).length());
+				journal.commit(journal.append("drop", "efrost", "CSC216", "001"));
+			}
+			try (Journal journal = Journal.open(journalFile, SNAPSHOT_FILE)) {
+				assertEquals(2, journal.getRecovered().size());
+				assertEquals("drop", journal.getRecovered().get(1)[0]);
+			}
+		});
+	}
+
+	/**
+	 * Tests that a journal that follows a different snapshot, or doesn't exist,
+	 * is started over
+	 */
+	@Test
+	public void testOpenOtherSnapshot() {
+		assertDoesNotThrow(() -> {
+			try (Journal journal = Journal.start(journalFile, SNAPSHOT_FILE)) {
+				journal.commit(journal.append("enroll", "efrost", "CSC216", "001"));
+			}
+			try (Journal journal = Journal.open(journalFile, "test-files/student_records.txt")) {
+				assertEquals(0, journal.getRecovered().size());
+			}
+			try (Journal journal = Journal.open(journalFile, SNAPSHOT_FILE)) {
+				assertEquals(0, journal.getRecovered().size());
+			}
+		});
+		assertTrue(new File(journalFile).delete());
+		assertDoesNotThrow(() -> {
+			try (Journal journal = Journal.open(journalFile, SNAPSHOT_FILE)) {
+				assertEquals(0, journal.getRecovered().size());
+			}
+		});
+		assertThrows(IOException.class, () -> Journal.start(journalFile, "test-files/nonexistent.bin"));
+	}
+
+	/**
+	 * Tests that entries committed by several threads at once are all kept, each
+	 * thread's in the order it appended them
+	 */
+	@Test
+	public void testConcurrentCommit() {
+		int threads = 4;
+		int entries = 200;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try (Journal journal = Journal.start(journalFile, SNAPSHOT_FILE)) {
+			ArrayList<Future<?>> futures = new ArrayList<Future<?>>();
+			for (int t = 0; t < threads; t++) {
+				String thread = "t" + t;
+				futures.add(pool.submit(() -> {
+					for (int i = 0; i < entries; i++) {
+						journal.commit(journal.append(thread, "" + i));
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (Exception e) {
+			fail("Unexpected error committing entries: " + e);
+		} finally {
+			pool.shutdown();
+		}
+
+		ArrayList<String[]> recovered = assertDoesNotThrow(() -> {
+			try (Journal journal = Journal.open(journalFile, SNAPSHOT_FILE)) {
+				return journal.getRecovered();
+			}
+		});
+		assertEquals(threads * entries, recovered.size());
+		int[] next = new int[threads];
+		for (String[] entry : recovered) {
+			int t = Integer.parseInt(entry[0].substring(1));
+			assertEquals(next[t]++, Integer.parseInt(entry[1]));
+		}
+	}
+
+	/**
+	 * Appends text to the end of the journal file
+	 * @param text the text to append
+	 */
+	private void appendText(String text) {
+		try (FileOutputStream out = new FileOutputStream(journalFile, true)) {
+			out.write(text.getBytes(StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			fail("Unable to write " + journalFile);
+		}
+	}
+}
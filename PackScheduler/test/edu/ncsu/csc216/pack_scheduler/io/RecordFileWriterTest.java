@@ -0,0 +1,175 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+
+/**
+ * Tests the RecordFileWriter class
+ * @author Amulya Jose
+ */
+public class RecordFileWriterTest {
+
+	/** The file records are written to */
+	private static final String RECORD_FILE = "test-files/actual_course_records.txt";
+	/** The writer being tested */
+	private RecordFileWriter<Course> writer;
+	/** The courses being saved */
+	private Course[] courses;
+
+	/**
+	 * Creates a writer and some courses to save
+	 */
+	@BeforeEach
+	public void setUp() {
+		writer = new RecordFileWriter<Course>(Course::getVersion);
+		courses = new Course[] { new Course("CSC116", "Intro to Programming - Java", "001", 3, "jdyoung2", 10, "MW", 910, 1100),
+				new Course("CSC216", "Software Development Fundamentals", "001", 3, "sesmith5", 10, "TH", 1330, 1445),
+				new Course("CSC226", "Discrete Mathematics for Computer Scientists", "001", 3, "tmbarnes", 10, "MWF", 935, 1025),
+				new Course("CSC230", "C and Software Tools", "001", 3, "dbsturgi", 10, "A") };
+	}
+
+	/**
+	 * Tests that only changed courses are written, and that the file always
+	 * holds what a full save would write
+	 */
+	@Test
+	public void testWriteIncremental() {
+		assertEquals(4, write(SaveMode.INCREMENTAL));
+		assertFileHolds(courses);
+		assertEquals(0, write(SaveMode.INCREMENTAL));
+
+		// same length lines are written over
+		courses[1].setCredits(4);
+		courses[3].setTitle("C and Software Toolz");
+		assertEquals(2, write(SaveMode.INCREMENTAL));
+		assertFileHolds(courses);
+
+		// a longer line is written along with everything after it
+		courses[1].setInstructorId("jctetter");
+		courses[2].getCourseRoll().setEnrollmentCap(100);
+		assertEquals(3, write(SaveMode.INCREMENTAL));
+		assertFileHolds(courses);
+		courses[3].setInstructorId(null);
+		assertEquals(1, write(SaveMode.INCREMENTAL));
+		assertFileHolds(courses);
+
+		// added and removed courses
+		Course added = new Course("CSC217", "Software Development Fundamentals Lab", "211", 1, "sesmith5", 10, "M", 1040, 1230);
+		courses = new Course[] { courses[0], courses[1], added, courses[2], courses[3] };
+		assertEquals(3, write(SaveMode.INCREMENTAL));
+		assertFileHolds(courses);
+		courses = Arrays.copyOf(courses, 4);
+		assertEquals(0, write(SaveMode.INCREMENTAL));
+		assertFileHolds(courses);
+
+		assertEquals(4, write(SaveMode.FULL));
+		assertFileHolds(courses);
+	}
+
+	/**
+	 * Tests that lines that keep their length are written in place, and that a
+	 * save that changes the length of a line writes a new file that replaces
+	 * the old one instead of cutting the old one short
+	 */
+	@Test
+	public void testRewriteReplacesFile() {
+		assertEquals(4, write(SaveMode.INCREMENTAL));
+		Object key = fileKey();
+
+		courses[1].setCredits(4);
+		assertEquals(1, write(SaveMode.INCREMENTAL));
+		assertFileHolds(courses);
+		assertEquals(key, fileKey());
+
+		courses[0].setCredits(4);
+		courses[2].setInstructorId("jtking");
+		assertEquals(3, write(SaveMode.INCREMENTAL));
+		assertFileHolds(courses);
+		assumeReplaced(key);
+		assertFalse(new File(RECORD_FILE + ".tmp").exists());
+
+		key = fileKey();
+		courses = Arrays.copyOf(courses, 3);
+		assertEquals(0, write(SaveMode.INCREMENTAL));
+		assertFileHolds(courses);
+		assumeReplaced(key);
+	}
+
+	/**
+	 * Checks that the record file was replaced by a new one, where the file
+	 * system can tell files apart
+	 * @param key the key of the file before it should have been replaced
+	 */
+	private void assumeReplaced(Object key) {
+		if (key != null) {
+			assertNotEquals(key, fileKey());
+		}
+	}
+
+	/**
+	 * Returns the key the file system tells the record file apart from others by
+	 * @return the key of the record file, or null if the file system has none
+	 */
+	private Object fileKey() {
+		return assertDoesNotThrow(
+				() -> Files.readAttributes(new File(RECORD_FILE).toPath(), BasicFileAttributes.class).fileKey());
+	}
+
+	/**
+	 * Tests that the whole file is written if it changed since the last save
+	 */
+	@Test
+	public void testWriteAfterOtherChange() {
+		assertEquals(4, write(SaveMode.INCREMENTAL));
+		try (FileOutputStream out = new FileOutputStream(RECORD_FILE, true)) {
+			out.write('x');
+		} catch (IOException e) {
+			fail("Unable to write " + RECORD_FILE);
+		}
+		assertEquals(4, write(SaveMode.INCREMENTAL));
+		assertFileHolds(courses);
+
+		assertTrue(new File(RECORD_FILE).delete());
+		assertEquals(4, write(SaveMode.INCREMENTAL));
+		assertFileHolds(courses);
+
+		writer.reset();
+		assertEquals(4, write(SaveMode.INCREMENTAL));
+		assertThrows(IOException.class, () -> writer.write("test-files/nonexistent/records.txt", courses, SaveMode.FULL));
+	}
+
+	/**
+	 * Saves the courses to the record file
+	 * @param mode how to save them
+	 * @return the number of courses written
+	 */
+	private int write(SaveMode mode) {
+		return assertDoesNotThrow(() -> writer.write(RECORD_FILE, courses, mode));
+	}
+
+	/**
+	 * Checks that the record file holds a line for each course, as a full save
+	 * writes it
+	 * @param expected the courses the file should hold
+	 */
+	private void assertFileHolds(Course[] expected) {
+		StringBuilder text = new StringBuilder();
+		for (Course c : expected) {
+			text.append(c.toString()).append(System.lineSeparator());
+		}
+		byte[] actual = assertDoesNotThrow(() -> Files.readAllBytes(new File(RECORD_FILE).toPath()));
+		assertEquals(text.toString(), new String(actual, Charset.defaultCharset()));
+	}
+}
@@ -0,0 +1,103 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the RecordFiles class
+ * @author Amulya Jose
+ */
+public class RecordFilesTest {
+
+	/**
+	 * Parses the first field of a line, rejecting lines that start with "x"
+	 * @param tokenizer the tokenizer reset to the line
+	 * @return the first field of the line
+	 */
+	private static String firstField(RecordTokenizer tokenizer) {
+		String field = tokenizer.hasNext() ? tokenizer.next() : "";
+		if (field.startsWith("x")) {
+			throw new IllegalArgumentException();
+		}
+		return field;
+	}
+
+	/**
+	 * Tests that text split into many chunks is parsed into the same lines, in
+	 * the same order, as BufferedReader.readLine() reads them
+	 */
+	@Test
+	public void testParseParallel() {
+		String[] endings = { "\n", "\r\n", "\r" };
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; text.length() < 1 << 20; i++) {
+			text.append(i % 7 == 0 ? "x" : "").append(i).append(",field,").append(i % 3).append(endings[i % 3]);
+			if (i % 11 == 0) {
+				text.append(endings[i % 2]);
+			}
+		}
+		text.append("last,line");
+
+		ArrayList<String> expected = new ArrayList<String>();
+		RecordTokenizer tokenizer = new RecordTokenizer();
+		try (BufferedReader reader = new BufferedReader(new StringReader(text.toString()))) {
+			for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+				try {
+					expected.add(firstField(tokenizer.reset(line)));
+				} catch (IllegalArgumentException e) {
+					// skipped like readRecords() does
+				}
+			}
+		} catch (IOException e) {
+			fail("Unexpected error reading text");
+		}
+
+		assertEquals(expected, RecordFiles.parseParallel(text.toString(), RecordFilesTest::firstField));
+		assertEquals("last", expected.get(expected.size() - 1));
+		assertEquals(0, RecordFiles.parseParallel("", RecordFilesTest::firstField).size());
+	}
+
+	/**
+	 * Tests that reading a mapped file gives the same records as reading it
+	 * line by line, however the file is split into mapped windows
+	 * @throws IOException if the temporary file can't be written
+	 */
+	@Test
+	public void testReadMapped() throws IOException {
+		File file = File.createTempFile("mapped_records", ".txt");
+		String fileName = file.getPath();
+		String[] endings = { "\n", "\r\n", "\r" };
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 500; i++) {
+			text.append(i % 7 == 0 ? "x" : "").append(i).append(",f".repeat(i % 5)).append(endings[i % 3]);
+		}
+		text.append("last");
+		try {
+			try (FileOutputStream out = new FileOutputStream(file)) {
+				out.write(text.toString().getBytes());
+			}
+			ArrayList<String> expected = RecordFiles.readRecords(fileName, ReadMode.SEQUENTIAL, RecordFilesTest::firstField);
+			assertEquals("last", expected.get(expected.size() - 1));
+			assertEquals(expected, RecordFiles.readRecords(fileName, ReadMode.MAPPED, RecordFilesTest::firstField));
+			for (int window = 16; window < 40; window++) {
+				assertEquals(expected, RecordFiles.readMapped(fileName, RecordFilesTest::firstField, window));
+			}
+			assertThrows(FileNotFoundException.class, () -> RecordFiles.readMapped(fileName, RecordFilesTest::firstField, 4));
+		} catch (FileNotFoundException e) {
+			fail("Unexpected error reading " + fileName);
+		} finally {
+			file.delete();
+		}
+		assertThrows(FileNotFoundException.class,
+				() -> RecordFiles.readRecords("test-files/nonexistent.txt", ReadMode.MAPPED, RecordFilesTest::firstField));
+	}
+}
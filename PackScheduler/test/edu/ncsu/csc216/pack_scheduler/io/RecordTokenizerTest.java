@@ -0,0 +1,102 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests the RecordTokenizer class
+ * @author Amulya Jose
+ */
+public class RecordTokenizerTest {
+
+	/**
+	 * Tests that lines are split into the same fields a Scanner with a ","
+	 * delimiter would give
+	 * @param line the line to split
+	 */
+	@ParameterizedTest
+	@ValueSource(strings = { "", ",", ",,", "a", "a,", "a,,", ",a", ",,a", "a,,b", "a,b,", "a,b,,", " a , b", "a,,,b", "\u00e9t\u00e9,\u00fcber",
+			"CSC216,Software Development Fundamentals,001,3,sesmith5,10,MW,1330,1445" })
+	public void testSameFieldsAsScanner(String line) {
+		Scanner scanner = new Scanner(line);
+		scanner.useDelimiter(",");
+		ArrayList<String> expected = new ArrayList<String>();
+		while (scanner.hasNext()) {
+			expected.add(scanner.next());
+		}
+		scanner.close();
+
+		RecordTokenizer tokenizer = new RecordTokenizer().reset(line);
+		ArrayList<String> actual = new ArrayList<String>();
+		while (tokenizer.hasNext()) {
+			actual.add(tokenizer.next());
+		}
+		assertEquals(expected, actual);
+		assertThrows(NoSuchElementException.class, () -> tokenizer.next());
+
+		// the line in the middle of a buffer, split from its bytes
+		byte[] bytes = ("xx\n" + line + "\nyy").getBytes(StandardCharsets.UTF_8);
+		RecordTokenizer byteTokenizer = new ByteRecordTokenizer(StandardCharsets.UTF_8)
+				.reset(bytes, 3, bytes.length - 3);
+		actual.clear();
+		while (byteTokenizer.hasNext()) {
+			actual.add(byteTokenizer.next());
+		}
+		assertEquals(expected, actual);
+		assertThrows(NoSuchElementException.class, () -> byteTokenizer.next());
+	}
+
+	/**
+	 * Tests reading ints and reusing the tokenizer
+	 */
+	@Test
+	public void testNextInt() {
+		RecordTokenizer tokenizer = new RecordTokenizer().reset("10,-5,+7,abc,,2147483648");
+		assertEquals(10, tokenizer.nextInt());
+		assertEquals(-5, tokenizer.nextInt());
+		assertEquals(7, tokenizer.nextInt());
+		assertThrows(InputMismatchException.class, () -> tokenizer.nextInt());
+		assertThrows(InputMismatchException.class, () -> tokenizer.nextInt());
+		assertThrows(InputMismatchException.class, () -> tokenizer.nextInt());
+		assertFalse(tokenizer.hasNext());
+		assertThrows(NoSuchElementException.class, () -> tokenizer.nextInt());
+
+		tokenizer.reset("MW,1330");
+		assertEquals("MW", tokenizer.next());
+		assertTrue(tokenizer.hasNext());
+		assertEquals(1330, tokenizer.nextInt());
+		assertFalse(tokenizer.hasNext());
+	}
+
+	/**
+	 * Tests reading ints straight from bytes, which must match Integer.parseInt()
+	 */
+	@Test
+	public void testNextIntFromBytes() {
+		String line = "10,-5,+7,abc,,2147483647,-2147483648,2147483648,-2147483649,99999999999999999999,+,-,1-,\u0663\u0664";
+		byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+		RecordTokenizer tokenizer = new ByteRecordTokenizer(StandardCharsets.UTF_8).reset(bytes, 0, bytes.length);
+		assertEquals(10, tokenizer.nextInt());
+		assertEquals(-5, tokenizer.nextInt());
+		assertEquals(7, tokenizer.nextInt());
+		assertThrows(InputMismatchException.class, () -> tokenizer.nextInt());
+		assertThrows(InputMismatchException.class, () -> tokenizer.nextInt());
+		assertEquals(Integer.MAX_VALUE, tokenizer.nextInt());
+		assertEquals(Integer.MIN_VALUE, tokenizer.nextInt());
+		for (int i = 0; i < 5; i++) {
+			assertThrows(InputMismatchException.class, () -> tokenizer.nextInt());
+		}
+		assertThrows(InputMismatchException.class, () -> tokenizer.nextInt());
+		assertEquals(34, tokenizer.nextInt());
+		assertFalse(tokenizer.hasNext());
+	}
+}
@@ -0,0 +1,194 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.course.roll.CourseRoll;
+import edu.ncsu.csc216.pack_scheduler.user.Faculty;
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+
+/**
+ * Tests the SnapshotIO class
+ * @author Amulya Jose
+ */
+public class SnapshotIOTest {
+
+	/** The file snapshots are written to */
+	private String snapshotFile;
+
+	/**
+	 * Makes a temporary file for the snapshots
+	 * @throws IOException if the file cannot be made
+	 */
+	@BeforeEach
+	public void setUp() throws IOException {
+		snapshotFile = File.createTempFile("snapshot", ".bin").getPath();
+	}
+
+	/**
+	 * Deletes the temporary file
+	 */
+	@AfterEach
+	public void tearDown() {
+		new File(snapshotFile).delete();
+	}
+
+	/**
+	 * Tests that a snapshot keeps the catalog, the directories and how they are
+	 * linked together
+	 */
+	@Test
+	public void testWriteAndReadSnapshot() {
+		Course[] courses = { new Course("CSC116", "Intro to Programming - Java", "001", 3, null, 10, "MW", 910, 1100),
+				new Course("CSC216", "Software Development Fundamentals", "001", 3, null, 10, 20, 2, "TH", 1330, 1445),
+				new Course("CSC230", "C and Software Tools", "001", 3, "nobody", 10, "A") };
+		Faculty[] faculty = { new Faculty("Sarah", "Heckman", "sesmith5", "sesmith5@ncsu.edu", "pw", 2) };
+		faculty[0].getSchedule().addCourseToSchedule(courses[1]);
+		Student[] students = new Student[12];
+		for (int i = 0; i < students.length; i++) {
+			students[i] = new Student("First" + i, "Last", "s" + i, "s" + i + "@ncsu.edu", "pw", 12);
+			students[i].setSeniority(i % 4);
+			if (i < 10) {
+				courses[1].getCourseRoll().enroll(students[i]);
+				students[i].getSchedule().addCourseToSchedule(courses[1]);
+			}
+		}
+		students[0].getSchedule().addCourseToSchedule(courses[0]);
+		courses[0].getCourseRoll().enroll(students[0]);
+		students[0].getSchedule().setTitle("Fall");
+		courses[1].getCourseRoll().enroll(students[11]);
+		courses[1].getCourseRoll().enroll(students[10]);
+
+		SnapshotIO.Snapshot snapshot = assertDoesNotThrow(() -> {
+			SnapshotIO.writeSnapshot(snapshotFile, courses, students, faculty);
+			return SnapshotIO.readSnapshot(snapshotFile);
+		});
+
+		Course[] readCourses = snapshot.getCourses();
+		assertEquals(3, readCourses.length);
+		for (int i = 0; i < courses.length; i++) {
+			assertEquals(courses[i].toString(), readCourses[i].toString());
+		}
+		assertEquals("sesmith5", readCourses[1].getInstructorId());
+		assertEquals("nobody", readCourses[2].getInstructorId());
+		assertEquals(1, snapshot.getFaculty().size());
+		Faculty readFaculty = snapshot.getFaculty().get(0);
+		assertEquals(faculty[0].toString(), readFaculty.toString());
+		assertEquals(1, readFaculty.getSchedule().getNumScheduledCourses());
+
+		Student[] readStudents = snapshot.getStudents();
+		assertEquals(12, readStudents.length);
+		Student first = null;
+		for (int i = 0; i < readStudents.length; i++) {
+			Student s = readStudents[i];
+			Student original = students[Integer.parseInt(s.getId().substring(1))];
+			assertEquals(original.toString(), s.toString());
+			assertEquals(original.getSeniority(), s.getSeniority());
+			assertTrue(Arrays.deepEquals(original.getSchedule().getScheduledCourses(),
+					s.getSchedule().getScheduledCourses()));
+			if ("s0".equals(s.getId())) {
+				first = s;
+			}
+		}
+		assertEquals("Fall", first.getSchedule().getTitle());
+
+		CourseRoll roll = readCourses[1].getCourseRoll();
+		assertEquals(20, roll.getMaxEnrollment());
+		assertEquals(2, roll.getWaitlistSize());
+		assertEquals(0, roll.getOpenSeats());
+		assertEquals(first, roll.getEnrolledStudents()[0]);
+		CourseRoll.Waitlisted[] waitlisted = roll.getWaitlistedStudents();
+		assertEquals("s11", waitlisted[0].getStudent().getId());
+		assertEquals(3, waitlisted[0].getSeniority());
+		assertEquals("s10", waitlisted[1].getStudent().getId());
+		assertEquals(9, readCourses[0].getCourseRoll().getOpenSeats());
+
+		// the restored students and courses are linked, so a drop promotes the senior student
+		roll.drop(first);
+		assertEquals("s11", roll.getEnrolledStudents()[9].getId());
+		assertEquals(1, first.getSchedule().getScheduledCourses().length);
+	}
+
+	/**
+	 * Tests reading files that aren't valid snapshots
+	 */
+	@Test
+	public void testReadInvalidSnapshot() {
+		assertThrows(FileNotFoundException.class, () -> SnapshotIO.readSnapshot("test-files/nonexistent.bin"));
+		Exception e = assertThrows(IOException.class, () -> SnapshotIO.readSnapshot("test-files/course_records.txt"));
+		assertEquals("Not a snapshot", e.getMessage());
+
+		byte[] bytes = assertDoesNotThrow(() -> {
+			Course course = new Course("CSC116", "Intro to Programming - Java", "001", 3, null, 10, "A");
+			SnapshotIO.writeSnapshot(snapshotFile, new Course[] { course }, new Student[0], new Faculty[0]);
+			try (FileInputStream in = new FileInputStream(snapshotFile)) {
+				return in.readAllBytes();
+			}
+		});
+		assertEquals(1, assertDoesNotThrow(() -> SnapshotIO.readSnapshot(snapshotFile)).getCourses().length);
+
+		// cut short
+		writeBytes(Arrays.copyOf(bytes, bytes.length - 3));
+		assertThrows(IOException.class, () -> SnapshotIO.readSnapshot(snapshotFile));
+
+		// from a later version
+		byte[] later = bytes.clone();
+		later[4] = SnapshotIO.VERSION + 1;
+		writeBytes(later);
+		e = assertThrows(IOException.class, () -> SnapshotIO.readSnapshot(snapshotFile));
+		assertEquals("Unsupported snapshot version " + (SnapshotIO.VERSION + 1), e.getMessage());
+
+		// two courses with the same name and section
+		Course course = new Course("CSC116", "Intro to Programming - Java", "001", 3, null, 10, "A");
+		Course copy = new Course("CSC116", "Intro to Programming", "001", 3, null, 10, "A");
+		assertDoesNotThrow(() -> SnapshotIO.writeSnapshot(snapshotFile, new Course[] { course, copy }, new Student[0],
+				new Faculty[0]));
+		e = assertThrows(IOException.class, () -> SnapshotIO.readSnapshot(snapshotFile));
+		assertEquals("Duplicate course", e.getCause().getMessage());
+	}
+
+	/**
+	 * Tests that records written out of order are read back in order
+	 */
+	@Test
+	public void testReadSorted() {
+		Course[] courses = { new Course("CSC226", "Discrete Mathematics for Computer Scientists", "001", 3, null, 10, "A"),
+				new Course("CSC116", "Intro to Programming - Java", "002", 3, null, 10, "A"),
+				new Course("CSC116", "Intro to Programming - Java", "001", 3, null, 10, "A") };
+		Student[] students = { new Student("Zahir", "King", "zking", "zking@ncsu.edu", "pw"),
+				new Student("Althea", "Hicks", "ahicks", "ahicks@ncsu.edu", "pw") };
+		SnapshotIO.Snapshot snapshot = assertDoesNotThrow(() -> {
+			SnapshotIO.writeSnapshot(snapshotFile, courses, students, new Faculty[0]);
+			return SnapshotIO.readSnapshot(snapshotFile);
+		});
+		Course[] readCourses = snapshot.getCourses();
+		assertEquals("CSC116-001", readCourses[0].getName() + "-" + readCourses[0].getSection());
+		assertEquals("CSC116-002", readCourses[1].getName() + "-" + readCourses[1].getSection());
+		assertEquals("CSC226-001", readCourses[2].getName() + "-" + readCourses[2].getSection());
+		assertEquals("ahicks", snapshot.getStudents()[0].getId());
+		assertEquals("zking", snapshot.getStudents()[1].getId());
+	}
+
+	/**
+	 * Writes bytes to the snapshot file
+	 * @param bytes the bytes to write
+	 */
+	private void writeBytes(byte[] bytes) {
+		try (FileOutputStream out = new FileOutputStream(snapshotFile)) {
+			out.write(bytes);
+		} catch (IOException e) {
+			fail("Unable to write " + snapshotFile);
+		}
+	}
+}
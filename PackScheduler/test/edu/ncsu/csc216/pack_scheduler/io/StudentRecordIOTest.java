@@ -15,6 +15,8 @@ import java.util.Scanner;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 import edu.ncsu.csc216.pack_scheduler.user.Student;
 import edu.ncsu.csc217.collections.list.SortedList;
@@ -146,6 +148,41 @@ class StudentRecordIOTest {
 		}
 	}
 
+	/**
+	 * Tests that reading students in each mode gives the same students
+	 * @param mode the mode to read in
+	 */
+	@ParameterizedTest
+	@EnumSource(ReadMode.class)
+	public void testReadStudentRecordsInEachMode(ReadMode mode) {
+		SortedList<Student> students = assertDoesNotThrow(
+				() -> StudentRecordIO.readStudentRecords("test-files/student_records_with_copy.txt", mode),
+				"should not throw exception");
+		assertEquals(10, students.size());
+		for (int i = 0; i < 10; i++) {
+			assertEquals(validStudents[i], students.get(i).toString());
+		}
+		assertThrows(FileNotFoundException.class,
+				() -> StudentRecordIO.readStudentRecords("test-files/nonexistent.txt", mode));
+	}
+
+	/**
+	 * Tests that a seniority after a student's max credits is read and written
+	 * back, and that a student without one has none
+	 */
+	@Test
+	public void testReadStudentRecordsSeniority() {
+		SortedList<Student> students = assertDoesNotThrow(
+				() -> StudentRecordIO.readStudentRecords("test-files/seniority_student_records.txt"),
+				"should not throw exception");
+		assertEquals(2, students.size());
+		assertEquals("zking", students.get(0).getId());
+		assertEquals(3, students.get(0).getSeniority());
+		assertEquals(0, students.get(1).getSeniority());
+		assertTrue(students.get(0).toString().endsWith(",15,3"));
+		assertTrue(students.get(1).toString().endsWith(",4"));
+	}
+
 	/**
 	 * Tests StudendRecordIO.readStudentRecords() for a file full of invalid
 	 * students
@@ -2,6 +2,7 @@ package edu.ncsu.csc216.pack_scheduler.manager;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -9,13 +10,26 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import edu.ncsu.csc216.pack_scheduler.catalog.CourseCatalog;
+import edu.ncsu.csc216.pack_scheduler.course.Course;
 import edu.ncsu.csc216.pack_scheduler.directory.FacultyDirectory;
 import edu.ncsu.csc216.pack_scheduler.directory.StudentDirectory;
+import edu.ncsu.csc216.pack_scheduler.user.PasswordHasher;
+import edu.ncsu.csc216.pack_scheduler.user.PasswordScheme;
+import edu.ncsu.csc216.pack_scheduler.user.Pbkdf2Scheme;
+import edu.ncsu.csc216.pack_scheduler.user.Sha256Scheme;
 import edu.ncsu.csc216.pack_scheduler.user.Student;
 import edu.ncsu.csc216.pack_scheduler.user.schedule.FacultySchedule;
 import edu.ncsu.csc216.pack_scheduler.user.schedule.Schedule;
@@ -482,6 +496,406 @@ public class RegistrationManagerTest {
 
 	}
 
+	/**
+	 * Tests opening, using, and closing sessions
+	 */
+	@Test
+	public void testSessions() {
+		manager.getStudentDirectory().addStudent(FIRST_NAME, LAST_NAME, ID, EMAIL, PASSWORD, PASSWORD, MAX_CREDITS);
+		manager.getStudentDirectory().addStudent("Zahir", "King", "zking", "orci.Donec@ametmassaQuisque.com", PASSWORD, PASSWORD, MAX_CREDITS);
+		CourseCatalog catalog = manager.getCourseCatalog();
+		catalog.loadCoursesFromFile("test-files/course_records.txt");
+		Course course = catalog.getCourseFromCatalog("CSC216", "001");
+
+		// Bad logins
+		assertNull(manager.openSession(ID, "wrong"));
+		assertThrows(IllegalArgumentException.class, () -> manager.openSession("nobody", PASSWORD));
+
+		// Two students logged in at once, without touching the current user
+		Session s1 = manager.openSession(ID, PASSWORD);
+		Session s2 = manager.openSession("zking", PASSWORD);
+		assertNull(manager.getCurrentUser());
+		assertNotEquals(s1.getToken(), s2.getToken());
+		assertSame(s1, manager.getSession(s1.getToken()));
+		assertEquals(ID, s1.getUser().getId());
+
+		assertTrue(manager.enrollStudentInCourse(s1, course));
+		assertTrue(manager.enrollStudentInCourse(s2, course));
+		assertFalse(manager.enrollStudentInCourse(s1, course));
+		assertEquals(8, course.getCourseRoll().getOpenSeats());
+		assertTrue(manager.dropStudentFromCourse(s2, course));
+		assertEquals(0, ((Student) s2.getUser()).getSchedule().getScheduledCourses().length);
+		manager.resetSchedule(s1);
+		assertEquals(10, course.getCourseRoll().getOpenSeats());
+
+		// Only registrar sessions can assign faculty
+		assertThrows(IllegalArgumentException.class, () -> manager.resetFacultySchedule(s1, null));
+
+		// Closed sessions can't be used
+		manager.closeSession(s1);
+		assertNull(manager.getSession(s1.getToken()));
+		assertThrows(IllegalArgumentException.class, () -> manager.enrollStudentInCourse(s1, course));
+		assertSame(s2, manager.getSession(s2.getToken()));
+	}
+
+	/**
+	 * Tests that a password hashed with an older scheme is hashed again with
+	 * the current one when the user logs in
+	 */
+	@Test
+	public void testLoginRehash() {
+		manager.getStudentDirectory().addStudent(FIRST_NAME, LAST_NAME, ID, EMAIL, PASSWORD, PASSWORD, MAX_CREDITS);
+		Student s = manager.getStudentDirectory().getStudentById(ID);
+		assertEquals(hashPW(PASSWORD), s.getPassword());
+		int version = s.getVersion();
+
+		PasswordScheme before = PasswordHasher.getScheme();
+		try {
+			PasswordHasher.setScheme(new Pbkdf2Scheme(1000));
+			assertNull(manager.openSession(ID, "wrong"));
+			assertEquals(hashPW(PASSWORD), s.getPassword());
+
+			assertNotNull(manager.openSession(ID, PASSWORD));
+			String rehashed = s.getPassword();
+			assertTrue(rehashed.startsWith("pbkdf2-sha256$1000$"));
+			assertNotEquals(version, s.getVersion());
+			assertNotNull(manager.openSession(ID, PASSWORD));
+			assertEquals(rehashed, s.getPassword());
+
+			PasswordHasher.setScheme(new Pbkdf2Scheme(2000));
+			assertTrue(manager.login(ID, PASSWORD));
+			assertTrue(s.getPassword().startsWith("pbkdf2-sha256$2000$"));
+		} finally {
+			PasswordHasher.setScheme(before);
+		}
+		manager.logout();
+		assertTrue(manager.login(ID, PASSWORD));
+	}
+
+	/**
+	 * Tests that a PBKDF2 hash isn't replaced with a SHA-256 one when the user
+	 * logs in while SHA-256 is the current scheme
+	 */
+	@Test
+	public void testLoginKeepsStrongerHash() {
+		assertTrue(PasswordHasher.getScheme() instanceof Sha256Scheme);
+		manager.getStudentDirectory().addStudent(FIRST_NAME, LAST_NAME, ID, EMAIL, PASSWORD, PASSWORD, MAX_CREDITS);
+		Student s = manager.getStudentDirectory().getStudentById(ID);
+		String pbkdf2 = new Pbkdf2Scheme(1000).hash(PASSWORD);
+		s.setPassword(pbkdf2);
+		int version = s.getVersion();
+
+		assertNotNull(manager.openSession(ID, PASSWORD));
+		assertTrue(manager.login(ID, PASSWORD));
+		assertEquals(pbkdf2, s.getPassword());
+		assertEquals(version, s.getVersion());
+	}
+
+	/**
+	 * Tests that logins wait for the login threads and are turned away once
+	 * too many are waiting
+	 */
+	@Test
+	public void testLoginPool() {
+		String slowHash = new Pbkdf2Scheme(200000).hash(PASSWORD);
+		manager.getStudentDirectory().addStudent(FIRST_NAME, LAST_NAME, ID, EMAIL, PASSWORD, PASSWORD, MAX_CREDITS);
+		manager.getStudentDirectory().getStudentById(ID).setPassword(slowHash);
+		assertThrows(IllegalArgumentException.class, () -> manager.setLoginPool(0, 1));
+
+		manager.setLoginPool(1, 1);
+		try {
+			CompletableFuture<Session> checking = manager.openSessionAsync(ID, PASSWORD);
+			CompletableFuture<Session> waiting = manager.openSessionAsync(ID, "wrong");
+			CompletableFuture<Session> rejected = manager.openSessionAsync(ID, PASSWORD);
+			Exception e = assertThrows(ExecutionException.class, () -> rejected.get());
+			assertEquals("Too many logins, try again later.", e.getCause().getMessage());
+
+			assertEquals(ID, assertDoesNotThrow(() -> checking.get()).getUser().getId());
+			assertNull(assertDoesNotThrow(() -> waiting.get()));
+			e = assertThrows(ExecutionException.class, () -> manager.openSessionAsync("nobody", PASSWORD).get());
+			assertEquals("User doesn't exist.", e.getCause().getMessage());
+		} finally {
+			manager.setLoginPool(Runtime.getRuntime().availableProcessors(), 1024);
+		}
+	}
+
+	/**
+	 * Tests that many sessions enrolling and dropping at the same time never lose an
+	 * update or enroll more students than a course can hold
+	 * @throws Exception if a thread fails
+	 */
+	@Test
+	public void testConcurrentEnrollment() throws Exception {
+		final int numStudents = 60;
+		for (int i = 0; i < numStudents; i++) {
+			manager.getStudentDirectory().addStudent(FIRST_NAME, LAST_NAME, ID + i, EMAIL, PASSWORD, PASSWORD, MAX_CREDITS);
+		}
+		CourseCatalog catalog = manager.getCourseCatalog();
+		catalog.loadCoursesFromFile("test-files/course_records.txt");
+		final Course popular = catalog.getCourseFromCatalog("CSC216", "001");
+		final Course[] courses = { popular, catalog.getCourseFromCatalog("CSC226", "001"),
+				catalog.getCourseFromCatalog("CSC230", "001"), catalog.getCourseFromCatalog("CSC217", "211") };
+
+		ExecutorService pool = Executors.newFixedThreadPool(16);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger enrolled = new AtomicInteger();
+		Future<?>[] futures = new Future<?>[numStudents];
+		for (int i = 0; i < numStudents; i++) {
+			final Session session = manager.openSession(ID + i, PASSWORD);
+			futures[i] = pool.submit(() -> {
+				start.await();
+				if (manager.enrollStudentInCourse(session, popular)) {
+					enrolled.incrementAndGet();
+				}
+				return null;
+			});
+		}
+		start.countDown();
+		for (Future<?> f : futures) {
+			f.get(30, TimeUnit.SECONDS);
+		}
+
+		// Exactly the capacity got in and each of them has the course
+		assertEquals(popular.getCourseRoll().getEnrollmentCap(), enrolled.get());
+		assertEquals(0, popular.getCourseRoll().getOpenSeats());
+		assertEquals(enrolled.get(), countScheduled(numStudents, popular));
+
+		// Churn enrollments across several courses at once
+		for (int i = 0; i < numStudents; i++) {
+			final Session session = manager.openSession(ID + i, PASSWORD);
+			final int offset = i;
+			futures[i] = pool.submit(() -> {
+				for (int j = 0; j < 200; j++) {
+					Course c = courses[(offset + j) % courses.length];
+					if (!manager.enrollStudentInCourse(session, c)) {
+						manager.dropStudentFromCourse(session, c);
+					}
+				}
+				return null;
+			});
+		}
+		for (Future<?> f : futures) {
+			f.get(30, TimeUnit.SECONDS);
+		}
+		pool.shutdown();
+
+		// Every roll agrees with the schedules of the students in it
+		for (Course c : courses) {
+			int taken = c.getCourseRoll().getEnrollmentCap() - c.getCourseRoll().getOpenSeats();
+			assertTrue(c.getCourseRoll().getOpenSeats() >= 0);
+			assertEquals(taken, countScheduled(numStudents, c));
+		}
+	}
+
+	/**
+	 * Tests saving a snapshot and loading it back in place of the current data
+	 * @throws IOException if the temporary file cannot be made
+	 */
+	@Test
+	public void testSnapshot() throws IOException {
+		manager.getFacultyDirectory().addFaculty(FIRST_NAME, LAST_NAME, "prof", EMAIL, PASSWORD, PASSWORD, 2);
+		manager.getStudentDirectory().addStudent(FIRST_NAME, LAST_NAME, ID, EMAIL, PASSWORD, PASSWORD, MAX_CREDITS);
+		CourseCatalog catalog = manager.getCourseCatalog();
+		catalog.loadCoursesFromFile("test-files/course_records.txt");
+		Course course = catalog.getCourseFromCatalog("CSC216", "001");
+		assertTrue(manager.login(registrarUsername, registrarPassword));
+		assertTrue(manager.addFacultyToCourse(course, manager.getFacultyDirectory().getFacultyById("prof")));
+		manager.logout();
+		Session session = manager.openSession(ID, PASSWORD);
+		assertTrue(manager.enrollStudentInCourse(session, course));
+		File snapshotFile = File.createTempFile("snapshot", ".bin");
+		snapshotFile.deleteOnExit();
+		manager.saveSnapshot(snapshotFile.getPath());
+
+		manager.clearData();
+		assertEquals(0, catalog.getCourseCatalog().length);
+		manager.loadSnapshot(snapshotFile.getPath());
+		assertEquals(13, catalog.getCourseCatalog().length);
+		Course loaded = catalog.getCourseFromCatalog("CSC216", "001");
+		assertEquals("prof", loaded.getInstructorId());
+		assertEquals(1, manager.getFacultyDirectory().getFacultyById("prof").getSchedule().getNumScheduledCourses());
+		assertEquals(loaded.getCourseRoll().getEnrollmentCap() - 1, loaded.getCourseRoll().getOpenSeats());
+
+		// the loaded student can log in and is enrolled in the loaded course
+		session = manager.openSession(ID, PASSWORD);
+		assertNotNull(session);
+		Student student = (Student) session.getUser();
+		assertEquals(1, student.getSchedule().getScheduledCourses().length);
+		assertTrue(manager.dropStudentFromCourse(session, loaded));
+		assertEquals(loaded.getCourseRoll().getEnrollmentCap(), loaded.getCourseRoll().getOpenSeats());
+
+		// the loaded catalog and directory can still be changed
+		assertTrue(catalog.addCourseToCatalog("CSC499", "Capstone", "001", 3, null, 10, "TH", 1330, 1445));
+		assertTrue(catalog.removeCourseFromCatalog("CSC116", "001"));
+		assertEquals(13, catalog.getCourseCatalog().length);
+		assertEquals("CSC499", catalog.getCourseCatalog()[12][0]);
+		assertTrue(manager.getStudentDirectory().addStudent(FIRST_NAME, LAST_NAME, ID + 1, EMAIL, PASSWORD, PASSWORD,
+				MAX_CREDITS));
+		assertTrue(manager.getStudentDirectory().removeStudent(ID));
+		assertEquals(ID + 1, manager.getStudentDirectory().getStudentDirectory()[0][2]);
+
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> manager.loadSnapshot("test-files/course_records.txt"));
+		assertEquals("Unable to read file test-files/course_records.txt", e.getMessage());
+		assertEquals(13, catalog.getCourseCatalog().length);
+	}
+
+	/**
+	 * Tests RegistrationManager.checkpoint() and recover()
+	 * @throws IOException if the temporary files cannot be made
+	 */
+	@Test
+	public void testRecover() throws IOException {
+		File snapshot = File.createTempFile("snapshot", ".bin");
+		File journal = File.createTempFile("journal", ".txt");
+		snapshot.deleteOnExit();
+		journal.deleteOnExit();
+		String snapshotFile = snapshot.getPath();
+		String journalFile = journal.getPath();
+		manager.getFacultyDirectory().addFaculty(FIRST_NAME, LAST_NAME, "prof", EMAIL, PASSWORD, PASSWORD, 2);
+		manager.getFacultyDirectory().addFaculty(FIRST_NAME, LAST_NAME, "prof2", EMAIL, PASSWORD, PASSWORD, 2);
+		for (int i = 0; i < 2; i++) {
+			manager.getStudentDirectory().addStudent(FIRST_NAME, LAST_NAME, ID + i, EMAIL, PASSWORD, PASSWORD, MAX_CREDITS);
+		}
+		CourseCatalog catalog = manager.getCourseCatalog();
+		catalog.loadCoursesFromFile("test-files/course_records.txt");
+		manager.checkpoint(snapshotFile, journalFile);
+
+		Course csc216 = catalog.getCourseFromCatalog("CSC216", "001");
+		Course csc226 = catalog.getCourseFromCatalog("CSC226", "001");
+		Session registrar = manager.openSession(registrarUsername, registrarPassword);
+		assertTrue(manager.addFacultyToCourse(registrar, csc216, manager.getFacultyDirectory().getFacultyById("prof")));
+		Session first = manager.openSession(ID + 0, PASSWORD);
+		assertTrue(manager.enrollStudentInCourse(first, csc216));
+		assertTrue(manager.enrollStudentInCourse(first, csc226));
+		assertTrue(manager.dropStudentFromCourse(first, csc226));
+		Session second = manager.openSession(ID + 1, PASSWORD);
+		assertTrue(manager.enrollStudentInCourse(second, csc216));
+		assertTrue(manager.enrollStudentInCourse(second, csc226));
+		manager.resetSchedule(second);
+		assertTrue(manager.enrollStudentInCourse(second, csc226));
+		int openSeats = csc216.getCourseRoll().getOpenSeats();
+
+		// a faculty reset frees each course before it can be assigned again
+		Course csc230 = catalog.getCourseFromCatalog("CSC230", "001");
+		assertTrue(manager.addFacultyToCourse(registrar, csc230, manager.getFacultyDirectory().getFacultyById("prof2")));
+		manager.resetFacultySchedule(registrar, manager.getFacultyDirectory().getFacultyById("prof2"));
+		assertTrue(manager.addFacultyToCourse(registrar, csc230, manager.getFacultyDirectory().getFacultyById("prof")));
+
+		// every change was committed, so nothing is lost when the data is
+		manager.clearData();
+		manager.recover(snapshotFile, journalFile);
+		csc216 = catalog.getCourseFromCatalog("CSC216", "001");
+		csc226 = catalog.getCourseFromCatalog("CSC226", "001");
+		assertEquals("prof", csc216.getInstructorId());
+		assertEquals("prof", catalog.getCourseFromCatalog("CSC230", "001").getInstructorId());
+		assertEquals(2, manager.getFacultyDirectory().getFacultyById("prof").getSchedule().getNumScheduledCourses());
+		assertEquals(0, manager.getFacultyDirectory().getFacultyById("prof2").getSchedule().getNumScheduledCourses());
+		assertEquals(openSeats, csc216.getCourseRoll().getOpenSeats());
+		assertEquals(csc226.getCourseRoll().getEnrollmentCap() - 1, csc226.getCourseRoll().getOpenSeats());
+		String[][] schedule = manager.getStudentDirectory().getStudentById(ID + 0).getSchedule().getScheduledCourses();
+		assertEquals(1, schedule.length);
+		assertEquals("CSC216", schedule[0][0]);
+		schedule = manager.getStudentDirectory().getStudentById(ID + 1).getSchedule().getScheduledCourses();
+		assertEquals(1, schedule.length);
+		assertEquals("CSC226", schedule[0][0]);
+
+		// changes after recovering are journaled after the recovered ones
+		first = manager.openSession(ID + 0, PASSWORD);
+		assertTrue(manager.dropStudentFromCourse(first, csc216));
+		manager.clearData();
+		manager.recover(snapshotFile, journalFile);
+		assertEquals(0, manager.getStudentDirectory().getStudentById(ID + 0).getSchedule().getScheduledCourses().length);
+
+		// a new checkpoint starts an empty journal
+		manager.checkpoint(snapshotFile, journalFile);
+		manager.clearData();
+		manager.recover(snapshotFile, journalFile);
+		assertEquals(1, manager.getStudentDirectory().getStudentById(ID + 1).getSchedule().getScheduledCourses().length);
+
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> manager.recover("test-files/nonexistent.bin", journalFile));
+		assertEquals("Unable to read file test-files/nonexistent.bin", e.getMessage());
+	}
+
+	/**
+	 * Tests that changes to the catalog and the directories made after a
+	 * checkpoint are recovered along with the enrollments that depend on them
+	 * @throws IOException if the temporary files cannot be made
+	 */
+	@Test
+	public void testRecoverCatalogAndDirectoryChanges() throws IOException {
+		File snapshotFile = File.createTempFile("snapshot", ".bin");
+		File journalFile = File.createTempFile("journal", ".txt");
+		try {
+			manager.checkpoint(snapshotFile.getPath(), journalFile.getPath());
+
+			FacultyDirectory faculty = manager.getFacultyDirectory();
+			faculty.loadFacultyFromFile("test-files/faculty_records.txt");
+			assertTrue(faculty.addFaculty(FIRST_NAME, LAST_NAME, "prof", EMAIL, PASSWORD, PASSWORD, 2));
+			int numFaculty = faculty.getFacultyDirectory().length;
+			CourseCatalog catalog = manager.getCourseCatalog();
+			catalog.loadCoursesFromFile("test-files/course_records.txt");
+			String instructorId = catalog.getCourseFromCatalog("CSC116", "001").getInstructorId();
+			int numCourses = catalog.getCourseCatalog().length;
+			assertTrue(catalog.addCourseToCatalog("CSC499", "Capstone", "001", 3, "prof", 10, "TH", 1330, 1445));
+			assertTrue(catalog.removeCourseFromCatalog("CSC116", "002"));
+
+			StudentDirectory students = manager.getStudentDirectory();
+			students.loadStudentsFromFile("test-files/seniority_student_records.txt");
+			assertTrue(students.addStudent(FIRST_NAME, LAST_NAME, ID, EMAIL, PASSWORD, PASSWORD, 12));
+			assertTrue(students.addStudent(FIRST_NAME, LAST_NAME, ID + 1, EMAIL, PASSWORD, PASSWORD, MAX_CREDITS));
+			assertTrue(students.removeStudent(ID + 1));
+			Session session = manager.openSession(ID, PASSWORD);
+			assertTrue(manager.enrollStudentInCourse(session, catalog.getCourseFromCatalog("CSC499", "001")));
+
+			// the student added after the checkpoint is there after recovering, with their schedule
+			manager.clearData();
+			manager.recover(snapshotFile.getPath(), journalFile.getPath());
+			Student student = manager.getStudentDirectory().getStudentById(ID);
+			assertNotNull(student);
+			assertEquals(12, student.getMaxCredits());
+			assertNull(manager.getStudentDirectory().getStudentById(ID + 1));
+			assertEquals(3, manager.getStudentDirectory().getStudentById("zking").getSeniority());
+			assertNotNull(manager.openSession(ID, PASSWORD));
+			String[][] schedule = student.getSchedule().getScheduledCourses();
+			assertEquals(1, schedule.length);
+			assertEquals("CSC499", schedule[0][0]);
+
+			Course capstone = catalog.getCourseFromCatalog("CSC499", "001");
+			assertEquals(9, capstone.getCourseRoll().getOpenSeats());
+			assertEquals("prof", capstone.getInstructorId());
+			assertNull(catalog.getCourseFromCatalog("CSC116", "002"));
+			assertEquals(numCourses, catalog.getCourseCatalog().length);
+			assertEquals(instructorId, catalog.getCourseFromCatalog("CSC116", "001").getInstructorId());
+			assertNotNull(manager.getFacultyDirectory().getFacultyById("prof"));
+			assertEquals(numFaculty, manager.getFacultyDirectory().getFacultyDirectory().length);
+		} finally {
+			manager.closeJournal();
+			snapshotFile.delete();
+			journalFile.delete();
+		}
+	}
+
+	/**
+	 * Counts the test students that have a course on their schedule
+	 * @param numStudents the number of test students
+	 * @param course the course to look for
+	 * @return the number of students with the course on their schedule
+	 */
+	private int countScheduled(int numStudents, Course course) {
+		int count = 0;
+		for (int i = 0; i < numStudents; i++) {
+			String[][] schedule = manager.getStudentDirectory().getStudentById(ID + i).getSchedule().getScheduledCourses();
+			for (int j = 0; j < schedule.length; j++) {
+				if (course.getName().equals(schedule[j][0]) && course.getSection().equals(schedule[j][1])) {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
 	/**
 	 * Hashes a password
 	 * 
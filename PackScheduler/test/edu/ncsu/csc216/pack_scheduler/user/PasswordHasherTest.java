@@ -0,0 +1,128 @@
+package edu.ncsu.csc216.pack_scheduler.user;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the PasswordHasher class
+ * @author Amulya Jose
+ */
+public class PasswordHasherTest {
+
+	/**
+	 * Tests that passwords hash to the base64 SHA-256 digest of their UTF-8 bytes,
+	 * including passwords longer than the first buffer
+	 */
+	@Test
+	public void testHash() {
+		StringBuilder longPassword = new StringBuilder();
+		while (longPassword.length() < 1000) {
+			longPassword.append("pw\u00e9\ud83d\ude00");
+		}
+		String[] passwords = { "pw", "password", "caf\u00e9", "\u20ac\ud800x\ud83d", longPassword.toString(), "pw" };
+		for (String password : passwords) {
+			assertEquals(expectedHash(password), PasswordHasher.hash(password));
+		}
+		assertThrows(NullPointerException.class, () -> PasswordHasher.hash(null));
+	}
+
+	/**
+	 * Tests checking passwords against stored hashes
+	 */
+	@Test
+	public void testMatches() {
+		String stored = PasswordHasher.hash("pw");
+		assertTrue(PasswordHasher.matches("pw", stored));
+		assertFalse(PasswordHasher.matches("pW", stored));
+		assertFalse(PasswordHasher.matches("pw", null));
+		assertFalse(PasswordHasher.matches("pw", stored.substring(1)));
+
+		assertTrue(PasswordHasher.isEqual(stored, PasswordHasher.hash("pw")));
+		assertFalse(PasswordHasher.isEqual(null, stored));
+		assertFalse(PasswordHasher.isEqual(stored, null));
+	}
+
+	/**
+	 * Tests that hashes made by any known scheme can be checked after the
+	 * scheme changes, and which ones need to be made again
+	 */
+	@Test
+	public void testSetScheme() {
+		String sha256 = PasswordHasher.hash("pw");
+		assertFalse(PasswordHasher.needsRehash(sha256));
+		assertThrows(IllegalArgumentException.class, () -> PasswordHasher.setScheme(null));
+
+		PasswordScheme before = PasswordHasher.getScheme();
+		try {
+			Pbkdf2Scheme scheme = new Pbkdf2Scheme(1000);
+			PasswordHasher.setScheme(scheme);
+			assertSame(scheme, PasswordHasher.getScheme());
+			String pbkdf2 = PasswordHasher.hash("pw");
+			assertTrue(pbkdf2.startsWith("pbkdf2-sha256$1000$"));
+			assertTrue(PasswordHasher.matches("pw", pbkdf2));
+			assertTrue(PasswordHasher.matches("pw", sha256));
+			assertFalse(PasswordHasher.matches("pW", sha256));
+			assertTrue(PasswordHasher.needsRehash(sha256));
+			assertFalse(PasswordHasher.needsRehash(pbkdf2));
+
+			PasswordHasher.setScheme(new Pbkdf2Scheme(2000));
+			assertTrue(PasswordHasher.needsRehash(pbkdf2));
+
+			// a stronger hash is never made again with a weaker scheme
+			PasswordHasher.setScheme(new Sha256Scheme());
+			assertTrue(PasswordHasher.matches("pw", pbkdf2));
+			assertFalse(PasswordHasher.needsRehash(pbkdf2));
+			assertFalse(PasswordHasher.needsRehash(sha256));
+			assertFalse(PasswordHasher.matches("pw", "unknown$hash"));
+		} finally {
+			PasswordHasher.setScheme(before);
+		}
+	}
+
+	/**
+	 * Tests that threads hashing at the same time each get the right hashes
+	 */
+	@Test
+	public void testHashConcurrently() {
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+			for (int t = 0; t < 4; t++) {
+				String prefix = "pw" + t;
+				results.add(pool.submit(() -> {
+					for (int i = 0; i < 500; i++) {
+						if (!PasswordHasher.matches(prefix + i, expectedHash(prefix + i))) {
+							return false;
+						}
+					}
+					return true;
+				}));
+			}
+			for (Future<Boolean> result : results) {
+				assertTrue(assertDoesNotThrow(() -> result.get()));
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Hashes a password the long way
+	 * @param password the password to hash
+	 * @return the base64 encoded digest
+	 */
+	private static String expectedHash(String password) {
+		MessageDigest digest = assertDoesNotThrow(() -> MessageDigest.getInstance("SHA-256"));
+		return Base64.getEncoder().encodeToString(digest.digest(password.getBytes(StandardCharsets.UTF_8)));
+	}
+}
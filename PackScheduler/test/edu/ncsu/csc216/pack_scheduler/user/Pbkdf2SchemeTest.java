@@ -0,0 +1,66 @@
+package edu.ncsu.csc216.pack_scheduler.user;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the Pbkdf2Scheme class
+ * @author Amulya Jose
+ */
+public class Pbkdf2SchemeTest {
+
+	/**
+	 * Tests that hashes hold their iterations and a new salt, and match only
+	 * their own password
+	 */
+	@Test
+	public void testHash() {
+		Pbkdf2Scheme scheme = new Pbkdf2Scheme(1000);
+		assertEquals(1000, scheme.getIterations());
+		assertEquals(Pbkdf2Scheme.DEFAULT_ITERATIONS, new Pbkdf2Scheme().getIterations());
+		assertThrows(IllegalArgumentException.class, () -> new Pbkdf2Scheme(0));
+
+		String hash = scheme.hash("pw");
+		String[] parts = hash.split("\\$");
+		assertEquals(4, parts.length);
+		assertEquals("pbkdf2-sha256", parts[0]);
+		assertEquals("1000", parts[1]);
+		assertEquals(16, Base64.getDecoder().decode(parts[2]).length);
+		assertEquals(32, Base64.getDecoder().decode(parts[3]).length);
+		assertFalse(hash.contains(","));
+
+		assertNotEquals(hash, scheme.hash("pw"));
+		assertTrue(scheme.matches("pw", hash));
+		assertFalse(scheme.matches("pW", hash));
+		assertTrue(scheme.matches("caf\u00e9", scheme.hash("caf\u00e9")));
+
+		// hashes are checked with their own iterations
+		assertTrue(new Pbkdf2Scheme(5).matches("pw", hash));
+	}
+
+	/**
+	 * Tests which hashes belong to the scheme and which need to be made again
+	 */
+	@Test
+	public void testIsSchemeOf() {
+		Pbkdf2Scheme scheme = new Pbkdf2Scheme(1000);
+		String hash = scheme.hash("pw");
+		assertTrue(scheme.isSchemeOf(hash));
+		assertFalse(scheme.needsRehash(hash));
+		assertFalse(new Pbkdf2Scheme(500).needsRehash(hash));
+		assertTrue(new Pbkdf2Scheme(2000).needsRehash(hash));
+
+		String[] invalid = { null, "", new Sha256Scheme().hash("pw"), "pbkdf2-sha256$1000$c2FsdA==",
+			"pbkdf2-sha256$0$c2FsdA==$a2V5", "pbkdf2-sha256$x$c2FsdA==$a2V5", "pbkdf2-sha256$1000$$a2V5",
+			"pbkdf2-sha1$1000$c2FsdA==$a2V5" };
+		for (String storedHash : invalid) {
+			assertFalse(scheme.isSchemeOf(storedHash));
+			assertFalse(scheme.matches("pw", storedHash));
+			assertTrue(scheme.needsRehash(storedHash));
+		}
+		assertFalse(scheme.matches("pw", "pbkdf2-sha256$1000$not base64$a2V5"));
+	}
+}
@@ -364,6 +364,11 @@ public class StudentTest {
 	public void testToString() {
 		User s1 = new Student(FIRST_NAME, LAST_NAME, ID, EMAIL, hashPW);
 		assertEquals("first,last,flast,first_last@ncsu.edu," + hashPW + ",18", s1.toString());
+
+		// a seniority is written after the max credits
+		Student s2 = new Student(FIRST_NAME, LAST_NAME, ID, EMAIL, hashPW, 12);
+		s2.setSeniority(3);
+		assertEquals("first,last,flast,first_last@ncsu.edu," + hashPW + ",12,3", s2.toString());
 	}
 
 	/**
@@ -415,4 +420,21 @@ public class StudentTest {
 	// assertDoesNotThrow(() -> new Student(first, last, id, email, pass,
 	// Integer.parseInt(credits)));
 	// }
+
+	/**
+	 * tests the setSeniority() method
+	 */
+	@Test
+	public void testSetSeniority() {
+		Student s = new Student(FIRST_NAME, LAST_NAME, ID, EMAIL, hashPW);
+		assertEquals(0, s.getSeniority());
+		int version = s.getVersion();
+		s.setSeniority(3);
+		assertEquals(3, s.getSeniority());
+		assertNotEquals(version, s.getVersion());
+		Exception e1 = assertThrows(IllegalArgumentException.class,
+				() -> s.setSeniority(-1));
+		assertEquals("Invalid seniority", e1.getMessage());
+		assertEquals(3, s.getSeniority());
+	}
 }
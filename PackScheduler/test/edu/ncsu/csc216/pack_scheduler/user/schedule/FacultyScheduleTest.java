@@ -111,6 +111,8 @@ public class FacultyScheduleTest {
 		assertEquals("Added CSC216-001 and CSC226-001 to schedule.  Value at [1][3] should be TH 1:30PM-2:45PM, but was not.", "MWF 9:35AM-10:25AM", actSchedule[1][3]);
 		assertEquals("Added CSC216-001 and CSC226-001 to schedule.  getNumScheduledCourses() should return 2, but did not.", 2, schedule.getNumScheduledCourses());
 		assertEquals("Added CSC216-001 and CSC226-001 to schedule. CSC226-001 instructor should now be sesmith5, but was not.", "sesmith5", csc226.getInstructorId());
+		assertArrayEquals("Added CSC216-001 and CSC226-001 to schedule.  getCourses() should return them in order, but did not.",
+				new Course[] { catalog.getCourseFromCatalog("CSC216", "001"), csc226 }, schedule.getCourses());
 		assertFalse("After adding 2 courses when max courses is 2, faculty is not overloaded, but returned true", f.isOverloaded());
 		
 		//Attempt to add a conflicting course
@@ -233,7 +233,7 @@ public class ScheduleTest {
                                                 .getMessage());
 
                 assertEquals(
-                                "Cannot invoke \"edu.ncsu.csc216.pack_scheduler.course.Activity.getMeetingDays()\" because \"possibleConflictingActivity\" is null",
+                                "Cannot read field \"meetingDayMask\" because \"possibleConflictingActivity\" is null",
                                 assertThrows(NullPointerException.class, () -> schedule.addCourseToSchedule(null))
                                                 .getMessage());
 
@@ -284,6 +284,8 @@ public class ScheduleTest {
                                 courses[7].getShortDisplayArray(), courses[11].getShortDisplayArray(),
                                 courses[12].getShortDisplayArray() };
                 assertArrayEquals(expected, schedule.getScheduledCourses());
+                assertArrayEquals(new Course[] { courses[0], courses[4], courses[7], courses[11], courses[12] },
+                                schedule.getCourses());
         }
 
         /**
@@ -0,0 +1,86 @@
+package edu.ncsu.csc216.pack_scheduler.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the ArrayHashList class
+ * @author Amulya Jose
+ */
+class ArrayHashListTest {
+
+	/**
+	 * Tests that duplicates are turned away as elements are added, removed and set
+	 */
+	@Test
+	public void testDuplicates() {
+		ArrayHashList<String> list = new ArrayHashList<String>();
+		for (int i = 0; i < 100; i++) {
+			list.add(i, "s" + i);
+		}
+		assertEquals(100, list.size());
+		assertThrows(IllegalArgumentException.class, () -> list.add(0, "s50"));
+		assertThrows(IllegalArgumentException.class, () -> list.add(new String("s99")));
+		assertThrows(NullPointerException.class, () -> list.add(0, null));
+		assertThrows(IndexOutOfBoundsException.class, () -> list.add(101, "new"));
+		assertFalse(list.contains("new"));
+		assertEquals(100, list.size());
+
+		// a removed element can be added again
+		assertEquals("s50", list.remove(50));
+		assertFalse(list.contains("s50"));
+		assertEquals(-1, list.indexOf("s50"));
+		list.add(0, "s50");
+		assertEquals(0, list.indexOf("s50"));
+		assertEquals("s0", list.get(1));
+
+		// set replaces the old element, and turns away duplicates including itself
+		assertEquals("s0", list.set(1, "t0"));
+		assertTrue(list.contains("t0"));
+		assertFalse(list.contains("s0"));
+		list.add(0, "s0");
+		assertThrows(IllegalArgumentException.class, () -> list.set(0, "s1"));
+		assertThrows(IllegalArgumentException.class, () -> list.set(0, "s0"));
+		assertThrows(NullPointerException.class, () -> list.set(0, null));
+		assertEquals("s0", list.get(0));
+
+		list.clear();
+		assertEquals(0, list.size());
+		assertFalse(list.contains("s1"));
+		list.add("s1");
+		assertEquals(1, list.size());
+		assertFalse(list.contains(null));
+		assertEquals(-1, list.indexOf(null));
+	}
+
+	/**
+	 * Tests that adding and removing many elements at once keeps the set in step
+	 */
+	@Test
+	public void testAddAllRemoveRange() {
+		ArrayHashList<String> list = new ArrayHashList<String>(2);
+		assertThrows(IllegalArgumentException.class, () -> new ArrayHashList<String>(-1));
+		assertTrue(list.addAll(Arrays.asList("a", "b", "c", "d")));
+		assertThrows(IllegalArgumentException.class, () -> list.addAll(0, Arrays.asList("x", "c")));
+		assertFalse(list.contains("x"));
+		assertTrue(list.addAll(2, Arrays.asList("x", "y")));
+		assertEquals(Arrays.asList("a", "b", "x", "y", "c", "d"), list);
+		assertTrue(list.contains("y"));
+
+		list.removeRange(1, 3);
+		assertEquals(Arrays.asList("a", "y", "c", "d"), list);
+		assertFalse(list.contains("b"));
+		assertFalse(list.contains("x"));
+		assertTrue(list.contains("y"));
+		list.add("b");
+		assertThrows(IndexOutOfBoundsException.class, () -> list.removeRange(0, 6));
+		assertTrue(list.contains("b"));
+		list.removeRange(0, list.size());
+		assertFalse(list.contains("a"));
+		list.add("a");
+		assertEquals(1, list.size());
+	}
+}
@@ -2,6 +2,9 @@ package edu.ncsu.csc216.pack_scheduler.util;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.Arrays;
+import java.util.Collections;
+
 import org.junit.jupiter.api.Test;
 
 /**
@@ -163,4 +166,59 @@ class ArrayListTest {
 		assertThrows(IndexOutOfBoundsException.class, () -> list.get(-1));
 		assertThrows(IndexOutOfBoundsException.class, () -> list.get(4));
 	}
+
+	/**
+	 * tests the capacity constructor, ensureCapacity() and trimToSize()
+	 */
+	@Test
+	public void testCapacity() {
+		assertThrows(IllegalArgumentException.class, () -> new ArrayList<Integer>(-1));
+		ArrayList<Integer> list = new ArrayList<Integer>(0);
+		for (int i = 0; i < 25; i++) {
+			list.add(i);
+		}
+		assertEquals(25, list.size());
+		list.trimToSize();
+		list.add(0, 100);
+		list.ensureCapacity(1000);
+		list.trimToSize();
+		assertEquals(26, list.size());
+		assertEquals(100, list.get(0));
+		assertEquals(24, list.get(25));
+
+		ArrayList<Integer> empty = new ArrayList<Integer>();
+		empty.trimToSize();
+		empty.add(1);
+		assertEquals(1, empty.size());
+	}
+
+	/**
+	 * tests adding and removing many elements at once
+	 */
+	@Test
+	public void testAddAllRemoveRange() {
+		ArrayList<Integer> list = new ArrayList<Integer>();
+		assertTrue(list.addAll(Arrays.asList(1, 2, 3)));
+		assertTrue(list.addAll(1, Arrays.asList(10, 11, 12, 13, 14, 15, 16, 17, 18, 19)));
+		assertEquals(Arrays.asList(1, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 2, 3), list);
+		assertFalse(list.addAll(Collections.<Integer>emptyList()));
+
+		// nothing is added if any element can't be
+		assertThrows(IllegalArgumentException.class, () -> list.addAll(Arrays.asList(4, 2)));
+		assertThrows(IllegalArgumentException.class, () -> list.addAll(Arrays.asList(4, 4)));
+		assertThrows(NullPointerException.class, () -> list.addAll(Arrays.asList(4, null)));
+		assertThrows(IndexOutOfBoundsException.class, () -> list.addAll(14, Arrays.asList(4)));
+		assertEquals(13, list.size());
+
+		list.removeRange(1, 11);
+		assertEquals(Arrays.asList(1, 2, 3), list);
+		list.removeRange(1, 1);
+		assertEquals(3, list.size());
+		assertThrows(IndexOutOfBoundsException.class, () -> list.removeRange(2, 4));
+		assertThrows(IndexOutOfBoundsException.class, () -> list.removeRange(2, 1));
+		list.add(10);
+		assertEquals(Arrays.asList(1, 2, 3, 10), list);
+		list.clear();
+		assertEquals(0, list.size());
+	}
 }
@@ -140,5 +140,58 @@ public class ArrayQueueTest {
 		assertTrue(queue.isEmpty());
 	}
 	
+	/**
+	 * Tests that the queue keeps its order when the front and back wrap
+	 * around the end of the array and when the array grows
+	 */
+	@Test
+	public void testWrapAroundAndGrow() {
+		ArrayQueue<Integer> queue = new ArrayQueue<Integer>(100);
+		int next = 0;
+		int expected = 0;
+		for (int i = 0; i < 8; i++) {
+			queue.enqueue(next++);
+		}
+		for (int round = 0; round < 50; round++) {
+			for (int i = 0; i < 3; i++) {
+				queue.enqueue(next++);
+			}
+			for (int i = 0; i < 2; i++) {
+				assertEquals(expected++, queue.dequeue());
+			}
+		}
+		assertEquals(58, queue.size());
+		assertTrue(queue.contains(expected));
+		assertTrue(queue.contains(next - 1));
+		assertFalse(queue.contains(expected - 1));
+		while (!queue.isEmpty()) {
+			assertEquals(expected++, queue.dequeue());
+		}
+		assertEquals(next, expected);
+		assertThrows(NoSuchElementException.class, () -> queue.dequeue());
+	}
+
+	/**
+	 * Tests raising the capacity of a full queue and enqueuing null
+	 */
+	@Test
+	public void testRaiseCapacity() {
+		ArrayQueue<String> queue = new ArrayQueue<String>(0);
+		assertThrows(IllegalArgumentException.class, () -> queue.enqueue("Apple"));
+		queue.setCapacity(2);
+		queue.enqueue("Apple");
+		queue.enqueue("Strawberry");
+		assertThrows(IllegalArgumentException.class, () -> queue.enqueue("Bread"));
+		assertEquals("Apple", queue.dequeue());
+		queue.enqueue("Bread");
+		queue.setCapacity(3);
+		queue.enqueue("Corn");
+		assertThrows(NullPointerException.class, () -> queue.enqueue(null));
+		assertEquals("Strawberry", queue.dequeue());
+		assertEquals("Bread", queue.dequeue());
+		assertEquals("Corn", queue.dequeue());
+		assertTrue(queue.isEmpty());
+	}
+
 }
 	
@@ -2,6 +2,11 @@ package edu.ncsu.csc216.pack_scheduler.util;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 import org.junit.jupiter.api.Test;
 
 /**
@@ -156,4 +161,90 @@ class LinkedAbstractListTest {
 		assertThrows(IndexOutOfBoundsException.class, () -> list.get(4));
 	}
 
+
+	/**
+	 * tests getting, setting, adding and removing by index in and out of order,
+	 * so the remembered node has to follow every change
+	 */
+	@Test
+	public void testIndexAccess() {
+		LinkedAbstractList<Integer> list = new LinkedAbstractList<Integer>(100);
+		for (int i = 0; i < 20; i++) {
+			list.add(i);
+		}
+		for (int i = 0; i < 20; i++) {
+			assertEquals(i, list.get(i));
+		}
+		assertEquals(15, list.get(15));
+		list.add(0, 100);
+		assertEquals(15, list.get(16));
+		list.remove(0);
+		assertEquals(15, list.get(15));
+		assertEquals(10, list.get(10));
+		assertEquals(10, list.remove(10));
+		assertEquals(11, list.get(10));
+		assertEquals(9, list.get(9));
+		list.add(10, 10);
+		assertEquals(10, list.get(10));
+		assertEquals(12, list.set(12, 112));
+		assertEquals(112, list.get(12));
+		assertEquals(0, list.remove(0));
+		assertEquals(1, list.get(0));
+		assertEquals(19, list.remove(list.size() - 1));
+		list.add(19);
+		list.add(20);
+		assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 112, 13, 14, 15, 16, 17, 18, 19, 20), list);
+		list.clear();
+		assertEquals(0, list.size());
+		list.add(5);
+		assertEquals(5, list.get(0));
+	}
+
+	/**
+	 * tests the iterator, including removing through it and failing fast
+	 */
+	@Test
+	public void testIterator() {
+		LinkedAbstractList<Integer> list = new LinkedAbstractList<Integer>(10);
+		for (int i = 0; i < 6; i++) {
+			list.add(i);
+		}
+		Iterator<Integer> it = list.iterator();
+		assertThrows(IllegalStateException.class, () -> it.remove());
+		int expected = 0;
+		while (it.hasNext()) {
+			int element = it.next();
+			assertEquals(expected++, element);
+			if (element % 2 == 0) {
+				it.remove();
+				assertThrows(IllegalStateException.class, () -> it.remove());
+			}
+		}
+		assertThrows(NoSuchElementException.class, () -> it.next());
+		assertEquals(Arrays.asList(1, 3, 5), list);
+
+		Iterator<Integer> back = list.iterator();
+		back.next();
+		back.next();
+		back.next();
+		back.remove();
+		list.add(7);
+		assertEquals(Arrays.asList(1, 3, 7), list);
+		assertEquals(7, list.get(2));
+
+		Iterator<Integer> stale = list.iterator();
+		stale.next();
+		list.add(9);
+		assertThrows(ConcurrentModificationException.class, () -> stale.next());
+		assertThrows(ConcurrentModificationException.class, () -> stale.remove());
+
+		Iterator<Integer> all = list.iterator();
+		while (all.hasNext()) {
+			all.next();
+			all.remove();
+		}
+		assertEquals(0, list.size());
+		list.add(1);
+		assertEquals(Arrays.asList(1), list);
+	}
 }
@@ -2,6 +2,10 @@ package edu.ncsu.csc216.pack_scheduler.util;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 import org.junit.jupiter.api.Test;
 
 /**
@@ -238,4 +242,69 @@ public class LinkedListRecursiveTest {
         assertEquals("kiwi", list.get(1));
     }
 
+    /**
+     * Tests a list too long to walk recursively, and that the back of the list
+     * is kept as elements are added and removed at the end.
+     */
+    @Test
+    public void testLongList() {
+        LinkedListRecursive<Integer> list = new LinkedListRecursive<Integer>();
+        for (int i = 0; i < 50000; i++) {
+            list.add(i);
+        }
+        assertEquals(50000, list.size());
+        assertEquals(49999, list.get(49999));
+        assertEquals(40000, list.get(40000));
+        assertTrue(list.contains(49999));
+        assertEquals(40000, list.set(40000, -1));
+        assertTrue(list.remove(Integer.valueOf(49999)));
+        assertEquals(49998, list.remove(49998));
+        list.add(50000);
+        assertEquals(50000, list.get(49998));
+        list.add(49998, 60000);
+        assertEquals(50000, list.get(49999));
+        assertEquals(60000, list.remove(49998));
+        list.add(70000);
+        assertEquals(70000, list.get(49999));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(50000));
+        assertThrows(IllegalArgumentException.class, () -> list.add(70000));
+
+        while (!list.isEmpty()) {
+            list.remove(0);
+        }
+        list.add(1);
+        list.add(2);
+        assertEquals(2, list.get(1));
+    }
+
+    /**
+     * Tests iterating over the list.
+     */
+    @Test
+    public void testIterator() {
+        LinkedListRecursive<String> list = new LinkedListRecursive<String>();
+        assertFalse(list.iterator().hasNext());
+        list.add("orange");
+        list.add("banana");
+        list.add("apple");
+        StringBuilder all = new StringBuilder();
+        for (String fruit : list) {
+            all.append(fruit).append(' ');
+        }
+        assertEquals("orange banana apple ", all.toString());
+
+        Iterator<String> it = list.iterator();
+        it.next();
+        list.set(1, "kiwi");
+        assertEquals("kiwi", it.next());
+        list.remove("orange");
+        assertThrows(ConcurrentModificationException.class, () -> it.next());
+
+        Iterator<String> done = list.iterator();
+        done.next();
+        done.next();
+        assertThrows(NoSuchElementException.class, () -> done.next());
+        assertThrows(UnsupportedOperationException.class, () -> done.remove());
+    }
+
 }
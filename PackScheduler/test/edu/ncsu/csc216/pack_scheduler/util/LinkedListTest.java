@@ -2,6 +2,7 @@ package edu.ncsu.csc216.pack_scheduler.util;
 
 import static org.junit.Assert.*;
 
+import java.util.ConcurrentModificationException;
 import java.util.ListIterator;
 import java.util.NoSuchElementException;
 
@@ -310,4 +311,101 @@ public class LinkedListTest {
         }
         assertEquals("applebananacherry", sb.toString());
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for reaching elements by index from either end and from the last index reached.
+     */
+    @Test
+    public void testSeek() {
+        LinkedList<Integer> list = new LinkedList<Integer>();
+        java.util.ArrayList<Integer> expected = new java.util.ArrayList<Integer>();
+        for (int i = 0; i < 1000; i++) {
+            list.addLast(i);
+            expected.add(i);
+        }
+        list.add(0, -1);
+        expected.add(0, -1);
+        list.add(500, -2);
+        expected.add(500, -2);
+        assertEquals(Integer.valueOf(499), list.remove(501));
+        expected.remove(501);
+        list.add(list.size(), -3);
+        expected.add(-3);
+
+        assertEquals(expected.size(), list.size());
+        int[] indexes = { 0, 1001, 500, 499, 700, 3, 998, 999, 1000, 250, 0 };
+        for (int index : indexes) {
+            assertEquals(expected.get(index), list.get(index));
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), list.get(i));
+        }
+        for (int i = expected.size() - 1; i >= 0; i--) {
+            assertEquals(expected.get(i), list.get(i));
+        }
+
+        try {
+            list.get(list.size());
+            fail("Should have thrown an IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+            assertEquals(expected.size(), list.size());
+        }
+        try {
+            list.addLast(5);
+            fail("Should have thrown an IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertEquals(expected.size(), list.size());
+        }
+    }
+
+    /**
+     * Test method for the iterator indexes after removing and adding through it.
+     */
+    @Test
+    public void testIteratorRemove() {
+        LinkedList<String> list = new LinkedList<String>();
+        list.add("apple");
+        list.add("banana");
+        list.add("cherry");
+        list.add("date");
+
+        ListIterator<String> iterator = list.listIterator(1);
+        assertEquals("banana", iterator.next());
+        iterator.remove();
+        assertEquals(1, iterator.nextIndex());
+        assertEquals(0, iterator.previousIndex());
+        assertEquals("cherry", iterator.next());
+        assertEquals("cherry", iterator.previous());
+        iterator.remove();
+        assertEquals(1, iterator.nextIndex());
+        assertEquals("date", iterator.next());
+        iterator.add("elderberry");
+        assertEquals(3, iterator.nextIndex());
+        assertFalse(iterator.hasNext());
+
+        assertEquals(3, list.size());
+        assertEquals("apple", list.get(0));
+        assertEquals("date", list.get(1));
+        assertEquals("elderberry", list.get(2));
+    }
+
+    /**
+     * Test method for iterators noticing the list was changed around them.
+     */
+    @Test
+    public void testConcurrentModification() {
+        LinkedList<String> list = new LinkedList<String>();
+        list.add("apple");
+        list.add("banana");
+
+        ListIterator<String> iterator = list.listIterator();
+        iterator.next();
+        list.add("cherry");
+        try {
+            iterator.next();
+            fail("Should have thrown a ConcurrentModificationException");
+        } catch (ConcurrentModificationException e) {
+            assertEquals(3, list.size());
+        }
+    }
+}